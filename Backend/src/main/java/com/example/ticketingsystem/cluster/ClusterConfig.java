@@ -0,0 +1,45 @@
+package com.example.ticketingsystem.cluster;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Chooses the cluster transport from {@code ticket.cluster.transport}.
+ */
+@Configuration
+public class ClusterConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "ticket.cluster.transport", havingValue = "http")
+    public ClusterTransport httpClusterTransport(@Value("${ticket.cluster.peers:}") String peers,
+                                                 @Value("${ticket.cluster.request-timeout-ms:2000}") long timeoutMillis,
+                                                 @Value("${ticket.cluster.token:}") String token,
+                                                 ObjectMapper objectMapper) {
+        // Peers are listed as id=baseUrl pairs, e.g. node-2=http://localhost:8081,node-3=http://localhost:8082
+        Map<String, URI> peerUrls = new LinkedHashMap<>();
+        for (String peer : peers.split(",")) {
+            if (peer.isBlank()) {
+                continue;
+            }
+            String[] parts = peer.trim().split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Cluster peers must be listed as id=url, got: " + peer);
+            }
+            peerUrls.put(parts[0].trim(), URI.create(parts[1].trim()));
+        }
+        return new HttpClusterTransport(peerUrls, objectMapper, Duration.ofMillis(timeoutMillis), token);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "ticket.cluster.transport", havingValue = "loopback", matchIfMissing = true)
+    public ClusterTransport loopbackTransport() {
+        return new LoopbackTransport();
+    }
+}
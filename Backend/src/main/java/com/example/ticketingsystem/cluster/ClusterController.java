@@ -0,0 +1,90 @@
+package com.example.ticketingsystem.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for cluster membership and inventory exchange between nodes.
+ */
+@RestController
+@RequestMapping("/api/cluster")
+public class ClusterController {
+
+    private final ClusterNode clusterNode;
+    private final byte[] token;
+
+    @Autowired
+    public ClusterController(ClusterNode clusterNode, @Value("${ticket.cluster.token:}") String token) {
+        this.clusterNode = clusterNode;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Retrieves this node's partition and transfer counters.
+     *
+     * @return the cluster status of this node
+     */
+    @GetMapping("/status")
+    public ResponseEntity<?> getStatus() {
+        return ResponseEntity.ok(clusterNode.getStatus());
+    }
+
+    /**
+     * Reserves part of this node's unsold inventory for a peer; called by {@link HttpClusterTransport}.
+     *
+     * @param requester the id of the node asking
+     * @param transfer the requester's id for this transfer
+     * @param wanted the number of tickets wanted
+     * @param presentedToken the cluster token sent by the peer
+     * @return the inventory reserved, or 403 if the caller is not a peer
+     */
+    @PostMapping("/inventory")
+    public ResponseEntity<?> handOverInventory(@RequestParam String requester, @RequestParam String transfer,
+                                               @RequestParam int wanted,
+                                               @RequestHeader(value = HttpClusterTransport.TOKEN_HEADER, required = false) String presentedToken) {
+        ResponseEntity<?> rejection = checkPeer(requester, presentedToken);
+        if (rejection != null) {
+            return rejection;
+        }
+        return ResponseEntity.ok(clusterNode.handOver(requester, transfer, wanted));
+    }
+
+    /**
+     * Commits inventory reserved for a peer; called by {@link HttpClusterTransport}.
+     *
+     * @param requester the id of the node that asked for the inventory
+     * @param transfer the requester's id for the transfer
+     * @param presentedToken the cluster token sent by the peer
+     * @return whether the inventory now belongs to the peer, or 403 if the caller is not a peer
+     */
+    @PostMapping("/inventory/confirm")
+    public ResponseEntity<?> confirmInventory(@RequestParam String requester, @RequestParam String transfer,
+                                              @RequestHeader(value = HttpClusterTransport.TOKEN_HEADER, required = false) String presentedToken) {
+        ResponseEntity<?> rejection = checkPeer(requester, presentedToken);
+        if (rejection != null) {
+            return rejection;
+        }
+        return ResponseEntity.ok(Map.of("confirmed", clusterNode.confirm(requester, transfer)));
+    }
+
+    // Only configured peers presenting the cluster token, if one is set, may move inventory
+    private ResponseEntity<?> checkPeer(String requester, String presentedToken) {
+        if (!clusterNode.isEnabled()) {
+            return ResponseEntity.badRequest().body("Cluster mode is disabled on this node");
+        }
+        if (token.length > 0 && (presentedToken == null
+                || !MessageDigest.isEqual(token, presentedToken.getBytes(StandardCharsets.UTF_8)))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid cluster token");
+        }
+        if (!clusterNode.isPeer(requester)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Node " + requester + " is not a peer of this node");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,388 @@
+package com.example.ticketingsystem.cluster;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import com.example.ticketingsystem.model.TicketPool;
+import com.example.ticketingsystem.service.TicketingService;
+
+/**
+ * This node's share of an event's inventory when the backend runs as a cluster.
+ * The configured {@code totalTickets} are partitioned across the cluster members, and each node
+ * only releases tickets from its own release budget, so the cluster as a whole never releases
+ * more than {@code totalTickets}. Purchases are served from the local pool without any
+ * coordination. When a node has no budget left and its pool runs low it asks a peer for part of
+ * its unsold inventory: first unreleased budget, then unsold tickets from the peer's pool.
+ * Inventory only ever moves between nodes, never gets created, so the cluster-wide limit holds.
+ * A handover is reserved first and only belongs to the requester once it has confirmed it; the
+ * requester retries the confirmation until it gets an answer, and reservations left unconfirmed
+ * past the reservation timeout go back to the donor, so a lost request or response neither
+ * loses nor duplicates inventory. Only members of the cluster may ask for inventory.
+ * <p>
+ * When clustering is disabled the release budget is unlimited and the node is inert.
+ */
+@Service
+public class ClusterNode implements ClusterTransport.InventoryHandler {
+
+    private record Reservation(InventoryTransfer transfer, long reservedAtNanos) {}
+
+    private record PendingTransfer(String peerId, String transferId, InventoryTransfer transfer) {}
+
+    private final String nodeId;
+    private final boolean enabled;
+    private final ClusterTransport transport;
+    private final Supplier<TicketPool> pool;
+    private final AtomicInteger releaseBudget = new AtomicInteger();
+    private final AtomicBoolean rebalancing = new AtomicBoolean();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong receivedFromPeers = new AtomicLong();
+    private final AtomicLong givenToPeers = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+    private final AtomicLong expiredReservations = new AtomicLong();
+    private final Map<String, Reservation> reservations = new HashMap<>(); // guarded by this
+    private final Set<String> committedTransfers = new HashSet<>(); // guarded by this
+    private final long reservationTimeoutNanos;
+    private volatile PendingTransfer unconfirmed;
+    private volatile int partitionSize;
+    private int nextPeer = 0; // only touched by the rebalancing task
+
+    @Autowired
+    public ClusterNode(@Value("${ticket.cluster.enabled:false}") boolean enabled,
+                       @Value("${ticket.cluster.node-id:node-1}") String nodeId,
+                       ClusterTransport transport,
+                       @Lazy TicketingService ticketingService,
+                       @Value("${ticket.cluster.reservation-timeout-ms:10000}") long reservationTimeoutMillis) {
+        this(nodeId, enabled, transport, ticketingService::getTicketPool, reservationTimeoutMillis);
+    }
+
+    /**
+     * Creates a node outside of Spring, e.g. several nodes sharing a {@link LoopbackTransport}.
+     *
+     * @param nodeId the unique id of this node
+     * @param enabled whether the release budget is enforced and inventory rebalanced
+     * @param transport how to reach the other nodes
+     * @param pool supplies the node's current ticket pool
+     * @param reservationTimeoutMillis how long inventory reserved for a peer waits for its confirmation
+     */
+    public ClusterNode(String nodeId, boolean enabled, ClusterTransport transport, Supplier<TicketPool> pool,
+                       long reservationTimeoutMillis) {
+        this.nodeId = nodeId;
+        this.enabled = enabled;
+        this.transport = transport;
+        this.pool = pool;
+        this.reservationTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(reservationTimeoutMillis);
+    }
+
+    @PostConstruct
+    public void join() {
+        if (enabled) {
+            transport.register(nodeId, this);
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (enabled) {
+            transport.unregister(nodeId);
+        }
+    }
+
+    /**
+     * Sets this node's share of a new event's inventory, partitioning {@code totalTickets} over
+     * the current members in id order. Every node must be configured with the same total.
+     *
+     * @param totalTickets the cluster-wide number of tickets for the event
+     */
+    public synchronized void resetPartition(int totalTickets) {
+        List<String> members = new ArrayList<>(transport.getMembers());
+        int index = Math.max(0, members.indexOf(nodeId));
+        int nodes = Math.max(1, members.size());
+        partitionSize = totalTickets / nodes + (index < totalTickets % nodes ? 1 : 0);
+        releaseBudget.set(partitionSize);
+        released.set(0);
+        reservations.clear(); // Inventory reserved for the previous event is not restored into this one
+        committedTransfers.clear();
+    }
+
+    /**
+     * Claims one ticket from the release budget before a vendor releases it.
+     *
+     * @return whether the ticket may be released; always true when clustering is disabled
+     */
+    public boolean tryReserveRelease() {
+        if (!enabled) {
+            return true;
+        }
+        int current;
+        do {
+            current = releaseBudget.get();
+            if (current <= 0) {
+                return false;
+            }
+        } while (!releaseBudget.compareAndSet(current, current - 1));
+        released.incrementAndGet();
+        return true;
+    }
+
+    // Returns a reserved ticket that could not be released, e.g. because the pool was full
+    public void cancelRelease() {
+        if (enabled) {
+            releaseBudget.incrementAndGet();
+            released.decrementAndGet();
+        }
+    }
+
+    /**
+     * Claims up to {@code wanted} tickets from the release budget before releasing them together.
+     *
+     * @param wanted the number of tickets about to be released
+     * @return how many may be released; all of them when clustering is disabled
+     */
+    public int tryReserveReleases(int wanted) {
+        if (!enabled) {
+            return wanted;
+        }
+        int current;
+        int granted;
+        do {
+            current = releaseBudget.get();
+            granted = Math.min(wanted, Math.max(0, current));
+            if (granted == 0) {
+                return 0;
+            }
+        } while (!releaseBudget.compareAndSet(current, current - granted));
+        released.addAndGet(granted);
+        return granted;
+    }
+
+    // Returns reserved tickets that could not be released
+    public void cancelReleases(int count) {
+        if (enabled && count > 0) {
+            releaseBudget.addAndGet(count);
+            released.addAndGet(-count);
+        }
+    }
+
+    /**
+     * Checks whether a node may ask this one for inventory.
+     *
+     * @param nodeId the id of the node asking
+     * @return true if it is another member of the cluster
+     */
+    public boolean isPeer(String nodeId) {
+        return !nodeId.equals(this.nodeId) && transport.getMembers().contains(nodeId);
+    }
+
+    /**
+     * Reserves part of this node's unsold inventory for a peer that has run dry: half of the
+     * remaining release budget first, then half of the tickets waiting in the pool. The inventory
+     * is given away once the peer confirms the transfer and returns here if it does not confirm
+     * within the reservation timeout.
+     *
+     * @param requesterId the node asking
+     * @param transferId the requester's id for this transfer
+     * @param wanted the number of tickets wanted
+     * @return the inventory reserved, or the earlier reservation if the request is repeated
+     */
+    @Override
+    public synchronized InventoryTransfer handOver(String requesterId, String transferId, int wanted) {
+        if (!enabled || wanted <= 0 || !isPeer(requesterId)) {
+            return InventoryTransfer.NONE;
+        }
+        String key = requesterId + "/" + transferId;
+        Reservation existing = reservations.get(key);
+        if (existing != null) {
+            return existing.transfer();
+        }
+        if (committedTransfers.contains(key)) {
+            return InventoryTransfer.NONE;
+        }
+        int budget = 0;
+        int current;
+        do {
+            current = releaseBudget.get();
+            budget = Math.min(wanted, (current + 1) / 2);
+        } while (budget > 0 && !releaseBudget.compareAndSet(current, current - budget));
+
+        List<String> tickets = List.of();
+        if (budget < wanted) {
+            TicketPool ticketPool = pool.get();
+            int spare = ticketPool.getTicketCount() / 2;
+            if (spare > 0) {
+                tickets = ticketPool.handOverTickets(Math.min(spare, wanted - budget));
+            }
+        }
+        InventoryTransfer transfer = new InventoryTransfer(budget, tickets);
+        if (transfer.size() > 0) {
+            reservations.put(key, new Reservation(transfer, System.nanoTime()));
+        }
+        return transfer;
+    }
+
+    /**
+     * Commits inventory reserved for a peer.
+     *
+     * @param requesterId the node that asked for the inventory
+     * @param transferId the requester's id for the transfer
+     * @return true if the inventory now belongs to the peer, false if the reservation expired
+     */
+    @Override
+    public synchronized boolean confirm(String requesterId, String transferId) {
+        String key = requesterId + "/" + transferId;
+        if (committedTransfers.contains(key)) {
+            return true;
+        }
+        Reservation reservation = reservations.remove(key);
+        if (reservation == null) {
+            return false;
+        }
+        committedTransfers.add(key);
+        givenToPeers.addAndGet(reservation.transfer().size());
+        return true;
+    }
+
+    /**
+     * Returns inventory whose reservation was not confirmed in time to this node.
+     */
+    @Scheduled(fixedDelayString = "${ticket.cluster.rebalance-ms:500}")
+    public synchronized void expireReservations() {
+        long now = System.nanoTime();
+        Iterator<Reservation> pending = reservations.values().iterator();
+        while (pending.hasNext()) {
+            Reservation reservation = pending.next();
+            if (now - reservation.reservedAtNanos() > reservationTimeoutNanos) {
+                pending.remove();
+                restore(reservation.transfer());
+                expiredReservations.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Tops up this node from a peer when its budget is spent and its pool is below a quarter full.
+     * At most one request is in flight; peers are asked in turn. A transfer whose confirmation
+     * got no answer is confirmed again before anything new is requested.
+     */
+    @Scheduled(fixedDelayString = "${ticket.cluster.rebalance-ms:500}")
+    public void rebalance() {
+        if (!enabled) {
+            return;
+        }
+        PendingTransfer pending = unconfirmed;
+        if (pending != null) {
+            if (rebalancing.compareAndSet(false, true)) {
+                commit(pending);
+            }
+            return;
+        }
+        if (releaseBudget.get() > 0) {
+            return;
+        }
+        TicketPool ticketPool = pool.get();
+        int capacity = ticketPool.getMaxCapacity();
+        int available = ticketPool.getTicketCount();
+        if (available >= capacity / 4) {
+            return;
+        }
+        List<String> peers = new ArrayList<>(transport.getMembers());
+        peers.remove(nodeId);
+        if (peers.isEmpty() || !rebalancing.compareAndSet(false, true)) {
+            return;
+        }
+        String peer = peers.get(nextPeer++ % peers.size());
+        String transferId = UUID.randomUUID().toString();
+        transport.requestInventory(nodeId, peer, transferId, capacity - available)
+            .whenComplete((transfer, e) -> {
+                if (e != null) {
+                    failedRequests.incrementAndGet(); // Anything the peer reserved expires back to it
+                    rebalancing.set(false);
+                } else if (transfer.size() == 0) {
+                    rebalancing.set(false);
+                } else {
+                    commit(new PendingTransfer(peer, transferId, transfer));
+                }
+            });
+    }
+
+    // Takes reserved inventory once the donor has committed it; kept for a retry if the answer is lost
+    private void commit(PendingTransfer pending) {
+        unconfirmed = pending;
+        transport.confirmTransfer(nodeId, pending.peerId(), pending.transferId())
+            .whenComplete((confirmed, e) -> {
+                try {
+                    if (e != null) {
+                        failedRequests.incrementAndGet();
+                        return;
+                    }
+                    unconfirmed = null;
+                    if (confirmed) {
+                        accept(pending.transfer());
+                    }
+                } finally {
+                    rebalancing.set(false);
+                }
+            });
+    }
+
+    // Puts back inventory that was reserved for a peer but never confirmed
+    private void restore(InventoryTransfer transfer) {
+        int overflow = transfer.tickets().size() - pool.get().takeOverTickets(transfer.tickets());
+        releaseBudget.addAndGet(transfer.releaseBudget() + overflow);
+    }
+
+    // Applies received inventory; tickets that no longer fit the pool become release budget
+    private void accept(InventoryTransfer transfer) {
+        int overflow = transfer.tickets().size() - pool.get().takeOverTickets(transfer.tickets());
+        releaseBudget.addAndGet(transfer.releaseBudget() + overflow);
+        receivedFromPeers.addAndGet(transfer.size());
+    }
+
+    /**
+     * Describes this node's partition and the inventory it has exchanged with its peers.
+     *
+     * @return the node id, members, partition size, remaining budget and transfer counters
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", enabled);
+        status.put("nodeId", nodeId);
+        status.put("members", transport.getMembers());
+        status.put("partitionSize", partitionSize);
+        status.put("releaseBudget", releaseBudget.get());
+        status.put("released", released.get());
+        status.put("receivedFromPeers", receivedFromPeers.get());
+        status.put("givenToPeers", givenToPeers.get());
+        synchronized (this) {
+            status.put("reservedForPeers", reservations.values().stream().mapToInt(r -> r.transfer().size()).sum());
+        }
+        status.put("expiredReservations", expiredReservations.get());
+        status.put("awaitingConfirmation", unconfirmed != null);
+        status.put("failedRequests", failedRequests.get());
+        return status;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.ticketingsystem.cluster;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Moves inventory requests between the nodes of a cluster.
+ * Implementations decide how nodes find and reach each other; {@link ClusterNode} only needs
+ * the member list and a way to ask a peer for part of its unsold inventory.
+ */
+public interface ClusterTransport {
+
+    /**
+     * Answers inventory requests addressed to a node hosted in this process.
+     * Inventory moves in two phases so that a lost request or response never loses tickets:
+     * {@link #handOver} sets the inventory aside under the requester's transfer id, and the
+     * requester takes it only once {@link #confirm} has committed the transfer. Inventory that is
+     * never confirmed returns to the donor.
+     */
+    interface InventoryHandler {
+        /**
+         * Reserves part of the node's unsold inventory for a peer. Repeating a request with the
+         * same transfer id returns the same reservation.
+         *
+         * @param requesterId the node asking for inventory
+         * @param transferId the requester's id for this transfer
+         * @param wanted the number of tickets the requester would like
+         * @return the inventory reserved, at most {@code wanted} tickets
+         */
+        InventoryTransfer handOver(String requesterId, String transferId, int wanted);
+
+        /**
+         * Commits a reserved transfer. Repeating a confirmation returns the same answer.
+         *
+         * @param requesterId the node that asked for the inventory
+         * @param transferId the requester's id for the transfer
+         * @return true if the inventory now belongs to the requester, false if the reservation
+         *         expired and the inventory went back to the donor
+         */
+        boolean confirm(String requesterId, String transferId);
+    }
+
+    /**
+     * Makes a local node reachable by its peers.
+     *
+     * @param nodeId the id of the local node
+     * @param handler answers inventory requests for that node
+     */
+    void register(String nodeId, InventoryHandler handler);
+
+    /**
+     * Removes a local node from the cluster.
+     *
+     * @param nodeId the id of the local node
+     */
+    void unregister(String nodeId);
+
+    /**
+     * Returns the ids of every node in the cluster, including local ones.
+     *
+     * @return the cluster members
+     */
+    Set<String> getMembers();
+
+    /**
+     * Asks a peer to reserve part of its unsold inventory.
+     *
+     * @param requesterId the node asking
+     * @param peerId the node asked
+     * @param transferId the requester's id for this transfer
+     * @param wanted the number of tickets wanted
+     * @return a future completed with the inventory the peer reserved
+     */
+    CompletableFuture<InventoryTransfer> requestInventory(String requesterId, String peerId, String transferId, int wanted);
+
+    /**
+     * Asks a peer to commit a transfer it reserved.
+     *
+     * @param requesterId the node that asked for the inventory
+     * @param peerId the donor
+     * @param transferId the requester's id for the transfer
+     * @return a future completed with whether the inventory now belongs to the requester
+     */
+    CompletableFuture<Boolean> confirmTransfer(String requesterId, String peerId, String transferId);
+}
@@ -0,0 +1,112 @@
+package com.example.ticketingsystem.cluster;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Transport reaching peers over HTTP.
+ * Peers are listed statically as {@code id=baseUrl}; inventory requests and confirmations are
+ * sent to the peer's {@code POST /api/cluster/inventory} and {@code /inventory/confirm} endpoints,
+ * which are served by {@code ClusterController}. When a cluster token is configured it is sent
+ * with every request in the {@value #TOKEN_HEADER} header.
+ */
+public class HttpClusterTransport implements ClusterTransport {
+
+    /** Header carrying the shared cluster token. */
+    public static final String TOKEN_HEADER = "X-Cluster-Token";
+
+    private final Map<String, URI> peers;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final String token;
+    private volatile String localNodeId;
+
+    /**
+     * @param peers the base URL of every other node, keyed by node id
+     * @param objectMapper used to read transfer responses
+     * @param timeout the timeout of a single inventory request
+     * @param token the shared cluster token sent to peers, or empty to send none
+     */
+    public HttpClusterTransport(Map<String, URI> peers, ObjectMapper objectMapper, Duration timeout, String token) {
+        this.peers = Map.copyOf(peers);
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.token = token;
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public void register(String nodeId, InventoryHandler handler) {
+        // Requests for the local node arrive through the controller, which calls the node directly
+        this.localNodeId = nodeId;
+    }
+
+    @Override
+    public void unregister(String nodeId) {
+        if (nodeId.equals(localNodeId)) {
+            localNodeId = null;
+        }
+    }
+
+    @Override
+    public Set<String> getMembers() {
+        Set<String> members = new TreeSet<>(peers.keySet());
+        if (localNodeId != null) {
+            members.add(localNodeId);
+        }
+        return members;
+    }
+
+    @Override
+    public CompletableFuture<InventoryTransfer> requestInventory(String requesterId, String peerId, String transferId, int wanted) {
+        return post(peerId, "/api/cluster/inventory?requester=" + requesterId + "&transfer=" + transferId + "&wanted=" + wanted)
+            .thenApply(body -> {
+                try {
+                    return objectMapper.readValue(body, InventoryTransfer.class);
+                } catch (java.io.IOException e) {
+                    throw new IllegalStateException("Unreadable transfer from node " + peerId, e);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> confirmTransfer(String requesterId, String peerId, String transferId) {
+        return post(peerId, "/api/cluster/inventory/confirm?requester=" + requesterId + "&transfer=" + transferId)
+            .thenApply(body -> {
+                try {
+                    return objectMapper.readTree(body).path("confirmed").asBoolean();
+                } catch (java.io.IOException e) {
+                    throw new IllegalStateException("Unreadable confirmation from node " + peerId, e);
+                }
+            });
+    }
+
+    private CompletableFuture<byte[]> post(String peerId, String pathAndQuery) {
+        URI base = peers.get(peerId);
+        if (base == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown node " + peerId));
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(base.resolve(pathAndQuery))
+            .timeout(timeout)
+            .POST(HttpRequest.BodyPublishers.noBody());
+        if (!token.isEmpty()) {
+            request.header(TOKEN_HEADER, token);
+        }
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(response -> {
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Node " + peerId + " answered " + response.statusCode());
+                }
+                return response.body();
+            });
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.ticketingsystem.cluster;
+
+import java.util.List;
+
+/**
+ * Unsold inventory handed from one cluster node to another.
+ *
+ * @param releaseBudget the number of not yet released tickets the receiver may now release
+ * @param tickets released but unsold tickets moved out of the donor's pool
+ */
+public record InventoryTransfer(int releaseBudget, List<String> tickets) {
+
+    /** Transfer of nothing, returned when the donor has no spare inventory. */
+    public static final InventoryTransfer NONE = new InventoryTransfer(0, List.of());
+
+    // Total number of tickets represented by this transfer
+    public int size() {
+        return releaseBudget + tickets.size();
+    }
+}
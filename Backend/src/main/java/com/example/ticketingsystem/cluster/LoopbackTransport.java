@@ -0,0 +1,51 @@
+package com.example.ticketingsystem.cluster;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process transport connecting nodes that live in the same JVM.
+ * Requests are answered asynchronously on the common pool, as they would be over a network,
+ * which makes it possible to run and exercise a multi-node cluster inside one process.
+ */
+public class LoopbackTransport implements ClusterTransport {
+
+    private final ConcurrentHashMap<String, InventoryHandler> nodes = new ConcurrentHashMap<>();
+
+    @Override
+    public void register(String nodeId, InventoryHandler handler) {
+        if (nodes.putIfAbsent(nodeId, handler) != null) {
+            throw new IllegalStateException("Node " + nodeId + " is already registered");
+        }
+    }
+
+    @Override
+    public void unregister(String nodeId) {
+        nodes.remove(nodeId);
+    }
+
+    @Override
+    public Set<String> getMembers() {
+        return new TreeSet<>(nodes.keySet());
+    }
+
+    @Override
+    public CompletableFuture<InventoryTransfer> requestInventory(String requesterId, String peerId, String transferId, int wanted) {
+        InventoryHandler peer = nodes.get(peerId);
+        if (peer == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown node " + peerId));
+        }
+        return CompletableFuture.supplyAsync(() -> peer.handOver(requesterId, transferId, wanted));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> confirmTransfer(String requesterId, String peerId, String transferId) {
+        InventoryHandler peer = nodes.get(peerId);
+        if (peer == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown node " + peerId));
+        }
+        return CompletableFuture.supplyAsync(() -> peer.confirm(requesterId, transferId));
+    }
+}
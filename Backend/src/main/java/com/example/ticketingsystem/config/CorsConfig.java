@@ -2,10 +2,12 @@ package com.example.ticketingsystem.config;
 
 // Importing necessary Spring Framework annotations and classes
 import org.springframework.context.annotation.Configuration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 // Annotates this class as a configuration class for the Spring application
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Configuration
 public class CorsConfig implements WebMvcConfigurer { // Implements the WebMvcConfigurer interface to customize MVC configurations
 
@@ -2,12 +2,14 @@ package com.example.ticketingsystem.config;
 
 // Importing Spring annotations and WebSocket configuration classes
 import org.springframework.context.annotation.Configuration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
 import com.example.ticketingsystem.websocket.TicketingWebSocketHandler;
 
 // Marks this class as a Spring configuration component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Configuration
 // Enables WebSocket support in the application
 @EnableWebSocket
@@ -0,0 +1,26 @@
+package com.example.ticketingsystem.config;
+
+// Importing Spring MVC and Jackson classes used to register the CBOR wire format
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Registers CBOR as an alternative response format for every REST endpoint
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Only add the converter if Spring has not already registered one
+        boolean present = converters.stream().anyMatch(MappingJackson2CborHttpMessageConverter.class::isInstance);
+        if (!present) {
+            // Appended after JSON so that clients without an explicit Accept header still get JSON
+            converters.add(new MappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder.cbor().build()));
+        }
+    }
+}
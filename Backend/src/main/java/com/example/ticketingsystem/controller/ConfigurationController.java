@@ -3,6 +3,7 @@ package com.example.ticketingsystem.controller;
 import com.example.ticketingsystem.model.Configuration;
 import com.example.ticketingsystem.repository.ConfigurationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,7 +16,8 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "http://localhost:3000")
 public class ConfigurationController {
 
-    @Autowired
+    // Absent when running without a database (the "fast" profile)
+    @Autowired(required = false)
     private ConfigurationRepository configurationRepository;
 
     /**
@@ -23,9 +25,13 @@ public class ConfigurationController {
      *
      * @param configuration the configuration object to save
      * @return the saved configuration object, or an error message in case of failure
+     *         or if no database is configured
      */
     @PostMapping("/save")
     public ResponseEntity<?> saveConfiguration(@RequestBody Configuration configuration) {
+        if (configurationRepository == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Configuration persistence is disabled");
+        }
         try {
             Configuration savedConfig = configurationRepository.save(configuration);
             return ResponseEntity.ok(savedConfig);
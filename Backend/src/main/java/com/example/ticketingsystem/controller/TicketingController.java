@@ -1,32 +1,81 @@
 package com.example.ticketingsystem.controller;
 
+import com.example.ticketingsystem.model.TieredTicketPool;
+import com.example.ticketingsystem.service.CustomerLimiter;
+import com.example.ticketingsystem.service.EventStreamService;
+import com.example.ticketingsystem.service.PurchaseCoalescer;
+import com.example.ticketingsystem.service.ReleaseRateController;
+import com.example.ticketingsystem.service.StatusSnapshotCache;
 import com.example.ticketingsystem.service.TicketingService;
+import com.example.ticketingsystem.service.WaitingRoom;
+import com.example.ticketingsystem.stats.StartupMetrics;
+import com.example.ticketingsystem.stats.ThroughputRecorder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * REST Controller for managing the ticketing system.
  * Provides endpoints for configuration, system control, status retrieval, and logging.
  */
+// Servlet stack only; the reactive build serves the same API from ReactiveTicketingController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestController
 @RequestMapping("/api/tickets")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3002", "http://localhost:5173"}, allowCredentials = "true")
 public class TicketingController {
 
     private final TicketingService ticketingService;
+    private final PurchaseCoalescer purchaseCoalescer;
+    private final WaitingRoom waitingRoom;
+    private final CustomerLimiter customerLimiter;
+    private final ReleaseRateController releaseRateController;
+    private final ThroughputRecorder throughputRecorder;
+    private final EventStreamService eventStreamService;
+    private final StatusSnapshotCache statusSnapshotCache;
+    private final StartupMetrics startupMetrics;
 
     /**
      * Constructor to initialize the controller with the {@link TicketingService}.
      *
      * @param ticketingService the service layer for managing ticketing operations
+     * @param purchaseCoalescer the batching front end for the purchase and release API
+     * @param waitingRoom the FIFO admission queue in front of the purchase API
+     * @param customerLimiter the per-customer quota and rate limiter
+     * @param releaseRateController the adaptive vendor release controller
+     * @param throughputRecorder the rolling throughput history
+     * @param eventStreamService the Server-Sent Events broadcaster
+     * @param statusSnapshotCache the periodically refreshed status
+     * @param startupMetrics the start-up timings of this instance
      */
     @Autowired
-    public TicketingController(TicketingService ticketingService) {
+    public TicketingController(TicketingService ticketingService, PurchaseCoalescer purchaseCoalescer,
+                               WaitingRoom waitingRoom, CustomerLimiter customerLimiter,
+                               ReleaseRateController releaseRateController,
+                               ThroughputRecorder throughputRecorder, EventStreamService eventStreamService,
+                               StatusSnapshotCache statusSnapshotCache, StartupMetrics startupMetrics) {
         this.ticketingService = ticketingService;
+        this.purchaseCoalescer = purchaseCoalescer;
+        this.waitingRoom = waitingRoom;
+        this.customerLimiter = customerLimiter;
+        this.releaseRateController = releaseRateController;
+        this.throughputRecorder = throughputRecorder;
+        this.eventStreamService = eventStreamService;
+        this.statusSnapshotCache = statusSnapshotCache;
+        this.startupMetrics = startupMetrics;
     }
 
     /**
@@ -43,6 +92,7 @@ public class TicketingController {
                 config.get("customerRetrievalRate"),
                 config.get("maxTicketCapacity")
         );
+        statusSnapshotCache.refresh();
         return ResponseEntity.ok("Configuration updated successfully");
     }
 
@@ -55,6 +105,7 @@ public class TicketingController {
     public ResponseEntity<?> startSystem() {
         try {
             ticketingService.startSystem();
+            statusSnapshotCache.refresh(); // Make the state change visible to the next status read
             return ResponseEntity.ok("System started successfully");
         } catch (IllegalStateException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -72,6 +123,7 @@ public class TicketingController {
     public ResponseEntity<?> stopSystem() {
         try {
             ticketingService.stopSystem();
+            statusSnapshotCache.refresh(); // Make the state change visible to the next status read
             return ResponseEntity.ok("System stopped successfully");
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body("Failed to stop system: " + e.getMessage());
@@ -87,6 +139,7 @@ public class TicketingController {
     public ResponseEntity<?> resetSystem() {
         try {
             ticketingService.resetSystem();
+            statusSnapshotCache.refresh(); // Make the state change visible to the next status read
             return ResponseEntity.ok("System reset successfully");
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body("Failed to reset system: " + e.getMessage());
@@ -94,23 +147,151 @@ public class TicketingController {
     }
 
     /**
-     * Retrieves the current status of the system.
+     * Retrieves the current system status.
+     * Served from the shared snapshot cache as pre-serialized JSON, or as CBOR when requested.
      *
-     * @return the system status as a map
+     * @param accept the Accept header of the request
+     * @return the running flag, ticket counts and active actor counts
      */
     @GetMapping("/system/status")
-    public ResponseEntity<?> getSystemStatus() {
+    public ResponseEntity<?> getSystemStatus(@RequestHeader(value = "Accept", required = false) String accept) {
+        StatusSnapshotCache.Entry entry = statusSnapshotCache.get();
+        if (wantsCbor(accept)) {
+            return ResponseEntity.ok(entry.status());
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(entry.statusJson());
+    }
+
+    /**
+     * Retrieves detailed pool and actor statistics.
+     * Served from the shared snapshot cache, so the cost does not depend on the number of actors.
+     *
+     * @param accept the Accept header of the request
+     * @return the latest statistics snapshot
+     */
+    @GetMapping("/system/stats")
+    public ResponseEntity<?> getSystemStatistics(@RequestHeader(value = "Accept", required = false) String accept) {
+        StatusSnapshotCache.Entry entry = statusSnapshotCache.get();
+        if (wantsCbor(accept)) {
+            return ResponseEntity.ok(entry.stats());
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(entry.statsJson());
+    }
+
+    // Pre-serialized bodies are JSON, so only fall back to a message converter for clients that
+    // rank CBOR above JSON, by quality and then specificity as content negotiation would
+    private static boolean wantsCbor(String accept) {
+        if (accept == null || !accept.contains("cbor")) {
+            return false;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue; // Explicitly not acceptable
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves the final report of the current sale, produced the moment its last ticket sold.
+     *
+     * @return the report, or 404 if the sale has not completed yet
+     */
+    @GetMapping("/system/report")
+    public ResponseEntity<?> getFinalReport() {
+        Map<String, Object> report = ticketingService.getFinalReport();
+        if (report == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("The sale has not completed yet");
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Starts recording every pool operation into a binary trace for deterministic replay.
+     *
+     * @return a success message, or 400 if a trace is already being recorded
+     */
+    @PostMapping("/system/trace/start")
+    public ResponseEntity<?> startTrace() {
         try {
-            Map<String, Object> status = new HashMap<>();
-            status.put("isRunning", ticketingService.isSystemRunning());
-            status.put("availableTickets", ticketingService.getAvailableTickets());
-            status.put("totalTickets", ticketingService.getTotalTickets());
-            return ResponseEntity.ok(status);
+            ticketingService.startTrace();
+            return ResponseEntity.ok("Trace recording started");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Stops recording and writes the trace file.
+     *
+     * @return the trace file and its size, or error details in case of failure
+     */
+    @PostMapping("/system/trace/stop")
+    public ResponseEntity<?> stopTrace() {
+        try {
+            return ResponseEntity.ok(ticketingService.stopTrace());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Failed to get system status: " + e.getMessage());
+            return ResponseEntity.internalServerError().body("Failed to write trace: " + e.getMessage());
         }
     }
 
+    /**
+     * Retrieves how long this instance took to become ready and to serve its first request.
+     *
+     * @return the start-up timings in milliseconds since JVM start
+     */
+    @GetMapping("/system/startup")
+    public ResponseEntity<?> getStartupMetrics() {
+        return ResponseEntity.ok(startupMetrics.getMetrics());
+    }
+
+    /**
+     * Retrieves throughput history downsampled for charting.
+     *
+     * @param resolution "seconds" (last 10 minutes) or "minutes" (last 24 hours)
+     * @param window how many of the most recent seconds or minutes to cover
+     * @param points the maximum number of points to return
+     * @return parallel arrays of timestamps, tickets added and sold per second, and pool size
+     */
+    @GetMapping("/system/history")
+    public ResponseEntity<?> getThroughputHistory(@RequestParam(defaultValue = "seconds") String resolution,
+                                                  @RequestParam(defaultValue = "600") int window,
+                                                  @RequestParam(defaultValue = "120") int points) {
+        try {
+            ThroughputRecorder.Resolution parsed = ThroughputRecorder.Resolution.valueOf(resolution.toUpperCase());
+            return ResponseEntity.ok(throughputRecorder.getHistory(parsed, window, points));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Resolution must be 'seconds' or 'minutes'");
+        }
+    }
+
+    /**
+     * Streams status snapshots and log entries as Server-Sent Events.
+     * Status events are named "status" and log entries "log"; each carries a JSON payload.
+     *
+     * @param lastEventId the id of the last event received, sent by browsers when reconnecting
+     * @return the event stream
+     */
+    @GetMapping(value = "/system/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return eventStreamService.subscribe(lastEventId);
+    }
+
     /**
      * Retrieves the system logs.
      *
@@ -125,6 +306,16 @@ public class TicketingController {
         }
     }
 
+    /**
+     * Retrieves the decisions and inputs of the adaptive vendor release controller.
+     *
+     * @return the release controller metrics
+     */
+    @GetMapping("/release/metrics")
+    public ResponseEntity<?> getReleaseMetrics() {
+        return ResponseEntity.ok(releaseRateController.getMetrics());
+    }
+
     /**
      * Starts a new vendor thread.
      *
@@ -168,4 +359,169 @@ public class TicketingController {
         ticketingService.stopCustomers();
         return ResponseEntity.ok("All customer threads stopped");
     }
+
+    /**
+     * Joins the waiting room and returns the issued queue position.
+     *
+     * @return the queue position, admission state and estimated wait
+     */
+    @PostMapping("/queue/join")
+    public ResponseEntity<?> joinQueue() {
+        if (!waitingRoom.isEnabled()) {
+            return ResponseEntity.badRequest().body("Waiting room is not enabled");
+        }
+        return ResponseEntity.ok(waitingRoom.join());
+    }
+
+    /**
+     * Retrieves the admission state of a queue position.
+     *
+     * @param position the queue position issued by {@code /queue/join}
+     * @return the admission state and estimated wait
+     */
+    @GetMapping("/queue/{position}")
+    public ResponseEntity<?> getQueueStatus(@PathVariable long position) {
+        return ResponseEntity.ok(waitingRoom.getStatus(position));
+    }
+
+    /**
+     * Purchases a single ticket from the pool.
+     * The request is served asynchronously and does not hold a servlet thread while waiting.
+     * When the waiting room is enabled, an admitted queue position must be presented.
+     * When purchase limits are enabled, the customer id must be presented.
+     *
+     * @param customerId the buyer's customer id, if purchase limits are enabled
+     * @param queuePosition the buyer's admitted queue position, if the waiting room is enabled
+     * @return the purchased ticket, 429 if the buyer is queued or limited, or 503 if no ticket became available in time
+     *         or too many purchases are already pending
+     */
+    @PostMapping("/purchase")
+    public CompletableFuture<ResponseEntity<?>> purchaseTicket(@RequestParam(required = false) Long customerId,
+                                                               @RequestParam(required = false) Long queuePosition) {
+        if (customerLimiter.isEnabled() && (customerId == null || customerId < 0)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("A valid customerId is required"));
+        }
+        // Limits are checked before the admission is redeemed, so a limited buyer keeps their place
+        if (customerLimiter.isEnabled()) {
+            CustomerLimiter.Decision decision = customerLimiter.tryAcquire(customerId);
+            if (decision != CustomerLimiter.Decision.ALLOWED) {
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .body(Map.of("limit", decision, "purchases", customerLimiter.getPurchases(customerId))));
+            }
+        }
+        if (waitingRoom.isEnabled()) {
+            WaitingRoom.Admission admission = queuePosition == null
+                    ? WaitingRoom.Admission.NOT_YET_ADMITTED
+                    : waitingRoom.redeem(queuePosition);
+            if (admission != WaitingRoom.Admission.ADMITTED) {
+                if (customerId != null) {
+                    customerLimiter.refund(customerId);
+                }
+                Map<String, Object> body = new HashMap<>();
+                body.put("admission", admission);
+                if (queuePosition != null) {
+                    body.putAll(waitingRoom.getStatus(queuePosition));
+                }
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(body));
+            }
+        }
+        return purchaseCoalescer.purchase()
+                .whenComplete((ticket, e) -> {
+                    if (e != null && customerId != null) {
+                        customerLimiter.refund(customerId);
+                    }
+                })
+                .<ResponseEntity<?>>thenApply(ticket -> ResponseEntity.ok(Map.of("ticket", ticket)))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("No tickets available, please retry");
+                    }
+                    if (cause instanceof RejectedExecutionException) {
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Too many pending purchases, please retry");
+                    }
+                    return ResponseEntity.internalServerError().body("Failed to purchase ticket: " + e.getMessage());
+                });
+    }
+
+    /**
+     * Releases new tickets from a vendor into the pool.
+     *
+     * @param request a map containing the vendorId and the number of tickets to release
+     * @return the number of tickets accepted by the pool
+     */
+    @PostMapping("/release")
+    public ResponseEntity<?> releaseTickets(@RequestBody Map<String, Object> request) {
+        try {
+            String vendorId = String.valueOf(request.getOrDefault("vendorId", "HTTP"));
+            int count = ((Number) request.getOrDefault("count", 1)).intValue();
+            int added = purchaseCoalescer.release(vendorId, count);
+            return ResponseEntity.ok(Map.of("vendorId", vendorId, "ticketsAdded", added));
+        } catch (IllegalArgumentException | ClassCastException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves the state of every price tier.
+     *
+     * @return the current price, release tier and per-tier inventory
+     */
+    @GetMapping("/tiers")
+    public ResponseEntity<?> getPriceTiers() {
+        TieredTicketPool tieredTicketPool = ticketingService.getTieredTicketPool();
+        Map<String, Object> ladder = new HashMap<>();
+        ladder.put("currentPrice", tieredTicketPool.getCurrentPrice());
+        ladder.put("releaseTier", tieredTicketPool.getReleaseTier());
+        ladder.put("availableTickets", tieredTicketPool.getTicketCount());
+        ladder.put("tiers", tieredTicketPool.getTiers());
+        return ResponseEntity.ok(ladder);
+    }
+
+    /**
+     * Publishes vendor tickets into the current release tier of the price ladder.
+     *
+     * @param request a map containing the vendorId and the number of tickets to publish
+     * @return the number of tickets published and the tier of the last one
+     */
+    @PostMapping("/tiers/release")
+    public ResponseEntity<?> releasePricedTickets(@RequestBody Map<String, Object> request) {
+        try {
+            String vendorId = String.valueOf(request.getOrDefault("vendorId", "HTTP"));
+            int count = ((Number) request.getOrDefault("count", 1)).intValue();
+            int published = 0;
+            int tier = -1;
+            long now = System.currentTimeMillis();
+            TieredTicketPool tieredTicketPool = ticketingService.getTieredTicketPool();
+            for (int i = 0; i < count; i++) {
+                int publishedTier = tieredTicketPool.publish(vendorId + "-T" + now + "-" + i);
+                if (publishedTier < 0) {
+                    break;
+                }
+                tier = publishedTier;
+                published++;
+            }
+            Map<String, Object> result = new HashMap<>();
+            result.put("vendorId", vendorId);
+            result.put("ticketsAdded", published);
+            result.put("tier", tier);
+            return ResponseEntity.ok(result);
+        } catch (ClassCastException e) {
+            return ResponseEntity.badRequest().body("Ticket count must be a number");
+        }
+    }
+
+    /**
+     * Buys the cheapest available ticket from the price ladder.
+     *
+     * @return the ticket with its tier and price, or 503 if none are available
+     */
+    @PostMapping("/tiers/purchase")
+    public ResponseEntity<?> purchasePricedTicket() {
+        TieredTicketPool.PricedTicket ticket = ticketingService.getTieredTicketPool().purchase();
+        if (ticket == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("No tickets available, please retry");
+        }
+        return ResponseEntity.ok(ticket);
+    }
 }
@@ -0,0 +1,21 @@
+package com.example.ticketingsystem.model;
+
+import com.example.ticketing.core.MutationListener;
+
+/**
+ * Observes changes to the contents of a {@link TicketPool}.
+ * Called while the pool lock is held, so implementations must only record the change and return.
+ */
+public interface PoolMutationListener extends MutationListener<String> {
+
+    /** Listener that ignores all changes. */
+    PoolMutationListener NONE = new PoolMutationListener() {
+        @Override
+        public void onAdded(String ticket) {
+        }
+
+        @Override
+        public void onRemoved(int count) {
+        }
+    };
+}
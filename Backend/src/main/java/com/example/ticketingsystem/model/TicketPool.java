@@ -1,139 +1,85 @@
 package com.example.ticketingsystem.model;
 
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.locks.Condition;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.file.Path;
 import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import com.example.ticketing.core.StoreType;
+import com.example.ticketing.core.TicketCodec;
+import com.example.ticketing.core.TicketEngine;
+import com.example.ticketing.core.WaitStrategy;
 
 /**
  * Represents a pool of tickets that can be added and removed by vendors and customers.
- * Uses ReentrantLock and Conditions for better thread synchronization.
+ * The locking, waiting and statistics come from the shared {@link TicketEngine}, the same
+ * engine the CLI runs on. Tickets are held in an array ring buffer on the heap or, with
+ * {@code ticket.pool.store=off-heap}, as fixed-width records in native memory so that very large
+ * pools add nothing to the heap. With {@code ticket.pool.store=mapped} the records live in the
+ * memory-mapped {@code ticket.pool.file}, and a restarted backend re-attaches to the unsold
+ * inventory left in it.
+ * The lock is fair, so waiting customers are served in arrival order, unless the waiting room is
+ * enabled: it then orders HTTP buyers itself and the lock is non-fair for throughput. Simulated
+ * customers never pass through the waiting room, so with it enabled they compete without ordering.
+ * How vendors and customers wait for room or tickets is set per deployment with
+ * {@code ticket.pool.wait-strategy}.
  */
 @Component
-public class TicketPool {
+public class TicketPool extends TicketEngine<String> {
 
-    private final ConcurrentLinkedQueue<String> ticketQueue;
-    private final int maxTicketCapacity;
-    private final ReentrantLock lock;
-    private final Condition notFull;
-    private final Condition notEmpty;
-    private int totalTicketsProcessed = 0;
-    private int peakPoolSize = 0;
+    private final StoreType storeType;
+    private final int ticketBytes;
+    private final Path file;
 
     /**
-     * Constructs a new TicketPool with the specified maximum capacity.
-     * 
-     * @param maxTicketCapacity the maximum number of tickets that can be stored in the pool
-     */
-    public TicketPool(@Value("${ticket.pool.capacity:10}") int maxTicketCapacity) {
-        this.ticketQueue = new ConcurrentLinkedQueue<>();
-        this.maxTicketCapacity = maxTicketCapacity;
-        this.lock = new ReentrantLock(true); // fair lock
-        this.notFull = lock.newCondition();
-        this.notEmpty = lock.newCondition();
-    }
-
-    /**
-     * Adds a ticket to the pool if there is available capacity.
-     * If the pool is full, waits until space becomes available.
-     * 
-     * @param ticket the ticket to add
-     * @return true if the ticket was added successfully
-     * @throws InterruptedException if the thread is interrupted while waiting
-     */
-    public boolean addTickets(String ticket) throws InterruptedException {
-        lock.lock();
-        try {
-            while (ticketQueue.size() >= maxTicketCapacity) {
-                notFull.await();
-            }
-            boolean added = ticketQueue.offer(ticket);
-            if (added) {
-                notEmpty.signal();
-                totalTicketsProcessed++;
-                peakPoolSize = Math.max(peakPoolSize, ticketQueue.size());
-            }
-            return added;
-        } finally {
-            lock.unlock();
-        }
-    }
-
-    /**
-     * Removes and returns a ticket from the pool.
-     * If the pool is empty, waits until a ticket becomes available.
-     * 
-     * @return the removed ticket
-     * @throws InterruptedException if the thread is interrupted while waiting
-     */
-    public String removeTicket() throws InterruptedException {
-        lock.lock();
-        try {
-            while (ticketQueue.isEmpty()) {
-                notEmpty.await();
-            }
-            String ticket = ticketQueue.poll();
-            if (ticket != null) {
-                notFull.signal();
-                totalTicketsProcessed++;
-            }
-            return ticket;
-        } finally {
-            lock.unlock();
-        }
-    }
-
-    /**
-     * Returns the current number of tickets in the pool.
-     * 
-     * @return the number of tickets currently in the pool
+     * Constructs a new TicketPool with the specified maximum capacity and configured storage,
+     * re-attaching to the tickets in the pool file if the storage is mapped.
+     *
+     * @param maxTicketCapacity the maximum number of tickets that can be stored in the pool;
+     *                          a re-attached pool keeps the capacity it was created with
+     * @param waitStrategy blocking, spin-then-park or busy-spin
+     * @param store heap, off-heap or mapped
+     * @param ticketBytes the longest ticket id, in bytes of UTF-8, an off-heap or mapped store can hold
+     * @param file the file holding a mapped store
+     * @param waitingRoomEnabled whether the waiting room orders buyers, allowing a non-fair lock
      */
-    public int getTicketCount() {
-        return ticketQueue.size();
+    @Autowired
+    public TicketPool(@Value("${ticket.pool.capacity:10}") int maxTicketCapacity,
+                      @Value("${ticket.pool.wait-strategy:blocking}") String waitStrategy,
+                      @Value("${ticket.pool.store:heap}") String store,
+                      @Value("${ticket.pool.ticket-bytes:62}") int ticketBytes,
+                      @Value("${ticket.pool.file:ticket-pool.dat}") String file,
+                      @Value("${ticket.waiting-room.enabled:false}") boolean waitingRoomEnabled) {
+        this(maxTicketCapacity, WaitStrategy.fromName(waitStrategy), StoreType.fromName(store), ticketBytes,
+            Path.of(file), true, !waitingRoomEnabled);
     }
 
     /**
-     * Returns the maximum capacity of the ticket pool.
-     * 
-     * @return the maximum number of tickets that can be stored in the pool
-     */
-    public int getMaxCapacity() {
-        return maxTicketCapacity;
-    }
-
-    /**
-     * Gets statistics about the ticket pool operations.
-     * @return Map containing various statistics
+     * Constructs a new TicketPool with the specified maximum capacity.
+     *
+     * @param maxTicketCapacity the maximum number of tickets that can be stored in the pool
+     * @param waitStrategy how vendors and customers wait for room or tickets
+     * @param storeType where the tickets are kept
+     * @param ticketBytes the longest ticket id, in bytes of UTF-8, an off-heap or mapped store can hold
+     * @param file the file holding a mapped store
+     * @param reattach whether a mapped store keeps the tickets already in its file rather than start empty
+     * @param fair whether the lock serves waiting vendors and customers in arrival order
      */
-    public Map<String, Integer> getStatistics() {
-        lock.lock();
-        try {
-            Map<String, Integer> stats = new HashMap<>();
-            stats.put("currentSize", ticketQueue.size());
-            stats.put("maxCapacity", maxTicketCapacity);
-            stats.put("totalProcessed", totalTicketsProcessed);
-            stats.put("peakPoolSize", peakPoolSize);
-            return stats;
-        } finally {
-            lock.unlock();
-        }
+    public TicketPool(int maxTicketCapacity, WaitStrategy waitStrategy, StoreType storeType, int ticketBytes,
+                      Path file, boolean reattach, boolean fair) {
+        super(storeType.open(file, maxTicketCapacity, TicketCodec.utf8(ticketBytes), reattach), waitStrategy, fair);
+        this.storeType = storeType;
+        this.ticketBytes = ticketBytes;
+        this.file = file;
     }
 
     /**
-     * Returns the total number of tickets processed (both added and removed).
-     * 
-     * @return the total number of tickets processed
+     * Creates an empty pool with the same storage, wait strategy and fairness but a different capacity.
+     * A mapped pool replaces its file, leaving this pool working on the unlinked old one.
+     *
+     * @param maxTicketCapacity the maximum number of tickets that can be stored in the new pool
+     * @return the new pool
      */
-    public int getTotalTicketsProcessed() {
-        return totalTicketsProcessed;
-    }
-
-    @Override
-    public String toString() {
-        return String.format("TicketPool[size=%d, capacity=%d, processed=%d, peak=%d]",
-            ticketQueue.size(), maxTicketCapacity, totalTicketsProcessed, peakPoolSize);
+    public TicketPool withCapacity(int maxTicketCapacity) {
+        return new TicketPool(maxTicketCapacity, getWaitStrategy(), storeType, ticketBytes, file, false, isFair());
     }
 }
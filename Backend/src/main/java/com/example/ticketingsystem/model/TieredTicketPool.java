@@ -0,0 +1,263 @@
+package com.example.ticketingsystem.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import com.example.ticketing.core.SaleLatch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * A lock-free pool of priced tickets organised as a ladder of price tiers.
+ * Vendors publish into the current release tier until its quota has been released; the ladder
+ * then moves on to the next (more expensive) tier only once that quota has sold through, so the
+ * price rises with sales rather than with supply. Customers always buy from the cheapest non-empty
+ * tier, located through an atomically maintained index rather than a scan, so a purchase is O(1).
+ * Sales are counted down on an optional {@link SaleLatch}, like sales from the ticket pool.
+ */
+@Component
+public class TieredTicketPool {
+
+    /**
+     * A ticket bought from the ladder together with the tier it was sold from.
+     *
+     * @param ticket the ticket
+     * @param tier the index of the price tier
+     * @param price the tier price in cents
+     */
+    public record PricedTicket(String ticket, int tier, int price) {}
+
+    private final int[] tierPrices;
+    private final int[] tierQuotas;
+    private final ConcurrentLinkedQueue<String>[] tierQueues;
+    private final AtomicIntegerArray tierCounts;
+    private final AtomicIntegerArray tierReleased;
+    private final AtomicIntegerArray tierSold;
+    private final AtomicInteger lowestNonEmptyTier;
+    private final AtomicInteger releaseTier = new AtomicInteger();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maxTicketCapacity;
+    private volatile SaleLatch saleLatch;
+
+    /**
+     * Constructs a price ladder.
+     *
+     * @param tierPrices the price of each tier in cents, cheapest first
+     * @param tierQuotas the number of tickets sold at each tier before moving to the next;
+     *                   the last tier is never exhausted
+     * @param maxTicketCapacity the maximum number of tickets held across all tiers
+     */
+    @SuppressWarnings("unchecked")
+    public TieredTicketPool(@Value("${ticket.pricing.tier-prices:2500,4000,6000,9000}") int[] tierPrices,
+                            @Value("${ticket.pricing.tier-quotas:100,200,400,800}") int[] tierQuotas,
+                            @Value("${ticket.pricing.capacity:1000}") int maxTicketCapacity) {
+        if (tierPrices.length == 0 || tierPrices.length != tierQuotas.length) {
+            throw new IllegalArgumentException("Each price tier needs exactly one quota");
+        }
+        for (int i = 1; i < tierPrices.length; i++) {
+            if (tierPrices[i] < tierPrices[i - 1]) {
+                throw new IllegalArgumentException("Tier prices must be in ascending order");
+            }
+        }
+        for (int quota : tierQuotas) {
+            if (quota < 0) {
+                throw new IllegalArgumentException("Tier quotas cannot be negative");
+            }
+        }
+        this.tierPrices = tierPrices.clone();
+        this.tierQuotas = tierQuotas.clone();
+        this.tierQueues = new ConcurrentLinkedQueue[tierPrices.length];
+        for (int i = 0; i < tierQueues.length; i++) {
+            tierQueues[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.tierCounts = new AtomicIntegerArray(tierPrices.length);
+        this.tierReleased = new AtomicIntegerArray(tierPrices.length);
+        this.tierSold = new AtomicIntegerArray(tierPrices.length);
+        this.lowestNonEmptyTier = new AtomicInteger(tierPrices.length);
+        this.maxTicketCapacity = maxTicketCapacity;
+    }
+
+    /**
+     * Creates an empty ladder with the same tiers but a different capacity.
+     *
+     * @param maxTicketCapacity the maximum number of tickets held across all tiers of the new ladder
+     * @return the new ladder
+     */
+    public TieredTicketPool withCapacity(int maxTicketCapacity) {
+        return new TieredTicketPool(tierPrices, tierQuotas, maxTicketCapacity);
+    }
+
+    /**
+     * Publishes a ticket into the current release tier without waiting.
+     *
+     * @param ticket the ticket to publish
+     * @return the tier the ticket was published into, or -1 if the ladder is full or the current
+     *         tier's quota is released but has not yet sold through
+     */
+    public int publish(String ticket) {
+        int current;
+        do {
+            current = size.get();
+            if (current >= maxTicketCapacity) {
+                return -1;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+
+        int tier = reserveReleaseSlot();
+        if (tier < 0) {
+            size.decrementAndGet();
+            return -1;
+        }
+        tierQueues[tier].offer(ticket);
+        tierCounts.incrementAndGet(tier);
+        lowerCheapestTier(tier);
+        return tier;
+    }
+
+    /**
+     * Buys a ticket from the cheapest non-empty tier without waiting.
+     *
+     * @return the purchased ticket and its price, or null if the pool is empty
+     */
+    public PricedTicket purchase() {
+        while (true) {
+            int tier = lowestNonEmptyTier.get();
+            if (tier >= tierQueues.length) {
+                return null;
+            }
+            String ticket = tierQueues[tier].poll();
+            if (ticket != null) {
+                tierCounts.decrementAndGet(tier);
+                size.decrementAndGet();
+                if (tierSold.incrementAndGet(tier) == tierQuotas[tier] && tier < tierQuotas.length - 1) {
+                    releaseTier.compareAndSet(tier, tier + 1); // sold through: vendors move up a price
+                }
+                SaleLatch latch = saleLatch;
+                if (latch != null) {
+                    latch.recordSold(1);
+                }
+                return new PricedTicket(ticket, tier, tierPrices[tier]);
+            }
+            if (tierCounts.get(tier) > 0) {
+                // Another buyer took the last ticket but has not yet updated the count
+                Thread.onSpinWait();
+                continue;
+            }
+            if (lowestNonEmptyTier.compareAndSet(tier, tier + 1) && tierCounts.get(tier) > 0) {
+                // A vendor published into this tier while it was being skipped; restore it
+                lowerCheapestTier(tier);
+            }
+        }
+    }
+
+    // Claims a release slot in the current tier, or returns -1 while its quota waits to sell through
+    private int reserveReleaseSlot() {
+        int last = tierQuotas.length - 1;
+        while (true) {
+            int tier = releaseTier.get();
+            if (tier == last) {
+                tierReleased.incrementAndGet(tier);
+                return tier;
+            }
+            int released = tierReleased.get(tier);
+            if (released < tierQuotas[tier]) {
+                if (tierReleased.compareAndSet(tier, released, released + 1)) {
+                    return tier;
+                }
+            } else if (tierSold.get(tier) >= tierQuotas[tier]) {
+                releaseTier.compareAndSet(tier, tier + 1); // e.g. a tier with no quota
+            } else {
+                return -1;
+            }
+        }
+    }
+
+    private void lowerCheapestTier(int tier) {
+        int current;
+        while ((current = lowestNonEmptyTier.get()) > tier) {
+            if (lowestNonEmptyTier.compareAndSet(current, tier)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tickets currently held across all tiers.
+     *
+     * @return the number of tickets in the ladder
+     */
+    public int getTicketCount() {
+        return size.get();
+    }
+
+    /**
+     * Returns the maximum number of tickets held across all tiers.
+     *
+     * @return the capacity of the ladder
+     */
+    public int getMaxCapacity() {
+        return maxTicketCapacity;
+    }
+
+    /**
+     * Sets the latch that every sale from the ladder is counted down on.
+     *
+     * @param latch the latch for the current sale, or null to stop counting
+     */
+    public void setSaleLatch(SaleLatch latch) {
+        this.saleLatch = latch;
+    }
+
+    /**
+     * Returns the current price a buyer would pay, or -1 if no tickets are available.
+     *
+     * @return the price of the cheapest available ticket in cents
+     */
+    public int getCurrentPrice() {
+        int tier = lowestNonEmptyTier.get();
+        // The index is only moved past a sold-out tier by the next purchase, so skip those here
+        while (tier < tierPrices.length && tierCounts.get(tier) == 0) {
+            tier++;
+        }
+        return tier < tierPrices.length ? tierPrices[tier] : -1;
+    }
+
+    /**
+     * Describes the state of each tier of the ladder.
+     *
+     * @return a list with the price, quota, released, sold and available count of each tier
+     */
+    public List<Map<String, Integer>> getTiers() {
+        List<Map<String, Integer>> tiers = new ArrayList<>(tierPrices.length);
+        for (int i = 0; i < tierPrices.length; i++) {
+            Map<String, Integer> tier = new HashMap<>();
+            tier.put("tier", i);
+            tier.put("price", tierPrices[i]);
+            tier.put("quota", tierQuotas[i]);
+            tier.put("released", tierReleased.get(i));
+            tier.put("sold", tierSold.get(i));
+            tier.put("available", tierCounts.get(i));
+            tiers.add(tier);
+        }
+        return tiers;
+    }
+
+    /**
+     * Returns the index of the tier vendors are currently publishing into.
+     *
+     * @return the current release tier
+     */
+    public int getReleaseTier() {
+        return releaseTier.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TieredTicketPool[size=%d, capacity=%d, releaseTier=%d, price=%d]",
+            size.get(), maxTicketCapacity, releaseTier.get(), getCurrentPrice());
+    }
+}
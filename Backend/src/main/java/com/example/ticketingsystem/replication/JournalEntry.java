@@ -0,0 +1,38 @@
+package com.example.ticketingsystem.replication;
+
+/**
+ * One recorded change to the primary's ticketing state.
+ *
+ * @param type one of the entry types in {@link ReplicationProtocol}
+ * @param ticket the added ticket, for ADD entries
+ * @param values the integer payload of REMOVE, CONFIG and STATE entries
+ */
+record JournalEntry(byte type, String ticket, int[] values) {
+
+    private static final int[] NO_VALUES = new int[0];
+
+    static JournalEntry added(String ticket) {
+        return new JournalEntry(ReplicationProtocol.ADD, ticket, NO_VALUES);
+    }
+
+    static JournalEntry removed(int count) {
+        return new JournalEntry(ReplicationProtocol.REMOVE, null, new int[] {count});
+    }
+
+    // Unchanged settings are recorded as -1, mirroring the nullable arguments of updateConfiguration
+    static JournalEntry config(Integer totalTickets, Integer releaseRate, Integer retrievalRate, Integer capacity) {
+        return new JournalEntry(ReplicationProtocol.CONFIG, null, new int[] {
+            totalTickets == null ? -1 : totalTickets,
+            releaseRate == null ? -1 : releaseRate,
+            retrievalRate == null ? -1 : retrievalRate,
+            capacity == null ? -1 : capacity});
+    }
+
+    static JournalEntry reset() {
+        return new JournalEntry(ReplicationProtocol.RESET, null, NO_VALUES);
+    }
+
+    static JournalEntry state(boolean running) {
+        return new JournalEntry(ReplicationProtocol.STATE, null, new int[] {running ? 1 : 0});
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.ticketingsystem.replication;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for primary/standby replication.
+ */
+@RestController
+@RequestMapping("/api/replication")
+public class ReplicationController {
+
+    private final ReplicationPrimary primary;
+    private final ReplicationStandby standby;
+
+    @Autowired
+    public ReplicationController(ReplicationPrimary primary, ReplicationStandby standby) {
+        this.primary = primary;
+        this.standby = standby;
+    }
+
+    /**
+     * Retrieves the replication role of this node and the state of its replication link.
+     *
+     * @return the role and link status
+     */
+    @GetMapping("/status")
+    public ResponseEntity<?> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        if (primary.isEnabled()) {
+            status.put("role", "primary");
+            status.putAll(primary.getStatus());
+        } else if (standby.isEnabled()) {
+            Map<String, Object> standbyStatus = standby.getStatus();
+            status.put("role", Boolean.TRUE.equals(standbyStatus.get("promoted")) ? "promoted" : "standby");
+            status.putAll(standbyStatus);
+        } else {
+            status.put("role", "none");
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    /**
+     * Promotes this standby to take over the sale, e.g. during a planned failover.
+     *
+     * @return a success message, or an error if this node is not an unpromoted standby
+     */
+    @PostMapping("/promote")
+    public ResponseEntity<?> promote() {
+        if (!standby.promote("Promotion requested through the API")) {
+            return ResponseEntity.badRequest().body("This node is not a standby or has already been promoted");
+        }
+        return ResponseEntity.ok("Standby promoted");
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.ticketingsystem.replication;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.ticketingsystem.model.PoolMutationListener;
+import com.example.ticketingsystem.model.TicketPool;
+
+/**
+ * Records changes to the primary's pool and configuration for shipping to the standby.
+ * Recording is a single lock-free enqueue, so it adds no measurable latency to pool operations;
+ * the replication sender drains the journal in batches on its own thread. Nothing is recorded
+ * while no standby is connected, since every new connection starts from a full snapshot.
+ * A pool that is replaced is detached before the configuration or reset entry is appended, so its
+ * changes always come before that entry and the new pool's after it.
+ * Only the ticket pool is journaled. The dynamic pricing ladder is not replicated: with
+ * {@code ticket.pricing.enabled} the simulated sales run on the ladder, and a promoted standby
+ * starts without the ladder's inventory.
+ */
+@Component
+public class ReplicationJournal implements PoolMutationListener {
+
+    private final boolean enabled;
+    private final int maxPending;
+    private final ConcurrentLinkedQueue<JournalEntry> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private volatile boolean streaming = false;
+    private volatile boolean overflowed = false;
+
+    @Autowired
+    public ReplicationJournal(@Value("${ticket.replication.role:none}") String role,
+                              @Value("${ticket.replication.max-pending:1000000}") int maxPending) {
+        this.enabled = "primary".equalsIgnoreCase(role);
+        this.maxPending = maxPending;
+    }
+
+    // Start observing a pool; called whenever the ticketing service creates a new pool, after detaching the old one
+    public void attach(TicketPool pool) {
+        if (enabled) {
+            pool.setMutationListener(this);
+        }
+    }
+
+    @Override
+    public void onAdded(String ticket) {
+        append(JournalEntry.added(ticket));
+    }
+
+    @Override
+    public void onRemoved(int count) {
+        append(JournalEntry.removed(count));
+    }
+
+    public void recordConfiguration(Integer totalTickets, Integer releaseRate, Integer retrievalRate, Integer capacity) {
+        append(JournalEntry.config(totalTickets, releaseRate, retrievalRate, capacity));
+    }
+
+    public void recordReset() {
+        append(JournalEntry.reset());
+    }
+
+    public void recordRunning(boolean running) {
+        append(JournalEntry.state(running));
+    }
+
+    private void append(JournalEntry entry) {
+        if (!streaming) {
+            return;
+        }
+        if (pendingCount.incrementAndGet() > maxPending) {
+            // The standby cannot keep up; stop recording and let the sender resynchronize it
+            streaming = false;
+            overflowed = true;
+            return;
+        }
+        pending.offer(entry);
+    }
+
+    /**
+     * Starts recording from the current pool state and returns that state.
+     * The copy and the start of recording happen atomically with respect to pool changes.
+     *
+     * @param pool the pool to snapshot
+     * @return the tickets in the pool at the moment recording started
+     */
+    List<String> startStreaming(TicketPool pool) {
+        return pool.snapshotTickets(() -> {
+            pending.clear();
+            pendingCount.set(0);
+            overflowed = false;
+            streaming = true;
+        });
+    }
+
+    void stopStreaming() {
+        streaming = false;
+        pending.clear();
+        pendingCount.set(0);
+    }
+
+    // Moves up to max entries into the batch, oldest first
+    int drain(List<JournalEntry> batch, int max) {
+        int drained = 0;
+        JournalEntry entry;
+        while (drained < max && (entry = pending.poll()) != null) {
+            batch.add(entry);
+            drained++;
+        }
+        pendingCount.addAndGet(-drained);
+        return drained;
+    }
+
+    boolean hasOverflowed() {
+        return overflowed;
+    }
+
+    int getPendingCount() {
+        return Math.max(0, pendingCount.get());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.ticketingsystem.replication;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import com.example.ticketingsystem.model.Configuration;
+import com.example.ticketingsystem.model.TicketPool;
+import com.example.ticketingsystem.service.TicketingService;
+
+/**
+ * Ships the replication journal to the standby when this node is the primary.
+ * A single sender thread connects to the standby, sends a full snapshot, and then streams
+ * journal entries in batches every few milliseconds, with heartbeats while idle. If the
+ * connection drops or the journal overflows it reconnects and starts again from a snapshot.
+ */
+@Service
+@Lazy(false) // Nothing else references it, so lazy initialization would never start the link
+public class ReplicationPrimary {
+
+    private final TicketingService ticketingService;
+    private final ReplicationJournal journal;
+    private final boolean enabled;
+    private final String standbyHost;
+    private final int standbyPort;
+    private final int batchSize;
+    private final long batchIntervalNanos;
+    private final long heartbeatNanos;
+    private final String token;
+    private Thread sender;
+    private volatile boolean running = true;
+    private volatile boolean connected = false;
+    private volatile String lastError;
+    private volatile long snapshotsSent = 0;
+    private volatile long batchesSent = 0;
+    private volatile long entriesSent = 0;
+
+    @Autowired
+    public ReplicationPrimary(TicketingService ticketingService, ReplicationJournal journal,
+                              @Value("${ticket.replication.host:localhost}") String standbyHost,
+                              @Value("${ticket.replication.port:9090}") int standbyPort,
+                              @Value("${ticket.replication.batch-size:1024}") int batchSize,
+                              @Value("${ticket.replication.batch-interval-ms:20}") long batchIntervalMillis,
+                              @Value("${ticket.replication.heartbeat-ms:500}") long heartbeatMillis,
+                              @Value("${ticket.replication.token:}") String token) {
+        this.ticketingService = ticketingService;
+        this.journal = journal;
+        this.enabled = journal.isEnabled();
+        this.standbyHost = standbyHost;
+        this.standbyPort = standbyPort;
+        this.batchSize = batchSize;
+        this.batchIntervalNanos = TimeUnit.MILLISECONDS.toNanos(batchIntervalMillis);
+        this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatMillis);
+        this.token = token;
+    }
+
+    @PostConstruct
+    public void startSender() {
+        if (!enabled) {
+            return;
+        }
+        sender = new Thread(this::sendLoop, "replication-sender");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    @PreDestroy
+    public void stopSender() {
+        running = false;
+        if (sender != null) {
+            LockSupport.unpark(sender);
+        }
+    }
+
+    private void sendLoop() {
+        List<JournalEntry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(standbyHost, standbyPort), 2000);
+                socket.setTcpNoDelay(true);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+                ReplicationProtocol.writeHello(out, token);
+                long sequence = sendSnapshot(out);
+                connected = true;
+                lastError = null;
+                long lastWrite = System.nanoTime();
+                while (running) {
+                    if (journal.hasOverflowed()) {
+                        throw new IOException("Replication journal overflowed, resynchronizing standby");
+                    }
+                    batch.clear();
+                    int drained = journal.drain(batch, batchSize);
+                    if (drained > 0) {
+                        ReplicationProtocol.writeBatch(out, sequence, batch);
+                        out.flush();
+                        sequence += drained;
+                        batchesSent++;
+                        entriesSent += drained;
+                        lastWrite = System.nanoTime();
+                        if (drained == batchSize) {
+                            continue; // More is waiting, send it right away
+                        }
+                    } else if (System.nanoTime() - lastWrite >= heartbeatNanos) {
+                        ReplicationProtocol.writeHeartbeat(out);
+                        out.flush();
+                        lastWrite = System.nanoTime();
+                    }
+                    LockSupport.parkNanos(batchIntervalNanos);
+                }
+            } catch (IOException e) {
+                lastError = e.getMessage();
+            } finally {
+                journal.stopStreaming();
+                connected = false;
+            }
+            if (running) {
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1)); // Standby unreachable, retry shortly
+            }
+        }
+    }
+
+    // Sends configuration and pool contents, and starts journaling from exactly that state
+    private long sendSnapshot(DataOutputStream out) throws IOException {
+        int[] config;
+        boolean running;
+        List<String> tickets;
+        synchronized (ticketingService) {
+            // Configuration changes synchronize on the service, so none can interleave with the snapshot
+            Configuration configuration = ticketingService.getConfiguration();
+            TicketPool pool = ticketingService.getTicketPool();
+            config = new int[] {pool.getMaxCapacity(), configuration.getTotalTickets(),
+                configuration.getTicketReleaseRate(), configuration.getCustomerRetrievalRate()};
+            running = ticketingService.isSystemRunning();
+            tickets = journal.startStreaming(pool);
+        }
+        ReplicationProtocol.writeSnapshot(out, config, running, tickets);
+        out.flush();
+        snapshotsSent++;
+        return 0;
+    }
+
+    /**
+     * Describes the replication link from this primary.
+     *
+     * @return whether a standby is connected and how much has been shipped
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("standby", standbyHost + ":" + standbyPort);
+        status.put("connected", connected);
+        status.put("snapshotsSent", snapshotsSent);
+        status.put("batchesSent", batchesSent);
+        status.put("entriesSent", entriesSent);
+        status.put("pendingEntries", journal.getPendingCount());
+        status.put("lastError", lastError);
+        return status;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
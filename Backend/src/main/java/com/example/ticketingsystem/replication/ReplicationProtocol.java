@@ -0,0 +1,120 @@
+package com.example.ticketingsystem.replication;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Wire format of the replication stream from primary to standby.
+ * Every frame starts with {@link #MAGIC} and a frame type. A HELLO frame carrying the shared
+ * replication token opens every connection, and the standby drops connections whose token does not
+ * match. A SNAPSHOT frame carries the full configuration and pool contents and always follows; BATCH frames
+ * carry journal entries in the order they happened; HEARTBEAT frames are empty and only prove
+ * the primary is alive.
+ *
+ * <pre>
+ * HELLO     UTF token
+ * SNAPSHOT  int capacity, int totalTickets, int releaseRate, int retrievalRate, boolean running,
+ *           int ticketCount, ticketCount x UTF ticket
+ * BATCH     long firstSequence, int entryCount, entryCount x entry
+ * HEARTBEAT (no payload)
+ *
+ * entry     byte type, then ADD: UTF ticket | REMOVE: int count
+ *           | CONFIG: 4 x int (-1 when unchanged) | RESET: - | STATE: boolean running
+ * </pre>
+ */
+final class ReplicationProtocol {
+
+    static final int MAGIC = 0x54505232; // "TPR2"
+
+    static final byte SNAPSHOT = 1;
+    static final byte BATCH = 2;
+    static final byte HEARTBEAT = 3;
+    static final byte HELLO = 4;
+
+    static final byte ADD = 1;
+    static final byte REMOVE = 2;
+    static final byte CONFIG = 3;
+    static final byte RESET = 4;
+    static final byte STATE = 5;
+
+    private ReplicationProtocol() {
+    }
+
+    static void writeHello(DataOutputStream out, String token) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(HELLO);
+        out.writeUTF(token);
+    }
+
+    // Reads the HELLO frame that opens a connection and returns the token it presents
+    static String readHello(DataInputStream in) throws IOException {
+        byte frameType = readFrameType(in);
+        if (frameType != HELLO) {
+            throw new IOException("Expected a HELLO frame, got frame type " + frameType);
+        }
+        return in.readUTF();
+    }
+
+    static void writeSnapshot(DataOutputStream out, int[] config, boolean running, List<String> tickets)
+            throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(SNAPSHOT);
+        for (int value : config) {
+            out.writeInt(value);
+        }
+        out.writeBoolean(running);
+        out.writeInt(tickets.size());
+        for (String ticket : tickets) {
+            out.writeUTF(ticket);
+        }
+    }
+
+    static void writeBatch(DataOutputStream out, long firstSequence, List<JournalEntry> entries) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(BATCH);
+        out.writeLong(firstSequence);
+        out.writeInt(entries.size());
+        for (JournalEntry entry : entries) {
+            out.writeByte(entry.type());
+            switch (entry.type()) {
+                case ADD -> out.writeUTF(entry.ticket());
+                case REMOVE -> out.writeInt(entry.values()[0]);
+                case CONFIG -> {
+                    for (int value : entry.values()) {
+                        out.writeInt(value);
+                    }
+                }
+                case STATE -> out.writeBoolean(entry.values()[0] != 0);
+                default -> { } // RESET has no payload
+            }
+        }
+    }
+
+    static void writeHeartbeat(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(HEARTBEAT);
+    }
+
+    // Reads the frame header and returns the frame type
+    static byte readFrameType(DataInputStream in) throws IOException {
+        int magic = in.readInt();
+        if (magic != MAGIC) {
+            throw new IOException("Not a replication stream (magic " + Integer.toHexString(magic) + ")");
+        }
+        return in.readByte();
+    }
+
+    static JournalEntry readEntry(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case ADD -> JournalEntry.added(in.readUTF());
+            case REMOVE -> JournalEntry.removed(in.readInt());
+            case CONFIG -> new JournalEntry(CONFIG, null, new int[] {in.readInt(), in.readInt(), in.readInt(), in.readInt()});
+            case RESET -> JournalEntry.reset();
+            case STATE -> JournalEntry.state(in.readBoolean());
+            default -> throw new IOException("Unknown journal entry type " + type);
+        };
+    }
+}
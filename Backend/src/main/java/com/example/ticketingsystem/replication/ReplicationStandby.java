@@ -0,0 +1,289 @@
+package com.example.ticketingsystem.replication;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import com.example.ticketingsystem.model.TicketPool;
+import com.example.ticketingsystem.service.TicketingService;
+
+/**
+ * Applies the primary's replication stream when this node is the standby.
+ * A receiver thread accepts the primary's connection, restores each snapshot and applies journal
+ * batches to the local pool in order. Promotion is requested explicitly by default: the standby
+ * stops listening and, if the primary was selling, starts its own vendors and customers on the
+ * replicated pool.
+ * The receiver listens on {@code ticket.replication.bind-address}, loopback by default, and only
+ * follows a primary that opens the connection with the shared {@code ticket.replication.token};
+ * listening on any other address requires a token, since whoever connects can replace the inventory.
+ * With {@code ticket.replication.auto-promote=true} the standby also promotes itself when no frame
+ * arrives within the failover timeout. There is no fencing: silence cannot tell a dead primary
+ * from a network partition or a long pause, and a primary that is still alive keeps selling while
+ * it retries the connection, so both nodes would then sell the same replicated tickets.
+ * Only enable it where the old primary is known to be stopped when the link drops.
+ */
+@Service
+@Lazy(false) // Nothing else references it, so lazy initialization would never start the link
+public class ReplicationStandby {
+
+    private final TicketingService ticketingService;
+    private final boolean enabled;
+    private final String bindAddress;
+    private final int port;
+    private final byte[] token;
+    private final boolean autoPromote;
+    private final long failoverTimeoutNanos;
+    private Thread receiver;
+    private volatile ServerSocket serverSocket;
+    private volatile Socket primarySocket;
+    private volatile boolean running = true;
+    private volatile boolean promoted = false;
+    private volatile boolean primaryRunning = false;
+    private volatile long lastFrameNanos = 0;
+    private volatile String primaryAddress;
+    private volatile String promotionReason;
+    private volatile long snapshotsApplied = 0;
+    private volatile long entriesApplied = 0;
+    private volatile long rejectedConnections = 0;
+    private long expectedSequence = 0; // only touched by the receiver thread
+
+    @Autowired
+    public ReplicationStandby(TicketingService ticketingService,
+                              @Value("${ticket.replication.role:none}") String role,
+                              @Value("${ticket.replication.bind-address:127.0.0.1}") String bindAddress,
+                              @Value("${ticket.replication.port:9090}") int port,
+                              @Value("${ticket.replication.token:}") String token,
+                              @Value("${ticket.replication.auto-promote:false}") boolean autoPromote,
+                              @Value("${ticket.replication.failover-timeout-ms:3000}") long failoverTimeoutMillis) {
+        this.ticketingService = ticketingService;
+        this.enabled = "standby".equalsIgnoreCase(role);
+        this.bindAddress = bindAddress;
+        this.port = port;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+        this.autoPromote = autoPromote;
+        this.failoverTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(failoverTimeoutMillis);
+    }
+
+    @PostConstruct
+    public void startReceiver() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        InetAddress address = InetAddress.getByName(bindAddress);
+        if (!address.isLoopbackAddress() && token.length == 0) {
+            throw new IllegalStateException("ticket.replication.token must be set for a standby listening on " + bindAddress);
+        }
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(address, port));
+        receiver = new Thread(this::receiveLoop, "replication-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @PreDestroy
+    public void stopReceiver() {
+        running = false;
+        closeSockets();
+    }
+
+    private void receiveLoop() {
+        while (running && !promoted) {
+            try (Socket socket = serverSocket.accept()) {
+                if (promoted) {
+                    return;
+                }
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+                if (!authenticate(socket, in)) {
+                    rejectedConnections++;
+                    continue;
+                }
+                primarySocket = socket;
+                primaryAddress = socket.getRemoteSocketAddress().toString();
+                while (running && !promoted) {
+                    byte frameType = ReplicationProtocol.readFrameType(in);
+                    lastFrameNanos = System.nanoTime();
+                    switch (frameType) {
+                        case ReplicationProtocol.SNAPSHOT -> applySnapshot(in);
+                        case ReplicationProtocol.BATCH -> applyBatch(in);
+                        case ReplicationProtocol.HEARTBEAT -> { }
+                        default -> throw new IOException("Unknown frame type " + frameType);
+                    }
+                }
+            } catch (IOException e) {
+                // Primary disconnected or the stream was corrupt; wait for it to reconnect with a snapshot
+            } finally {
+                primarySocket = null;
+            }
+        }
+    }
+
+    // Reads the HELLO frame within the failover timeout, so a silent client cannot hold the listener
+    private boolean authenticate(Socket socket, DataInputStream in) throws IOException {
+        socket.setSoTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(failoverTimeoutNanos)));
+        String presented;
+        try {
+            presented = ReplicationProtocol.readHello(in);
+        } catch (IOException e) {
+            return false;
+        }
+        socket.setSoTimeout(0);
+        return MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void applySnapshot(DataInputStream in) throws IOException {
+        int capacity = in.readInt();
+        int totalTickets = in.readInt();
+        int releaseRate = in.readInt();
+        int retrievalRate = in.readInt();
+        primaryRunning = in.readBoolean();
+        int count = in.readInt();
+        List<String> tickets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tickets.add(in.readUTF());
+        }
+        ticketingService.restoreReplicatedState(totalTickets, releaseRate, retrievalRate, capacity, tickets);
+        expectedSequence = 0;
+        snapshotsApplied++;
+    }
+
+    private void applyBatch(DataInputStream in) throws IOException {
+        long firstSequence = in.readLong();
+        if (firstSequence != expectedSequence) {
+            throw new IOException("Replication gap: expected entry " + expectedSequence + ", got " + firstSequence);
+        }
+        int count = in.readInt();
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            JournalEntry entry = ReplicationProtocol.readEntry(in);
+            if (entry.type() == ReplicationProtocol.ADD) {
+                added.add(entry.ticket()); // Consecutive additions are applied as one pool operation
+                continue;
+            }
+            flushAdded(added);
+            switch (entry.type()) {
+                case ReplicationProtocol.REMOVE -> ticketingService.getTicketPool().pollTickets(entry.values()[0]);
+                case ReplicationProtocol.CONFIG -> applyConfiguration(entry.values());
+                case ReplicationProtocol.RESET -> ticketingService.resetSystem();
+                case ReplicationProtocol.STATE -> primaryRunning = entry.values()[0] != 0;
+                default -> throw new IOException("Unexpected journal entry type " + entry.type());
+            }
+        }
+        flushAdded(added);
+        expectedSequence += count;
+        entriesApplied += count;
+    }
+
+    private void flushAdded(List<String> added) {
+        if (!added.isEmpty()) {
+            TicketPool pool = ticketingService.getTicketPool();
+            pool.offerTickets(added);
+            added.clear();
+        }
+    }
+
+    private void applyConfiguration(int[] values) {
+        try {
+            ticketingService.updateConfiguration(
+                values[0] < 0 ? null : values[0],
+                values[1] < 0 ? null : values[1],
+                values[2] < 0 ? null : values[2],
+                values[3] < 0 ? null : values[3]);
+        } catch (IllegalArgumentException e) {
+            // Already validated on the primary; a mismatch is repaired by the next snapshot
+            System.out.println("Could not apply replicated configuration: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Promotes this standby if the primary has been silent for longer than the failover timeout.
+     */
+    @Scheduled(fixedDelay = 500)
+    public void checkPrimary() {
+        if (enabled && autoPromote && !promoted && lastFrameNanos != 0
+                && System.nanoTime() - lastFrameNanos > failoverTimeoutNanos) {
+            promote("No replication traffic from the primary for "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastFrameNanos) + " ms");
+        }
+    }
+
+    /**
+     * Stops following the primary and takes over the sale with the replicated state.
+     *
+     * @param reason why the standby is being promoted
+     * @return true if this call promoted the standby, false if it was not a standby or already promoted
+     */
+    public synchronized boolean promote(String reason) {
+        if (!enabled || promoted) {
+            return false;
+        }
+        promoted = true;
+        promotionReason = reason;
+        closeSockets();
+        System.out.println("Standby promoted to primary: " + reason);
+        if (primaryRunning) {
+            try {
+                ticketingService.startSystem();
+            } catch (IllegalStateException e) {
+                System.out.println("Promoted standby could not resume the sale: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private void closeSockets() {
+        for (Closeable closeable : new Closeable[] {primarySocket, serverSocket}) {
+            if (closeable != null) {
+                try {
+                    closeable.close();
+                } catch (IOException e) {
+                    // Already closed
+                }
+            }
+        }
+    }
+
+    /**
+     * Describes the replication link into this standby.
+     *
+     * @return whether the primary is connected, how much has been applied and whether it was promoted
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("bindAddress", bindAddress);
+        status.put("listenPort", port);
+        status.put("rejectedConnections", rejectedConnections);
+        status.put("primary", primarySocket != null ? primaryAddress : null);
+        status.put("primaryRunning", primaryRunning);
+        status.put("millisSinceLastFrame", lastFrameNanos == 0 ? -1
+            : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastFrameNanos));
+        status.put("snapshotsApplied", snapshotsApplied);
+        status.put("entriesApplied", entriesApplied);
+        status.put("autoPromote", autoPromote);
+        status.put("promoted", promoted);
+        status.put("promotionReason", promotionReason);
+        return status;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
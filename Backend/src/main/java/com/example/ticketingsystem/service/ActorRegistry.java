@@ -0,0 +1,134 @@
+package com.example.ticketingsystem.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import com.example.ticketing.core.actor.Actor;
+import com.example.ticketing.core.actor.ActorState;
+
+/**
+ * Thread-safe registry of running actors of one kind (vendors or customers).
+ * Actors can be started and stopped in bulk; stopping signals every actor in parallel first
+ * and then waits for all of them against a single shared deadline, so the total drain time is
+ * bounded by the deadline rather than growing with the number of actors. Actors that have not
+ * exited by the deadline stay registered as DRAINING and are retried by the next stop.
+ * Actors that exit on their own deregister themselves.
+ *
+ * @param <T> the kind of actor held
+ */
+public class ActorRegistry<T extends Actor> {
+
+    /**
+     * Result of a bulk stop.
+     *
+     * @param stopped the number of actors that exited and were removed
+     * @param lingering the number of actors still draining when the deadline passed
+     */
+    public record StopResult(int stopped, int lingering) {}
+
+    private final ConcurrentHashMap<String, T> actors = new ConcurrentHashMap<>();
+    private final boolean virtualThreads;
+
+    /**
+     * Creates an empty registry.
+     *
+     * @param virtualThreads whether actors run on virtual threads rather than platform threads
+     */
+    public ActorRegistry(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Registers and starts a single actor.
+     *
+     * @param actor the actor to start
+     */
+    public void start(T actor) {
+        if (actors.putIfAbsent(actor.getActorId(), actor) != null) {
+            throw new IllegalStateException("Actor " + actor.getActorId() + " is already registered");
+        }
+        actor.onExit(() -> actors.remove(actor.getActorId(), actor));
+        actor.start(virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true));
+    }
+
+    /**
+     * Registers and starts a batch of actors in parallel.
+     *
+     * @param batch the actors to start
+     */
+    public void startAll(List<T> batch) {
+        batch.parallelStream().forEach(this::start);
+    }
+
+    /**
+     * Signals every registered actor to stop and waits until they exit or the deadline passes.
+     *
+     * @param drainTimeout the maximum time to wait for all actors together
+     * @param unit the unit of the timeout argument
+     * @return how many actors stopped and how many are still draining
+     */
+    public StopResult stopAll(long drainTimeout, TimeUnit unit) {
+        List<T> stopping = new ArrayList<>(actors.values());
+        stopping.parallelStream().forEach(Actor::requestStop);
+
+        long deadline = System.nanoTime() + unit.toNanos(drainTimeout);
+        int stopped = 0;
+        boolean interrupted = false;
+        for (T actor : stopping) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0 && actor.isAlive()) {
+                try {
+                    actor.awaitStop(remaining, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    deadline = System.nanoTime(); // stop waiting, but still account for every actor
+                }
+            }
+            if (!actor.isAlive()) {
+                stopped++;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return new StopResult(stopped, stopping.size() - stopped);
+    }
+
+    /**
+     * Returns a live, weakly consistent view of the registered actors, safe to iterate while
+     * actors are added or removed.
+     *
+     * @return the registered actors
+     */
+    public Collection<T> getActors() {
+        return Collections.unmodifiableCollection(actors.values());
+    }
+
+    /**
+     * Returns the number of registered actors, including any still draining.
+     *
+     * @return the number of registered actors
+     */
+    public int size() {
+        return actors.size();
+    }
+
+    /**
+     * Counts the registered actors in each lifecycle state.
+     *
+     * @return the number of actors per state
+     */
+    public Map<ActorState, Integer> countByState() {
+        Map<ActorState, Integer> counts = new EnumMap<>(ActorState.class);
+        for (ActorState state : ActorState.values()) {
+            counts.put(state, 0);
+        }
+        actors.values().forEach(actor -> counts.merge(actor.getActorState(), 1, Integer::sum));
+        return counts;
+    }
+}
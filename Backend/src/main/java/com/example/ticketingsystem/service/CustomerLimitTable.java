@@ -0,0 +1,196 @@
+package com.example.ticketingsystem.service;
+
+import java.util.Arrays;
+
+/**
+ * Bounded, expiring, primitive-keyed table of per-customer purchase state.
+ * Entries live in parallel primitive arrays split into independently locked stripes, using
+ * open addressing with a short probe window, so memory stays fixed no matter how many distinct
+ * customer ids are seen. A customer's purchase count is kept until the table is cleared for a new
+ * sale: only entries without purchases, which hold nothing but rate limit state, expire after the
+ * idle TTL or are evicted least recently seen first. A new customer whose probe window holds only
+ * customers with purchases is refused rather than evicting anyone's quota.
+ */
+class CustomerLimitTable {
+
+    static final int ALLOWED = 0;
+    static final int QUOTA_EXCEEDED = 1;
+    static final int RATE_LIMITED = 2;
+    static final int TABLE_FULL = 3;
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int PROBE_WINDOW = 8;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final long ttlNanos;
+
+    /**
+     * @param capacity the total number of customers tracked at once (rounded up to a power of two)
+     * @param stripeCount the number of independently locked stripes (rounded up to a power of two)
+     * @param ttlNanos how long an idle customer's rate limit state is kept if they have no purchases
+     */
+    CustomerLimitTable(int capacity, int stripeCount, long ttlNanos) {
+        int stripesPow2 = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        int perStripe = Math.max(PROBE_WINDOW, Integer.highestOneBit(Math.max(1, capacity / stripesPow2 - 1) << 1));
+        this.stripes = new Stripe[stripesPow2];
+        for (int i = 0; i < stripesPow2; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        this.stripeMask = stripesPow2 - 1;
+        this.ttlNanos = ttlNanos;
+    }
+
+    /**
+     * Charges one purchase to a customer if both the quota and the token bucket allow it.
+     *
+     * @param customerId the customer
+     * @param now the current {@link System#nanoTime()}
+     * @param maxPurchases the quota per customer, or 0 for no quota
+     * @param tokensPerNano the token bucket refill rate, or 0 for no rate limit
+     * @param burst the token bucket size
+     * @return {@link #ALLOWED}, {@link #QUOTA_EXCEEDED}, {@link #RATE_LIMITED} or {@link #TABLE_FULL}
+     */
+    int tryAcquire(long customerId, long now, int maxPurchases, double tokensPerNano, double burst) {
+        long hash = mix(customerId);
+        Stripe stripe = stripes[(int) (hash >>> 32) & stripeMask];
+        synchronized (stripe) {
+            int slot = stripe.locate(customerId, (int) hash, now, ttlNanos, burst);
+            if (slot < 0) {
+                return TABLE_FULL;
+            }
+            if (maxPurchases > 0 && stripe.purchases[slot] >= maxPurchases) {
+                return QUOTA_EXCEEDED;
+            }
+            if (tokensPerNano > 0) {
+                double tokens = Math.min(burst, stripe.tokens[slot] + (now - stripe.lastRefill[slot]) * tokensPerNano);
+                stripe.lastRefill[slot] = now;
+                if (tokens < 1.0) {
+                    stripe.tokens[slot] = tokens;
+                    return RATE_LIMITED;
+                }
+                stripe.tokens[slot] = tokens - 1.0;
+            }
+            stripe.purchases[slot]++;
+            return ALLOWED;
+        }
+    }
+
+    /**
+     * Returns a previously charged purchase to a customer's quota, e.g. after a failed purchase.
+     *
+     * @param customerId the customer
+     */
+    void refund(long customerId) {
+        long hash = mix(customerId);
+        Stripe stripe = stripes[(int) (hash >>> 32) & stripeMask];
+        synchronized (stripe) {
+            int slot = stripe.find(customerId, (int) hash);
+            if (slot >= 0 && stripe.purchases[slot] > 0) {
+                stripe.purchases[slot]--;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of purchases charged to a customer, or 0 if untracked.
+     *
+     * @param customerId the customer
+     * @return the customer's purchases within the current tracking window
+     */
+    int getPurchases(long customerId) {
+        long hash = mix(customerId);
+        Stripe stripe = stripes[(int) (hash >>> 32) & stripeMask];
+        synchronized (stripe) {
+            int slot = stripe.find(customerId, (int) hash);
+            return slot >= 0 ? stripe.purchases[slot] : 0;
+        }
+    }
+
+    // Clears all customer state (used when a new sale is configured)
+    void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Arrays.fill(stripe.keys, EMPTY);
+            }
+        }
+    }
+
+    // 64-bit finalizer from MurmurHash3, spreads sequential ids across stripes and slots
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static final class Stripe {
+        final long[] keys;
+        final int[] purchases;
+        final double[] tokens;
+        final long[] lastRefill;
+        final long[] lastSeen;
+        final int mask;
+
+        Stripe(int size) {
+            keys = new long[size];
+            purchases = new int[size];
+            tokens = new double[size];
+            lastRefill = new long[size];
+            lastSeen = new long[size];
+            mask = size - 1;
+            Arrays.fill(keys, EMPTY);
+        }
+
+        int find(long key, int hash) {
+            for (int i = 0; i < PROBE_WINDOW; i++) {
+                int slot = (hash + i) & mask;
+                if (keys[slot] == key) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        // Finds the key's slot, claiming an empty, expired or least recently seen slot if absent;
+        // slots holding purchases are never claimed, so -1 means the window is full of them
+        int locate(long key, int hash, long now, long ttlNanos, double burst) {
+            int victim = -1;
+            long oldest = Long.MAX_VALUE;
+            for (int i = 0; i < PROBE_WINDOW; i++) {
+                int slot = (hash + i) & mask;
+                long current = keys[slot];
+                if (current == key) {
+                    lastSeen[slot] = now; // the token bucket refills by itself while idle
+                    return slot;
+                }
+                if (current != EMPTY && purchases[slot] > 0) {
+                    continue;
+                }
+                if (current == EMPTY || now - lastSeen[slot] > ttlNanos) {
+                    if (oldest != Long.MIN_VALUE) {
+                        victim = slot;
+                        oldest = Long.MIN_VALUE; // free slots always win over eviction
+                    }
+                } else if (oldest != Long.MIN_VALUE && lastSeen[slot] - now < oldest) {
+                    victim = slot;
+                    oldest = lastSeen[slot] - now;
+                }
+            }
+            if (victim >= 0) {
+                reset(victim, key, now, burst);
+            }
+            return victim;
+        }
+
+        private void reset(int slot, long key, long now, double burst) {
+            keys[slot] = key;
+            purchases[slot] = 0;
+            tokens[slot] = burst;
+            lastRefill[slot] = now;
+            lastSeen[slot] = now;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.ticketingsystem.service;
+
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Enforces per-customer purchase quotas and token-bucket rate limits at the pool boundary.
+ * Both simulated {@code Customer} threads and the HTTP purchase API consult it before
+ * taking a ticket from the pool.
+ */
+@Service
+public class CustomerLimiter {
+
+    /** Outcome of a limit check; TABLE_FULL means no more customers can be tracked for this sale. */
+    public enum Decision { ALLOWED, QUOTA_EXCEEDED, RATE_LIMITED, TABLE_FULL }
+
+    private final CustomerLimitTable table;
+    private final int maxTicketsPerCustomer;
+    private final double tokensPerNano;
+    private final double burst;
+
+    @Autowired
+    public CustomerLimiter(@Value("${ticket.limits.max-per-customer:0}") int maxTicketsPerCustomer,
+                           @Value("${ticket.limits.rate-per-second:0}") double ratePerSecond,
+                           @Value("${ticket.limits.burst:1}") double burst,
+                           @Value("${ticket.limits.tracked-customers:1048576}") int trackedCustomers,
+                           @Value("${ticket.limits.idle-ttl-ms:3600000}") long idleTtlMillis) {
+        this.maxTicketsPerCustomer = maxTicketsPerCustomer;
+        this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(1.0, burst);
+        this.table = new CustomerLimitTable(trackedCustomers, 64, TimeUnit.MILLISECONDS.toNanos(idleTtlMillis));
+    }
+
+    // Whether any limit is configured at all
+    public boolean isEnabled() {
+        return maxTicketsPerCustomer > 0 || tokensPerNano > 0;
+    }
+
+    /**
+     * Charges one purchase to the customer if their quota and rate limit allow it.
+     * A charged purchase that does not end up with a ticket should be {@link #refund refunded}.
+     *
+     * @param customerId a non-negative customer id
+     * @return whether the purchase may go ahead
+     */
+    public Decision tryAcquire(long customerId) {
+        if (!isEnabled()) {
+            return Decision.ALLOWED;
+        }
+        if (customerId < 0) {
+            throw new IllegalArgumentException("Customer id cannot be negative");
+        }
+        switch (table.tryAcquire(customerId, System.nanoTime(), maxTicketsPerCustomer, tokensPerNano, burst)) {
+            case CustomerLimitTable.QUOTA_EXCEEDED:
+                return Decision.QUOTA_EXCEEDED;
+            case CustomerLimitTable.RATE_LIMITED:
+                return Decision.RATE_LIMITED;
+            case CustomerLimitTable.TABLE_FULL:
+                return Decision.TABLE_FULL;
+            default:
+                return Decision.ALLOWED;
+        }
+    }
+
+    // Return a purchase charged by tryAcquire that did not get a ticket
+    public void refund(long customerId) {
+        if (isEnabled()) {
+            table.refund(customerId);
+        }
+    }
+
+    // Number of tickets charged to the customer so far
+    public int getPurchases(long customerId) {
+        return table.getPurchases(customerId);
+    }
+
+    // Milliseconds between purchases allowed by the rate limit, used by customers to back off
+    public long getRetryDelayMillis() {
+        return tokensPerNano > 0 ? Math.max(1, (long) (1 / tokensPerNano / 1_000_000)) : 0;
+    }
+
+    public int getMaxTicketsPerCustomer() {
+        return maxTicketsPerCustomer;
+    }
+
+    // Forget all customer state, e.g. when the system is reset for a new sale
+    public void reset() {
+        table.clear();
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.ticketingsystem.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streams status snapshots and log entries to Server-Sent Events subscribers.
+ * A single scheduled producer builds and serializes each event once and fans it out to every
+ * subscriber's bounded buffer, dropping the oldest buffered events for subscribers that cannot
+ * keep up. Recent events are kept in a ring so a reconnecting client can resume from its
+ * {@code Last-Event-ID}. At most one history's worth of log entries is queued per tick; the next
+ * status event reports any entries dropped beyond that in a {@code droppedLogs} field.
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Service
+public class EventStreamService {
+
+    private record StreamEvent(long id, String name, String data) {}
+
+    private final StatusSnapshotCache statusSnapshotCache;
+    private final ObjectMapper objectMapper;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<Map<String, Object>> pendingLogs = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingLogCount = new AtomicInteger();
+    private final AtomicInteger droppedLogs = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final StreamEvent[] history;
+    private final int bufferSize;
+    private final long emitterTimeoutMillis;
+    private long nextEventId = 1;
+
+    @Autowired
+    public EventStreamService(TicketingService ticketingService, StatusSnapshotCache statusSnapshotCache,
+                              ObjectMapper objectMapper,
+                              @Value("${ticket.stream.history-size:256}") int historySize,
+                              @Value("${ticket.stream.buffer-size:64}") int bufferSize,
+                              @Value("${ticket.stream.timeout-ms:1800000}") long emitterTimeoutMillis) {
+        this.statusSnapshotCache = statusSnapshotCache;
+        this.objectMapper = objectMapper;
+        this.history = new StreamEvent[Math.max(1, historySize)];
+        this.bufferSize = Math.max(1, bufferSize);
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        ticketingService.addLogListener(this::onLog);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    /**
+     * Registers a new subscriber, replaying any retained events newer than {@code lastEventId}.
+     *
+     * @param lastEventId the id of the last event the client saw, or null for a fresh stream
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        synchronized (history) {
+            // Replay under the history lock so no event is published between the replay and registration
+            if (lastEventId != null) {
+                long oldest = Math.max(1, nextEventId - history.length);
+                for (long id = Math.max(oldest, lastEventId + 1); id < nextEventId; id++) {
+                    subscriber.offer(history[(int) (id % history.length)]);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.scheduleFlush();
+        return emitter;
+    }
+
+    // Number of connected subscribers
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Publishes the current status and any log entries written since the last tick.
+     * Each event is serialized once, however many subscribers there are.
+     */
+    @Scheduled(fixedRateString = "${ticket.stream.tick-ms:1000}")
+    public void produce() {
+        if (subscribers.isEmpty()) {
+            // Nobody is listening; keep the log backlog from growing while idle
+            pendingLogs.clear();
+            pendingLogCount.set(0);
+            droppedLogs.set(0);
+            return;
+        }
+        Map<String, Object> log;
+        while ((log = pendingLogs.poll()) != null) {
+            pendingLogCount.decrementAndGet();
+            try {
+                publish("log", objectMapper.writeValueAsString(log));
+            } catch (JsonProcessingException e) {
+                // Log entries are plain maps of strings and numbers, so this does not happen in practice
+            }
+        }
+        publish("status", statusJson(droppedLogs.getAndSet(0)));
+        subscribers.forEach(Subscriber::scheduleFlush);
+    }
+
+    // The status is already serialized by the snapshot cache; only a report of dropped logs re-serializes it
+    private String statusJson(int dropped) {
+        StatusSnapshotCache.Entry entry = statusSnapshotCache.get();
+        if (dropped > 0) {
+            Map<String, Object> status = new HashMap<>(entry.status());
+            status.put("droppedLogs", dropped);
+            try {
+                return objectMapper.writeValueAsString(status);
+            } catch (JsonProcessingException e) {
+                // Same plain map the cache serialized, plus a number
+            }
+        }
+        return new String(entry.statusJson(), StandardCharsets.UTF_8);
+    }
+
+    private void publish(String name, String data) {
+        synchronized (history) {
+            StreamEvent event = new StreamEvent(nextEventId, name, data);
+            history[(int) (nextEventId % history.length)] = event;
+            nextEventId++;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    // Called on the logging thread; only queues the entry so actors never pay for serialization
+    private void onLog(Map<String, Object> log) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (pendingLogCount.get() >= history.length) {
+            droppedLogs.incrementAndGet();
+            return;
+        }
+        pendingLogCount.incrementAndGet();
+        pendingLogs.offer(log);
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final ArrayDeque<StreamEvent> buffer = new ArrayDeque<>();
+        final AtomicBoolean flushing = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Buffers an event, dropping the oldest one if the subscriber has fallen behind
+        synchronized void offer(StreamEvent event) {
+            if (buffer.size() >= bufferSize) {
+                buffer.pollFirst();
+            }
+            buffer.addLast(event);
+        }
+
+        synchronized StreamEvent next() {
+            return buffer.pollFirst();
+        }
+
+        synchronized boolean isEmpty() {
+            return buffer.isEmpty();
+        }
+
+        // Sends buffered events on a virtual thread so a slow client never blocks the producer
+        void scheduleFlush() {
+            if (!isEmpty() && flushing.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::flush);
+                } catch (RuntimeException e) {
+                    flushing.set(false); // Executor shut down
+                }
+            }
+        }
+
+        private void flush() {
+            try {
+                StreamEvent event;
+                while ((event = next()) != null) {
+                    emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.id()))
+                        .name(event.name())
+                        .data(event.data()));
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                flushing.set(false);
+            }
+            // An event may have arrived after the last poll but before the flag was cleared
+            scheduleFlush();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.ticketingsystem.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import com.example.ticketingsystem.cluster.ClusterNode;
+import com.example.ticketingsystem.model.TicketPool;
+
+/**
+ * Front end for the HTTP purchase and release API.
+ * Purchases are queued without blocking the calling servlet thread and a single dispatcher
+ * thread applies them to the {@link TicketPool} in micro-batches, so a burst of concurrent
+ * purchases costs one lock acquisition per batch instead of one per request.
+ * Only the dispatcher completes a purchase, timeouts included, so it never takes a ticket from
+ * the pool that it cannot hand to a waiting buyer. Purchases beyond the backlog limit are
+ * refused up front instead of queueing without bound.
+ * Adding tickets never waits, so releases go straight into the pool on the calling thread, one
+ * lock acquisition per release, and wake a dispatcher waiting for tickets like any vendor does.
+ * They draw on the cluster node's release budget like vendor threads do, so API releases never
+ * exceed this node's partition.
+ */
+@Service
+@Lazy(false) // Hot path, created at startup even with lazy initialization
+public class PurchaseCoalescer {
+
+    private static final long MAX_AWAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final TicketingService ticketingService;
+    private final ClusterNode clusterNode;
+    private final ConcurrentLinkedQueue<PendingPurchase> pendingPurchases = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger backlog = new AtomicInteger(); // Purchases accepted and not yet completed
+    private final int maxBatchSize;
+    private final int maxBacklog;
+    private final long purchaseTimeoutNanos;
+    private Thread dispatcher;
+    private volatile boolean running = true;
+    private volatile boolean dispatcherIdle = false;
+
+    @Autowired
+    public PurchaseCoalescer(TicketingService ticketingService, ClusterNode clusterNode,
+                             @Value("${ticket.purchase.batch-size:256}") int maxBatchSize,
+                             @Value("${ticket.purchase.max-backlog:10000}") int maxBacklog,
+                             @Value("${ticket.purchase.timeout-ms:5000}") long purchaseTimeoutMillis) {
+        this.ticketingService = ticketingService;
+        this.clusterNode = clusterNode;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBacklog = maxBacklog;
+        this.purchaseTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(purchaseTimeoutMillis);
+    }
+
+    @PostConstruct
+    public void startDispatcher() {
+        dispatcher = new Thread(this::dispatchLoop, "purchase-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stopDispatcher() {
+        running = false;
+        LockSupport.unpark(dispatcher);
+    }
+
+    /**
+     * Queues a purchase of one ticket.
+     *
+     * @return a future completed with the purchased ticket, or exceptionally with a
+     *         {@link java.util.concurrent.TimeoutException} if no ticket became available in time
+     *         or a {@link RejectedExecutionException} if the backlog of purchases is full
+     */
+    public CompletableFuture<String> purchase() {
+        if (backlog.incrementAndGet() > maxBacklog) {
+            backlog.decrementAndGet();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many pending purchases"));
+        }
+        PendingPurchase purchase = new PendingPurchase(new CompletableFuture<>(), System.nanoTime() + purchaseTimeoutNanos);
+        purchase.result().whenComplete((ticket, e) -> backlog.decrementAndGet()); // Sold, timed out or cancelled
+        pendingPurchases.offer(purchase);
+        wakeDispatcher();
+        return purchase.result().copy(); // Callers cannot complete or cancel the dispatcher's future
+    }
+
+    /**
+     * Releases new tickets by a vendor into the pool, without waiting for room.
+     *
+     * @param vendorId the releasing vendor
+     * @param count the number of tickets to release
+     * @return the number of tickets the pool accepted, which the remaining capacity and the node's
+     *         release budget may limit
+     * @throws IllegalArgumentException if the count is not positive or exceeds the pool capacity
+     */
+    public int release(String vendorId, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Ticket count must be positive");
+        }
+        TicketPool pool = ticketingService.getTicketPool();
+        int capacity = pool.getMaxCapacity();
+        if (count > capacity) {
+            throw new IllegalArgumentException("Ticket count cannot exceed the pool capacity of " + capacity);
+        }
+        count = clusterNode.tryReserveReleases(Math.min(count, pool.getRemainingCapacity()));
+        List<String> tickets = new ArrayList<>(count);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            tickets.add(vendorId + "-T" + now + "-" + i);
+        }
+        int added = pool.offerTickets(tickets);
+        clusterNode.cancelReleases(count - added); // Concurrent releases may have filled the pool first
+        if (added > 0) {
+            ticketingService.recordTicketActivity(added, vendorId, "ticket_added");
+        }
+        return added;
+    }
+
+    // Number of purchases accepted and not yet completed
+    public int getPendingPurchaseCount() {
+        return backlog.get();
+    }
+
+    private void wakeDispatcher() {
+        if (dispatcherIdle) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    private void dispatchLoop() {
+        // Purchases that could not be served yet stay here, in arrival order, ahead of new ones
+        ArrayDeque<PendingPurchase> waiting = new ArrayDeque<>();
+        while (running) {
+            TicketPool pool = ticketingService.getTicketPool();
+
+            PendingPurchase next;
+            while (waiting.size() < maxBatchSize && (next = pendingPurchases.poll()) != null) {
+                waiting.addLast(next);
+            }
+            long now = System.nanoTime();
+            waiting.removeIf(purchase -> now - purchase.deadlineNanos() >= 0
+                    && purchase.result().completeExceptionally(new TimeoutException()));
+
+            if (waiting.isEmpty()) {
+                dispatcherIdle = true;
+                if (pendingPurchases.isEmpty()) {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+                }
+                dispatcherIdle = false;
+                continue;
+            }
+
+            // Every waiting purchase is still open and only completed here, so each ticket finds its buyer
+            List<String> tickets = pool.pollTickets(waiting.size());
+            for (String ticket : tickets) {
+                waiting.pollFirst().result().complete(ticket);
+            }
+            if (!tickets.isEmpty()) {
+                ticketingService.recordTicketActivity(tickets.size(), "HTTP", "ticket_sold");
+            }
+
+            if (!waiting.isEmpty()) {
+                long untilDeadline = waiting.peekFirst().deadlineNanos() - System.nanoTime();
+                try {
+                    pool.awaitTickets(Math.max(0, Math.min(untilDeadline, MAX_AWAIT_NANOS)), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        waiting.forEach(purchase -> purchase.result().cancel(false));
+        pendingPurchases.forEach(purchase -> purchase.result().cancel(false));
+    }
+
+    private record PendingPurchase(CompletableFuture<String> result, long deadlineNanos) {}
+}
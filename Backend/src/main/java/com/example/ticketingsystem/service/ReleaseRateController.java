@@ -0,0 +1,148 @@
+package com.example.ticketingsystem.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import com.example.ticketingsystem.model.TicketPool;
+import com.example.ticketing.core.rate.AimdRate;
+
+/**
+ * Adaptive release controller for vendor threads.
+ * Periodically samples pool occupancy and customer drain rate and adjusts the per-vendor
+ * release rate with AIMD: additive increase while the pool is below its target fill,
+ * multiplicative decrease when it is above target or a vendor finds it full. Vendors pace
+ * themselves with the resulting interval instead of parking on a full pool. However many vendors
+ * find the pool full at once, the rate is cut at most once per control interval.
+ * The AIMD arithmetic is the shared {@link AimdRate}, also used by the CLI vendors.
+ */
+@Service
+public class ReleaseRateController {
+
+    private final TicketingService ticketingService;
+    private final AimdRate ratePerVendor;
+    private final long controlIntervalNanos;
+    private final AtomicLong lastDecreaseNanos;
+
+    private volatile double drainRatePerSecond = 0.0;
+    private volatile double lastOccupancy = 0.0;
+    private volatile String lastDecision = "hold";
+    private final AtomicLong increases = new AtomicLong();
+    private final AtomicLong decreases = new AtomicLong();
+    private final AtomicLong poolFullEvents = new AtomicLong();
+
+    // Sampler state, only touched by the scheduled task
+    private TicketPool sampledPool;
+    private int lastSold = 0;
+    private long lastSampleNanos = System.nanoTime();
+
+    @Autowired
+    public ReleaseRateController(@Lazy TicketingService ticketingService,
+                                 @Value("${ticket.release.target-fill:0.5}") double targetFill,
+                                 @Value("${ticket.release.initial-rate:0.5}") double initialRatePerVendor,
+                                 @Value("${ticket.release.min-rate:0.1}") double minRatePerVendor,
+                                 @Value("${ticket.release.max-rate:1000}") double maxRatePerVendor,
+                                 @Value("${ticket.release.additive-step:0.1}") double additiveStep,
+                                 @Value("${ticket.release.decrease-factor:0.5}") double decreaseFactor,
+                                 @Value("${ticket.release.control-interval-ms:500}") long controlIntervalMillis) {
+        this.ticketingService = ticketingService;
+        this.controlIntervalNanos = TimeUnit.MILLISECONDS.toNanos(controlIntervalMillis);
+        this.lastDecreaseNanos = new AtomicLong(System.nanoTime() - controlIntervalNanos);
+        this.ratePerVendor = new AimdRate(targetFill, initialRatePerVendor, minRatePerVendor, maxRatePerVendor,
+                additiveStep, decreaseFactor);
+    }
+
+    /**
+     * Returns how long each vendor should wait between releases at the current rate.
+     *
+     * @return the release interval in milliseconds
+     */
+    public long getReleaseIntervalMillis() {
+        return Math.max(1L, (long) (1000.0 / ratePerVendor.getRate()));
+    }
+
+    /**
+     * Called by a vendor that found the pool full; backs the release rate off immediately
+     * rather than waiting for the next sample, unless it was already cut within the last
+     * control interval.
+     */
+    public void onPoolFull() {
+        poolFullEvents.incrementAndGet();
+        long now = System.nanoTime();
+        long last = lastDecreaseNanos.get();
+        // Every vendor sees the same full pool; only the one that claims the interval cuts the rate
+        if (now - last >= controlIntervalNanos && lastDecreaseNanos.compareAndSet(last, now)) {
+            decrease("pool_full");
+        }
+    }
+
+    /**
+     * Samples the pool and applies one AIMD step.
+     */
+    @Scheduled(fixedRateString = "${ticket.release.control-interval-ms:500}")
+    public void adjust() {
+        TicketPool pool = ticketingService.getTicketPool();
+        long now = System.nanoTime();
+        int sold = pool.getTotalTicketsSold();
+        if (pool != sampledPool) {
+            // The pool was replaced by a reset or reconfiguration; restart the drain measurement
+            sampledPool = pool;
+            lastSold = sold;
+            lastSampleNanos = now;
+            return;
+        }
+        double elapsedSeconds = (now - lastSampleNanos) / 1e9;
+        if (elapsedSeconds <= 0) {
+            return;
+        }
+        double instantDrain = (sold - lastSold) / elapsedSeconds;
+        drainRatePerSecond = drainRatePerSecond * 0.7 + instantDrain * 0.3;
+        lastSold = sold;
+        lastSampleNanos = now;
+
+        int capacity = pool.getMaxCapacity();
+        double occupancy = capacity > 0 ? (double) pool.getTicketCount() / capacity : 1.0;
+        lastOccupancy = occupancy;
+        int vendors = Math.max(1, ticketingService.getActiveVendorCount());
+
+        // Never supply less than customers are draining while the pool is below target
+        AimdRate.Decision decision = ratePerVendor.adjust(occupancy, drainRatePerSecond / vendors);
+        if (decision == AimdRate.Decision.INCREASE) {
+            increases.incrementAndGet();
+        } else if (decision == AimdRate.Decision.DECREASE) {
+            lastDecreaseNanos.set(now);
+            decreases.incrementAndGet();
+        }
+        lastDecision = decision.name().toLowerCase();
+    }
+
+    private void decrease(String decision) {
+        ratePerVendor.decrease();
+        decreases.incrementAndGet();
+        lastDecision = decision;
+    }
+
+    /**
+     * Returns the controller's current inputs and decisions.
+     *
+     * @return a map of release controller metrics
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("ratePerVendor", ratePerVendor.getRate());
+        metrics.put("releaseIntervalMs", getReleaseIntervalMillis());
+        metrics.put("targetFill", ratePerVendor.getTargetFill());
+        metrics.put("occupancy", lastOccupancy);
+        metrics.put("drainRatePerSecond", drainRatePerSecond);
+        metrics.put("lastDecision", lastDecision);
+        metrics.put("increases", increases.get());
+        metrics.put("decreases", decreases.get());
+        metrics.put("poolFullEvents", poolFullEvents.get());
+        return metrics;
+    }
+}
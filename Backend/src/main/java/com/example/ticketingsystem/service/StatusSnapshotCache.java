@@ -0,0 +1,76 @@
+package com.example.ticketingsystem.service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import com.example.ticketingsystem.stats.StatsSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Status and statistics computed once per refresh and shared by every reader.
+ * A single scheduled task reads the pool and actor counters, serializes the result to JSON and
+ * publishes it through a volatile reference. The REST status endpoints, the WebSocket push and
+ * the event stream all read the published entry, so dashboard traffic never reaches the pool.
+ */
+@Service
+@Lazy(false) // Hot path, created at startup even with lazy initialization
+public class StatusSnapshotCache {
+
+    /**
+     * One published refresh.
+     *
+     * @param timestamp when the entry was computed, in epoch milliseconds
+     * @param status the system status fields
+     * @param statusJson {@code status} serialized as JSON
+     * @param stats the detailed statistics snapshot
+     * @param statsJson {@code stats} serialized as JSON
+     */
+    public record Entry(long timestamp, Map<String, Object> status, byte[] statusJson,
+                        StatsSnapshot stats, byte[] statsJson) {}
+
+    private final TicketingService ticketingService;
+    private final ObjectMapper objectMapper;
+    private volatile Entry current;
+
+    @Autowired
+    public StatusSnapshotCache(TicketingService ticketingService, ObjectMapper objectMapper) {
+        this.ticketingService = ticketingService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Recomputes the status and publishes it for readers.
+     */
+    @PostConstruct
+    @Scheduled(fixedRateString = "${ticket.status.refresh-ms:250}")
+    public void refresh() {
+        StatsSnapshot stats = ticketingService.getDetailedStatus();
+        Map<String, Object> status = new HashMap<>();
+        status.put("isRunning", ticketingService.isSystemRunning());
+        status.put("availableTickets", ticketingService.getAvailableTickets());
+        status.put("totalTickets", ticketingService.getTotalTickets());
+        status.put("maxTicketCapacity", ticketingService.getMaxCapacity());
+        status.put("configuredTotalTickets", ticketingService.getConfiguration().getTotalTickets());
+        status.put("activeVendors", ticketingService.getActiveVendorCount());
+        status.put("activeCustomers", ticketingService.getActiveCustomerCount());
+        status.put("totalTicketsAdded", stats.totalTicketsAdded());
+        status.put("totalTicketsSold", stats.totalTicketsSold());
+        try {
+            current = new Entry(System.currentTimeMillis(), Collections.unmodifiableMap(status),
+                objectMapper.writeValueAsBytes(status), stats, objectMapper.writeValueAsBytes(stats));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize system status", e);
+        }
+    }
+
+    // Latest published entry; never null after startup
+    public Entry get() {
+        return current;
+    }
+}
@@ -1,42 +1,113 @@
 package com.example.ticketingsystem.service;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import javax.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import com.example.ticketing.core.SaleLatch;
+import com.example.ticketing.core.trace.TraceRecorder;
+import com.example.ticketingsystem.cluster.ClusterNode;
 import com.example.ticketingsystem.model.TicketPool;
+import com.example.ticketingsystem.model.TieredTicketPool;
+import com.example.ticketingsystem.replication.ReplicationJournal;
 import com.example.ticketingsystem.thread.Customer;
 import com.example.ticketingsystem.thread.Vendor;
 import com.example.ticketingsystem.model.Configuration;
+import com.example.ticketingsystem.stats.StatsRegistry;
+import com.example.ticketingsystem.stats.StatsSnapshot;
+import com.example.ticketingsystem.stats.ThroughputRecorder;
 
 @Service
+@Lazy(false) // Hot path, created at startup even with lazy initialization
 @EnableScheduling
 public class TicketingService {
 
-    private TicketPool ticketPool;
-    private final List<Vendor> vendors;
-    private final List<Customer> customers;
-    private boolean systemRunning = false;
+    private volatile TicketPool ticketPool;
+    private volatile TieredTicketPool tieredTicketPool; // replaced together with the pool
+    private final boolean pricingEnabled;
+    private final ActorRegistry<Vendor> vendors;
+    private final ActorRegistry<Customer> customers;
+    private volatile boolean systemRunning = false;
     private Configuration configuration;
     private final List<Map<String, Object>> systemLogs;
+    private final List<Consumer<Map<String, Object>>> logListeners = new CopyOnWriteArrayList<>();
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private final CustomerLimiter customerLimiter;
+    private final ReleaseRateController releaseRateController;
+    private final StatsRegistry statsRegistry;
+    private final ThroughputRecorder throughputRecorder;
+    private final ClusterNode clusterNode;
+    private final ReplicationJournal replicationJournal;
+    private final AtomicLong nextCustomerNumber = new AtomicLong();
+    private final long drainTimeoutMillis;
+    private volatile SaleLatch saleLatch;
+    private volatile Map<String, Object> finalReport;
+    private long saleStartedAtMillis; // guarded by this
+    private final Path traceDirectory;
+    private final int maxTraceBytes;
+    private TraceRecorder traceRecorder; // guarded by this
+    private TicketPool tracedPool; // guarded by this
+    private boolean keepRestoredPool; // guarded by this
 
     @Autowired
-    public TicketingService(TicketPool ticketPool) {
+    public TicketingService(TicketPool ticketPool, TieredTicketPool tieredTicketPool, CustomerLimiter customerLimiter,
+                            ReleaseRateController releaseRateController, StatsRegistry statsRegistry,
+                            @Lazy ThroughputRecorder throughputRecorder,
+                            ClusterNode clusterNode, ReplicationJournal replicationJournal,
+                            @Value("${ticket.actors.drain-timeout-ms:2000}") long drainTimeoutMillis,
+                            @Value("${ticket.actors.virtual-threads:true}") boolean virtualThreads,
+                            @Value("${ticket.trace.directory:traces}") String traceDirectory,
+                            @Value("${ticket.trace.max-bytes:67108864}") int maxTraceBytes,
+                            @Value("${ticket.pricing.enabled:false}") boolean pricingEnabled) {
         this.ticketPool = ticketPool;
-        this.vendors = new ArrayList<>();
-        this.customers = new ArrayList<>();
+        this.tieredTicketPool = tieredTicketPool;
+        this.pricingEnabled = pricingEnabled;
+        this.customerLimiter = customerLimiter;
+        this.releaseRateController = releaseRateController;
+        this.statsRegistry = statsRegistry;
+        this.throughputRecorder = throughputRecorder;
+        this.clusterNode = clusterNode;
+        this.replicationJournal = replicationJournal;
+        replicationJournal.attach(ticketPool);
+        this.drainTimeoutMillis = drainTimeoutMillis;
+        this.traceDirectory = Path.of(traceDirectory);
+        this.maxTraceBytes = maxTraceBytes;
+        // Busy-spinning waiters never unmount, so on virtual threads they would pin every carrier
+        boolean actorsOnVirtualThreads = virtualThreads && ticketPool.getWaitStrategy().parks();
+        if (virtualThreads && !actorsOnVirtualThreads) {
+            System.out.println("Wait strategy " + ticketPool.getWaitStrategy()
+                + " never parks; running vendors and customers on platform threads");
+        }
+        this.vendors = new ActorRegistry<>(actorsOnVirtualThreads);
+        this.customers = new ActorRegistry<>(actorsOnVirtualThreads);
         this.configuration = new Configuration();
         this.systemLogs = new ArrayList<>();
         addLog("System initialized", "system_status");
+        if (ticketPool.getTicketCount() > 0) {
+            keepRestoredPool = true;
+            configuration.setMaxTicketCapacity(ticketPool.getMaxCapacity());
+            addLog("Restored " + ticketPool.getTicketCount() + " tickets from the pool file", "system_status");
+        }
     }
 
     private void addLog(String message, String type) {
@@ -44,12 +115,15 @@ public class TicketingService {
         log.put("timestamp", LocalDateTime.now().format(formatter));
         log.put("type", type);
         log.put("message", message);
-        systemLogs.add(0, log); // Add to the beginning of the list
-        
-        // Keep only the last 100 logs
-        if (systemLogs.size() > 100) {
-            systemLogs.remove(systemLogs.size() - 1);
+        synchronized (systemLogs) {
+            systemLogs.add(0, log); // Add to the beginning of the list
+
+            // Keep only the last 100 logs
+            if (systemLogs.size() > 100) {
+                systemLogs.remove(systemLogs.size() - 1);
+            }
         }
+        notifyLogListeners(log);
     }
 
     private void addTicketLog(int ticketAmount, String actorId, String type) {
@@ -61,63 +135,129 @@ public class TicketingService {
         log.put("message", type.equals("ticket_added") ? 
                 String.format("Vendor added %d ticket(s) to the pool", ticketAmount) :
                 String.format("Customer bought %d ticket(s)", ticketAmount));
-        systemLogs.add(0, log);
-        
-        if (systemLogs.size() > 100) {
-            systemLogs.remove(systemLogs.size() - 1);
+        synchronized (systemLogs) {
+            systemLogs.add(0, log);
+
+            if (systemLogs.size() > 100) {
+                systemLogs.remove(systemLogs.size() - 1);
+            }
+        }
+        notifyLogListeners(log);
+    }
+
+    private void notifyLogListeners(Map<String, Object> log) {
+        for (Consumer<Map<String, Object>> listener : logListeners) {
+            listener.accept(log);
         }
     }
 
+    // Register a callback invoked with every new log entry (on the thread that logged it)
+    public void addLogListener(Consumer<Map<String, Object>> listener) {
+        logListeners.add(listener);
+    }
+
     public List<Map<String, Object>> getLogs() {
-        return new ArrayList<>(systemLogs);
+        synchronized (systemLogs) {
+            return new ArrayList<>(systemLogs);
+        }
+    }
+
+    private Vendor newVendor() {
+        String vendorId = "V-" + UUID.randomUUID().toString().substring(0, 8);
+        return new Vendor(ticketPool, pricingEnabled ? tieredTicketPool : null, vendorId, releaseRateController,
+                statsRegistry, clusterNode);
+    }
+
+    private Customer newCustomer() {
+        String customerId = "C-" + UUID.randomUUID().toString().substring(0, 8);
+        return new Customer(ticketPool, pricingEnabled ? tieredTicketPool : null, customerId,
+                nextCustomerNumber.getAndIncrement(), customerLimiter, statsRegistry);
     }
 
     // Start a new vendor thread
     public void startVendor() {
-        String vendorId = "V-" + UUID.randomUUID().toString().substring(0, 8);
-        Vendor vendor = new Vendor(ticketPool, vendorId);
-        vendors.add(vendor);
-        vendor.start();
+        Vendor vendor = newVendor();
+        String vendorId = vendor.getVendorId();
+        vendors.start(vendor);
         // Wait for the vendor to add tickets
         try {
             Thread.sleep(2000); // Ensure some tickets are added before logging
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
-        int ticketsAdded = vendor.getTicketsAdded();
+        int ticketsAdded = (int) vendor.getTicketsAdded();
         addTicketLog(ticketsAdded, vendorId, "ticket_added");
         addLog("Started new vendor: " + vendorId, "system_status");
     }
 
     // Start a new customer thread
     public void startCustomer() {
-        String customerId = "C-" + UUID.randomUUID().toString().substring(0, 8);
-        Customer customer = new Customer(ticketPool);
-        customers.add(customer);
-        customer.start();
+        Customer customer = newCustomer();
+        String customerId = customer.getActorId();
+        customers.start(customer);
         // Wait for the customer to purchase tickets
         try {
             Thread.sleep(1000); // Ensure some tickets are purchased before logging
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
-        int ticketsBought = customer.getTicketsPurchased();
+        int ticketsBought = (int) customer.getTicketsPurchased();
         addTicketLog(ticketsBought, customerId, "ticket_sold");
         addLog("Started new customer: " + customerId, "system_status");
     }
 
-    // Stop all vendor threads
+    // Start vendor and customer threads in bulk, in parallel and without per-actor delays
+    public void startActors(int vendorCount, int customerCount) {
+        List<Vendor> newVendors = new ArrayList<>(vendorCount);
+        for (int i = 0; i < vendorCount; i++) {
+            newVendors.add(newVendor());
+        }
+        List<Customer> newCustomers = new ArrayList<>(customerCount);
+        for (int i = 0; i < customerCount; i++) {
+            newCustomers.add(newCustomer());
+        }
+        vendors.startAll(newVendors);
+        customers.startAll(newCustomers);
+        addLog(String.format("Started %d vendor(s) and %d customer(s)", vendorCount, customerCount), "system_status");
+    }
+
+    // Stop all vendor threads, waiting for them to drain up to the configured deadline
     public void stopVendors() {
-        vendors.forEach(Vendor::stopVendor);
-        vendors.clear();
-        addLog("All vendors stopped", "system_status");
+        ActorRegistry.StopResult result = vendors.stopAll(drainTimeoutMillis, TimeUnit.MILLISECONDS);
+        addLog(describeStop("vendors", result), "system_status");
     }
 
-    // Stop all customer threads
+    // Stop all customer threads, waiting for them to drain up to the configured deadline
     public void stopCustomers() {
-        customers.forEach(Customer::stopCustomer);
-        customers.clear();
-        addLog("All customers stopped", "system_status");
+        ActorRegistry.StopResult result = customers.stopAll(drainTimeoutMillis, TimeUnit.MILLISECONDS);
+        addLog(describeStop("customers", result), "system_status");
+    }
+
+    private String describeStop(String kind, ActorRegistry.StopResult result) {
+        if (result.lingering() == 0) {
+            return "All " + kind + " stopped";
+        }
+        return String.format("Stopped %d %s, %d still draining", result.stopped(), kind, result.lingering());
+    }
+
+    // Get the pool currently in use (replaced on reset and reconfiguration)
+    public TicketPool getTicketPool() {
+        return ticketPool;
+    }
+
+    // Get the price ladder currently in use (replaced on reset and reconfiguration, like the pool)
+    public TieredTicketPool getTieredTicketPool() {
+        return tieredTicketPool;
+    }
+
+    // Record a ticket log entry and statistics for activity coming from the HTTP purchase API
+    public void recordTicketActivity(int ticketAmount, String actorId, String type) {
+        if (type.equals("ticket_added")) {
+            statsRegistry.recordTicketsAdded(ticketAmount);
+        } else {
+            statsRegistry.recordTicketsSold(ticketAmount);
+        }
+        addTicketLog(ticketAmount, actorId, type);
     }
 
     // Get current ticket count
@@ -141,25 +281,34 @@ public class TicketingService {
     }
     
 
-    // Get detailed system statistics
-    public Map<String, Object> getDetailedStatus() {
-        Map<String, Object> status = new HashMap<>();
-        
-        // Pool statistics
-        status.put("poolStats", ticketPool.getStatistics());
-        
+    // Get detailed system statistics from the last published snapshot (O(1), no allocation)
+    public StatsSnapshot getDetailedStatus() {
+        return statsRegistry.getSnapshot();
+    }
+
+    // Periodically walk the actors once and publish an immutable statistics snapshot
+    @Scheduled(fixedRateString = "${ticket.stats.publish-interval-ms:250}")
+    public void publishStatistics() {
         // Vendor statistics
-        Map<String, Integer> vendorStats = new HashMap<>();
-        vendors.forEach(v -> vendorStats.put(v.getVendorId(), v.getTicketsAdded()));
-        status.put("vendorStats", vendorStats);
-        
+        Map<String, Long> vendorStats = new HashMap<>();
+        vendors.getActors().forEach(v -> vendorStats.put(v.getVendorId(), v.getTicketsAdded()));
+
         // Customer statistics
-        List<Integer> customerStats = customers.stream()
+        List<Long> customerStats = customers.getActors().stream()
             .map(Customer::getTicketsPurchased)
             .collect(Collectors.toList());
-        status.put("customerStats", customerStats);
-        
-        return status;
+
+        statsRegistry.publish(new StatsSnapshot(
+            System.currentTimeMillis(),
+            statsRegistry.getTotalTicketsAdded(),
+            statsRegistry.getTotalTicketsSold(),
+            Collections.unmodifiableMap(ticketPool.getStatistics()),
+            Collections.unmodifiableMap(ticketPool.getStoreStatistics()),
+            Collections.unmodifiableMap(vendorStats),
+            Collections.unmodifiableList(customerStats),
+            Collections.unmodifiableMap(vendors.countByState()),
+            Collections.unmodifiableMap(customers.countByState())
+        ));
     }
 
     // Update system configuration
@@ -207,12 +356,22 @@ public class TicketingService {
         }
 
         // Update configuration
+        boolean poolReplaced = false;
         if (maxTicketCapacity != null) {
             configuration.setMaxTicketCapacity(maxTicketCapacity);
-            this.ticketPool = new TicketPool(maxTicketCapacity);
+            // The first configuration after a restart keeps the inventory restored from a mapped pool file
+            if (!keepRestoredPool || maxTicketCapacity != ticketPool.getMaxCapacity()) {
+                replacePool(ticketPool.withCapacity(maxTicketCapacity), () -> replicationJournal.recordConfiguration(
+                        totalTickets, ticketReleaseRate, customerRetrievalRate, maxTicketCapacity));
+                poolReplaced = true;
+                throughputRecorder.clear(); // The history described the replaced pool
+            }
+            this.tieredTicketPool = tieredTicketPool.withCapacity(maxTicketCapacity);
         }
+        keepRestoredPool = false;
         if (totalTickets != null) {
             configuration.setTotalTickets(totalTickets);
+            clusterNode.resetPartition(totalTickets); // Take this node's share of the inventory
         }
         if (ticketReleaseRate != null) {
             configuration.setTicketReleaseRate(ticketReleaseRate);
@@ -221,9 +380,45 @@ public class TicketingService {
             configuration.setCustomerRetrievalRate(customerRetrievalRate);
         }
         
+        if (totalTickets != null || maxTicketCapacity != null) {
+            armSaleLatch();
+        }
+        if (!poolReplaced) {
+            // A kept pool keeps its capacity, so the standby must not replace its copy either
+            replicationJournal.recordConfiguration(totalTickets, ticketReleaseRate, customerRetrievalRate, null);
+        }
         addLog("Configuration updated", "system_status");
     }
 
+    /**
+     * Replaces the configuration and pool contents with state replicated from a primary node.
+     * The state was validated on the primary, so it is applied as-is.
+     *
+     * @param totalTickets the configured total tickets
+     * @param ticketReleaseRate the configured number of vendors
+     * @param customerRetrievalRate the configured number of customers
+     * @param maxTicketCapacity the pool capacity
+     * @param tickets the tickets in the pool, oldest first
+     */
+    public synchronized void restoreReplicatedState(int totalTickets, int ticketReleaseRate, int customerRetrievalRate,
+                                                    int maxTicketCapacity, List<String> tickets) {
+        if (systemRunning) {
+            stopSystem();
+        }
+        configuration.setTotalTickets(totalTickets);
+        configuration.setTicketReleaseRate(ticketReleaseRate);
+        configuration.setCustomerRetrievalRate(customerRetrievalRate);
+        configuration.setMaxTicketCapacity(maxTicketCapacity);
+        keepRestoredPool = false;
+        replacePool(ticketPool.withCapacity(maxTicketCapacity), () -> { });
+        this.tieredTicketPool = tieredTicketPool.withCapacity(maxTicketCapacity);
+        throughputRecorder.clear();
+        ticketPool.offerTickets(tickets);
+        clusterNode.resetPartition(totalTickets);
+        armSaleLatch(); // Sales made before the failover are not replicated, so this counts from here
+        addLog(String.format("Replicated state restored with %d ticket(s) in the pool", tickets.size()), "system_status");
+    }
+
     // Start the ticketing system
     public synchronized void startSystem() {
         if (!systemRunning) {
@@ -239,13 +434,12 @@ public class TicketingService {
             }
 
             systemRunning = true;
-            // Start initial vendors and customers based on configuration
-            for (int i = 0; i < configuration.getTicketReleaseRate(); i++) {
-                startVendor();
-            }
-            for (int i = 0; i < configuration.getCustomerRetrievalRate(); i++) {
-                startCustomer();
+            if (saleStartedAtMillis == 0) {
+                saleStartedAtMillis = System.currentTimeMillis();
             }
+            // Start initial vendors and customers based on configuration
+            startActors(configuration.getTicketReleaseRate(), configuration.getCustomerRetrievalRate());
+            replicationJournal.recordRunning(true);
             addLog("System started", "system_status");
         }
     }
@@ -256,18 +450,140 @@ public class TicketingService {
             systemRunning = false;
             stopVendors();
             stopCustomers();
+            replicationJournal.recordRunning(false);
             addLog("System stopped", "system_status");
         }
     }
 
     // Reset the system to initial state
-    public void resetSystem() {
+    public synchronized void resetSystem() {
         stopSystem();
-        this.ticketPool = new TicketPool(configuration.getMaxTicketCapacity());
+        keepRestoredPool = false;
+        replacePool(ticketPool.withCapacity(configuration.getMaxTicketCapacity()), replicationJournal::recordReset);
+        this.tieredTicketPool = tieredTicketPool.withCapacity(configuration.getMaxTicketCapacity());
+        clusterNode.resetPartition(configuration.getTotalTickets());
+        armSaleLatch();
+        customerLimiter.reset();
+        statsRegistry.reset();
+        throughputRecorder.clear(); // After the totals, so the next sample counts from zero
         systemRunning = false;
         addLog("System reset", "system_status");
     }
 
+    // Swap in a new pool. The journal entry telling the standby to do the same is appended while the
+    // old pool is locked and detached from the journal, so it falls exactly between the old pool's last
+    // journaled change and the new pool's first; nothing can reach the new pool before it is published.
+    private void replacePool(TicketPool newPool, Runnable journalEntry) {
+        ticketPool.detachMutationListener(() -> {
+            journalEntry.run();
+            replicationJournal.attach(newPool);
+            this.ticketPool = newPool;
+        });
+    }
+
+    // Count the current pool's sales down towards the configured total, starting a new sale
+    private void armSaleLatch() {
+        finalReport = null;
+        saleStartedAtMillis = 0;
+        SaleLatch latch = null;
+        // A partitioned cluster node only sells part of the event, so it cannot tell on its own when the sale is over
+        if (!clusterNode.isEnabled() && configuration.getTotalTickets() > 0) {
+            latch = new SaleLatch(configuration.getTotalTickets());
+            SaleLatch armed = latch;
+            latch.onComplete(() -> completeSale(armed));
+        }
+        saleLatch = latch;
+        ticketPool.setSaleLatch(latch);
+        tieredTicketPool.setSaleLatch(pricingEnabled ? latch : null); // ladder sales are the sale only when actors trade there
+    }
+
+    // Runs as soon as the last ticket sells: stops every actor and records the final report
+    private synchronized void completeSale(SaleLatch latch) {
+        if (latch != saleLatch) {
+            return; // A reset or reconfiguration started a new sale in the meantime
+        }
+        // Collect per-actor counts before stopping, since stopped actors deregister themselves
+        Map<String, Long> vendorStats = new HashMap<>();
+        vendors.getActors().forEach(v -> vendorStats.put(v.getVendorId(), v.getTicketsAdded()));
+        List<Long> customerStats = customers.getActors().stream()
+            .map(Customer::getTicketsPurchased)
+            .collect(Collectors.toList());
+        stopSystem();
+
+        long durationMillis = saleStartedAtMillis > 0 ? latch.getCompletedAtMillis() - saleStartedAtMillis : 0;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("totalTickets", latch.getTotalTickets());
+        report.put("ticketsSold", latch.getSold());
+        report.put("ticketsAdded", pricingEnabled ? statsRegistry.getTotalTicketsAdded() : ticketPool.getTotalTicketsAdded());
+        report.put("peakPoolSize", ticketPool.getPeakPoolSize());
+        report.put("startedAt", saleStartedAtMillis);
+        report.put("completedAt", latch.getCompletedAtMillis());
+        report.put("durationMillis", durationMillis);
+        report.put("throughputPerSecond", durationMillis > 0 ? latch.getSold() * 1000.0 / durationMillis : 0.0);
+        report.put("vendorTicketsAdded", vendorStats);
+        report.put("customerTicketsPurchased", customerStats);
+        finalReport = Collections.unmodifiableMap(report);
+        addLog(String.format("Sale complete: all %d tickets sold in %.1f seconds",
+                latch.getTotalTickets(), durationMillis / 1000.0), "system_status");
+    }
+
+    /**
+     * Starts recording every operation on the current pool into a binary trace that can be
+     * replayed to reproduce contention bugs. The recording covers the pool it was started on, so a
+     * reset or capacity change ends what it captures.
+     *
+     * @throws IllegalStateException if a recording is already running
+     */
+    public synchronized void startTrace() {
+        if (traceRecorder != null) {
+            throw new IllegalStateException("A trace is already being recorded");
+        }
+        traceRecorder = new TraceRecorder(ticketPool.getMaxCapacity(), maxTraceBytes);
+        tracedPool = ticketPool;
+        tracedPool.setOperationTracer(traceRecorder);
+        addLog("Trace recording started", "system_status");
+    }
+
+    /**
+     * Stops the running recording and writes the trace to the trace directory.
+     *
+     * @return the trace file, operation count, size and whether the trace was truncated
+     * @throws IllegalStateException if no recording is running
+     * @throws IOException if the trace cannot be written
+     */
+    public synchronized Map<String, Object> stopTrace() throws IOException {
+        if (traceRecorder == null) {
+            throw new IllegalStateException("No trace is being recorded");
+        }
+        TraceRecorder recorder = traceRecorder;
+        tracedPool.setOperationTracer(null);
+        traceRecorder = null;
+        tracedPool = null;
+
+        Files.createDirectories(traceDirectory);
+        Path file = traceDirectory.resolve("trace-" + System.currentTimeMillis() + ".bin");
+        recorder.writeTo(file);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("file", file.toAbsolutePath().toString());
+        summary.put("initialSize", recorder.getInitialSize());
+        summary.put("operations", recorder.getEntryCount());
+        summary.put("bytes", recorder.getSizeBytes());
+        summary.put("truncated", recorder.isTruncated());
+        addLog(String.format("Trace of %d operation(s) written to %s", recorder.getEntryCount(), file), "system_status");
+        return summary;
+    }
+
+    // Final report of the current sale, or null while it is still running
+    public Map<String, Object> getFinalReport() {
+        return finalReport;
+    }
+
+    // Whether every ticket of the current sale has been sold
+    public boolean isSaleComplete() {
+        SaleLatch latch = saleLatch;
+        return latch != null && latch.isComplete();
+    }
+
     // Check if the system is running
     public boolean isSystemRunning() {
         return systemRunning;
@@ -293,6 +609,7 @@ public class TicketingService {
         System.out.println("Shutting down ticketing service...");
         stopVendors();
         stopCustomers();
+        ticketPool.flush();
         addLog("System shutdown", "system_status");
     }
 }
\ No newline at end of file
@@ -0,0 +1,177 @@
+package com.example.ticketingsystem.service;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Virtual waiting room in front of the ticket pool.
+ * Buyers join and receive a queue position; positions are admitted strictly in order at the
+ * rate the pool is refilled, so buyers get a deterministic FIFO guarantee while the pool itself
+ * runs on a non-fair lock; with the waiting room disabled the pool keeps a fair lock instead.
+ * An admitted position may be redeemed for one purchase until its admission expires.
+ */
+@Service
+public class WaitingRoom {
+
+    /** Outcome of presenting a queue position at purchase time. */
+    public enum Admission { ADMITTED, NOT_YET_ADMITTED, EXPIRED, ALREADY_USED }
+
+    // Redemption bitmap over the live admission window, indexed by position modulo its size
+    private static final int REDEEMED_BITS = 1 << 20;
+
+    private final TicketingService ticketingService;
+    private final boolean enabled;
+    private final long admissionTtlMillis;
+
+    private final AtomicLong nextPosition = new AtomicLong();
+    private final AtomicLongArray redeemed = new AtomicLongArray(REDEEMED_BITS / Long.SIZE);
+    private final AtomicLong liveRedeemed = new AtomicLong();
+    // Positions below expiredBelow have expired; positions below admittedUpTo have been admitted
+    private volatile long expiredBelow = 0;
+    private volatile long admittedUpTo = 0;
+
+    // Admission batches still within their TTL, oldest first; only touched by the ticker
+    private final ArrayDeque<long[]> liveBatches = new ArrayDeque<>();
+    private long lastTickNanos = System.nanoTime();
+    private volatile double admissionRatePerSecond = 0.0;
+
+    @Autowired
+    public WaitingRoom(TicketingService ticketingService,
+                       @Value("${ticket.waiting-room.enabled:false}") boolean enabled,
+                       @Value("${ticket.waiting-room.admission-ttl-ms:30000}") long admissionTtlMillis) {
+        this.ticketingService = ticketingService;
+        this.enabled = enabled;
+        this.admissionTtlMillis = admissionTtlMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Issues the next queue position.
+     *
+     * @return the status of the newly issued position
+     */
+    public Map<String, Object> join() {
+        return getStatus(nextPosition.getAndIncrement());
+    }
+
+    /**
+     * Describes where a position stands in the queue.
+     *
+     * @param position a previously issued queue position
+     * @return the position, whether it has been admitted and the estimated wait in milliseconds
+     */
+    public Map<String, Object> getStatus(long position) {
+        long admitted = admittedUpTo;
+        Map<String, Object> status = new HashMap<>();
+        status.put("position", position);
+        status.put("admitted", position < admitted && position >= expiredBelow);
+        status.put("expired", position < expiredBelow);
+        status.put("aheadInQueue", Math.max(0, position - admitted));
+        status.put("estimatedWaitMs", estimateWaitMillis(position - admitted));
+        return status;
+    }
+
+    /**
+     * Redeems an admitted position for a single purchase.
+     *
+     * @param position the buyer's queue position
+     * @return whether the buyer may proceed to the pool
+     */
+    public Admission redeem(long position) {
+        if (position < 0 || position >= admittedUpTo) {
+            return Admission.NOT_YET_ADMITTED;
+        }
+        if (position < expiredBelow) {
+            return Admission.EXPIRED;
+        }
+        int bit = (int) (position & (REDEEMED_BITS - 1));
+        long mask = 1L << (bit & 63);
+        int word = bit >>> 6;
+        long current;
+        do {
+            current = redeemed.get(word);
+            if ((current & mask) != 0) {
+                return Admission.ALREADY_USED;
+            }
+        } while (!redeemed.compareAndSet(word, current, current | mask));
+        liveRedeemed.incrementAndGet();
+        if (position < expiredBelow) {
+            // Lost a race with expiry; undo unless the ticker already cleared and counted the bit
+            if ((redeemed.getAndUpdate(word, w -> w & ~mask) & mask) != 0) {
+                liveRedeemed.decrementAndGet();
+            }
+            return Admission.EXPIRED;
+        }
+        return Admission.ADMITTED;
+    }
+
+    // Estimated time until `ahead` more positions are admitted at the current admission rate
+    private long estimateWaitMillis(long ahead) {
+        if (ahead <= 0) {
+            return 0;
+        }
+        double rate = admissionRatePerSecond;
+        return rate > 0 ? (long) (ahead * 1000 / rate) : -1;
+    }
+
+    /**
+     * Expires stale admissions and admits the next positions in order.
+     * Each tick admits as many buyers as there are tickets in the pool that are not already
+     * earmarked for admitted buyers who have yet to purchase, so admissions follow pool refill.
+     */
+    @Scheduled(fixedRateString = "${ticket.waiting-room.tick-ms:100}")
+    public void admit() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        expireBatches(now);
+
+        long admitted = admittedUpTo;
+        long unredeemed = (admitted - expiredBelow) - liveRedeemed.get();
+        long budget = ticketingService.getAvailableTickets() - unredeemed;
+        // Never let the live window outgrow the redemption bitmap
+        budget = Math.min(budget, REDEEMED_BITS - (admitted - expiredBelow));
+        budget = Math.min(budget, nextPosition.get() - admitted);
+        if (budget > 0) {
+            liveBatches.addLast(new long[] {admitted, admitted + budget, now + admissionTtlMillis * 1_000_000L});
+            admittedUpTo = admitted + budget;
+        }
+
+        double elapsedSeconds = (now - lastTickNanos) / 1e9;
+        lastTickNanos = now;
+        if (elapsedSeconds > 0) {
+            // Exponentially weighted admission rate used for wait estimates
+            double instant = Math.max(budget, 0) / elapsedSeconds;
+            admissionRatePerSecond = admissionRatePerSecond * 0.8 + instant * 0.2;
+        }
+    }
+
+    private void expireBatches(long now) {
+        long[] batch;
+        while ((batch = liveBatches.peekFirst()) != null && batch[2] - now <= 0) {
+            liveBatches.pollFirst();
+            expiredBelow = batch[1]; // publish before clearing so late redeemers back out
+            long redeemedInBatch = 0;
+            for (long position = batch[0]; position < batch[1]; position++) {
+                int bit = (int) (position & (REDEEMED_BITS - 1));
+                long mask = 1L << (bit & 63);
+                int word = bit >>> 6;
+                if ((redeemed.getAndUpdate(word, w -> w & ~mask) & mask) != 0) {
+                    redeemedInBatch++;
+                }
+            }
+            liveRedeemed.addAndGet(-redeemedInBatch);
+        }
+    }
+}
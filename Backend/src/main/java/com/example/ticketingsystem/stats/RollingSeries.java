@@ -0,0 +1,103 @@
+package com.example.ticketingsystem.stats;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fixed-size ring of time slots holding ticket throughput and pool size.
+ * All values live in primitive arrays allocated once; the oldest slot is overwritten
+ * when the ring is full. Written by a single sampler thread and read by history requests.
+ */
+class RollingSeries {
+
+    private final int slotSeconds;
+    private final long[] slotStart;
+    private final long[] added;
+    private final long[] sold;
+    private final int[] poolSize;
+    private int next = 0;
+    private int count = 0;
+
+    /**
+     * @param slots the number of slots kept
+     * @param slotSeconds the length of each slot in seconds
+     */
+    RollingSeries(int slots, int slotSeconds) {
+        this.slotSeconds = slotSeconds;
+        this.slotStart = new long[slots];
+        this.added = new long[slots];
+        this.sold = new long[slots];
+        this.poolSize = new int[slots];
+    }
+
+    /**
+     * Appends a slot, overwriting the oldest one if the ring is full.
+     *
+     * @param startMillis the start of the slot in epoch milliseconds
+     * @param ticketsAdded tickets added during the slot
+     * @param ticketsSold tickets sold during the slot
+     * @param poolSizeAtEnd the pool size at the end of the slot
+     */
+    synchronized void append(long startMillis, long ticketsAdded, long ticketsSold, int poolSizeAtEnd) {
+        slotStart[next] = startMillis;
+        added[next] = ticketsAdded;
+        sold[next] = ticketsSold;
+        poolSize[next] = poolSizeAtEnd;
+        next = (next + 1) % slotStart.length;
+        count = Math.min(count + 1, slotStart.length);
+    }
+
+    synchronized void clear() {
+        next = 0;
+        count = 0;
+    }
+
+    /**
+     * Downsamples the most recent slots into at most {@code points} equal buckets.
+     * Throughput is reported per second and pool size as the bucket average.
+     *
+     * @param window the number of most recent slots to cover
+     * @param points the maximum number of buckets returned
+     * @return parallel arrays of bucket start times, add/sell rates and pool sizes
+     */
+    synchronized Map<String, Object> downsample(int window, int points) {
+        int slots = Math.min(Math.max(window, 0), count);
+        int buckets = Math.max(1, Math.min(points, slots));
+        int perBucket = slots == 0 ? 1 : (slots + buckets - 1) / buckets;
+        buckets = slots == 0 ? 0 : (slots + perBucket - 1) / perBucket;
+
+        long[] timestamps = new long[buckets];
+        double[] addedPerSecond = new double[buckets];
+        double[] soldPerSecond = new double[buckets];
+        double[] averagePoolSize = new double[buckets];
+        int capacity = slotStart.length;
+        int oldest = (next - slots + capacity) % capacity;
+        for (int b = 0; b < buckets; b++) {
+            int from = b * perBucket;
+            int to = Math.min(slots, from + perBucket);
+            long addedSum = 0;
+            long soldSum = 0;
+            long poolSum = 0;
+            for (int i = from; i < to; i++) {
+                int slot = (oldest + i) % capacity;
+                addedSum += added[slot];
+                soldSum += sold[slot];
+                poolSum += poolSize[slot];
+            }
+            int width = to - from;
+            double seconds = (double) width * slotSeconds;
+            timestamps[b] = slotStart[(oldest + from) % capacity];
+            addedPerSecond[b] = addedSum / seconds;
+            soldPerSecond[b] = soldSum / seconds;
+            averagePoolSize[b] = (double) poolSum / width;
+        }
+
+        Map<String, Object> series = new HashMap<>();
+        series.put("bucketSeconds", perBucket * slotSeconds);
+        series.put("timestamps", timestamps);
+        series.put("addedPerSecond", addedPerSecond);
+        series.put("soldPerSecond", soldPerSecond);
+        series.put("poolSize", averagePoolSize);
+        return series;
+    }
+}
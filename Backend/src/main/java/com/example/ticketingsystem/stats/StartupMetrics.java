@@ -0,0 +1,76 @@
+package com.example.ticketingsystem.stats;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+/**
+ * Measures how long the backend takes to become useful after the JVM starts:
+ * the time until the application context is ready and the time until the first HTTP request
+ * has been served. Both are printed once and exposed through the status API so start-up
+ * tuning (the "fast" profile, AOT, CDS) can be compared between runs.
+ * The servlet build learns of the first request from Spring MVC's request-handled event; that
+ * event does not exist in WebFlux, so the reactive build reports it from a web filter instead.
+ */
+@Component
+@Lazy(false)
+public class StartupMetrics {
+
+    private final Environment environment;
+    private volatile long readyMillis = -1;
+    private volatile long firstRequestMillis = -1;
+
+    @Autowired
+    public StartupMetrics(Environment environment) {
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        System.out.println("Ticketing backend ready in " + readyMillis + " ms after JVM start");
+    }
+
+    @EventListener(ServletRequestHandledEvent.class)
+    public void onRequestHandled() {
+        recordRequestServed();
+    }
+
+    /**
+     * Records that a request has been served; only the first call after start-up is kept.
+     */
+    public void recordRequestServed() {
+        if (firstRequestMillis < 0) {
+            synchronized (this) {
+                if (firstRequestMillis < 0) {
+                    firstRequestMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+                    System.out.println("First request served " + firstRequestMillis + " ms after JVM start");
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the start-up timings in milliseconds since JVM start; -1 for milestones not yet reached.
+     *
+     * @return the time to context ready and to the first served request
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("jvmStartTime", ManagementFactory.getRuntimeMXBean().getStartTime());
+        metrics.put("timeToReadyMillis", readyMillis);
+        metrics.put("timeToFirstRequestMillis", firstRequestMillis);
+        String[] profiles = environment.getActiveProfiles();
+        // Profiles can come from properties, the environment or the command line, not only -D
+        metrics.put("activeProfiles", List.of(profiles.length > 0 ? profiles : environment.getDefaultProfiles()));
+        return metrics;
+    }
+}
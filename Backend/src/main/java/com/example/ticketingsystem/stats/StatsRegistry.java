@@ -0,0 +1,52 @@
+package com.example.ticketingsystem.stats;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Global ticket counters and the most recently published statistics snapshot.
+ * Totals are kept in {@link LongAdder}s so that many actors can update them without
+ * contending on a single memory location; per-actor counts live in each actor's own
+ * {@link com.example.ticketing.core.stats.PaddedCounter}.
+ */
+@Component
+public class StatsRegistry {
+
+    private final LongAdder ticketsAdded = new LongAdder();
+    private final LongAdder ticketsSold = new LongAdder();
+    private volatile StatsSnapshot snapshot = StatsSnapshot.EMPTY;
+
+    // Count tickets added to the pool
+    public void recordTicketsAdded(int count) {
+        ticketsAdded.add(count);
+    }
+
+    // Count tickets bought from the pool
+    public void recordTicketsSold(int count) {
+        ticketsSold.add(count);
+    }
+
+    public long getTotalTicketsAdded() {
+        return ticketsAdded.sum();
+    }
+
+    public long getTotalTicketsSold() {
+        return ticketsSold.sum();
+    }
+
+    // Replace the published snapshot; readers see either the old or the new one in full
+    public void publish(StatsSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    // The latest published snapshot, returned without copying
+    public StatsSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // Clear the global totals, e.g. when the system is reset
+    public void reset() {
+        ticketsAdded.reset();
+        ticketsSold.reset();
+    }
+}
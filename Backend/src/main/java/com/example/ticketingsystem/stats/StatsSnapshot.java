@@ -0,0 +1,34 @@
+package com.example.ticketingsystem.stats;
+
+import java.util.List;
+import java.util.Map;
+import com.example.ticketing.core.actor.ActorState;
+
+/**
+ * Immutable view of the system statistics, published periodically by {@link StatsRegistry}.
+ * Readers share the same instance until the next publication, so serving it costs nothing
+ * regardless of how many actors are running.
+ *
+ * @param timestamp the time the snapshot was taken, in epoch milliseconds
+ * @param totalTicketsAdded tickets added to the pool by all vendors
+ * @param totalTicketsSold tickets bought by all customers
+ * @param poolStats the pool's size, capacity, processed count and peak size
+ * @param storeStats the kind of ticket store and the memory it holds outside the heap
+ * @param vendorStats tickets added per vendor id
+ * @param customerStats tickets bought per customer
+ * @param vendorStates number of vendors in each lifecycle state
+ * @param customerStates number of customers in each lifecycle state
+ */
+public record StatsSnapshot(long timestamp,
+                            long totalTicketsAdded,
+                            long totalTicketsSold,
+                            Map<String, Integer> poolStats,
+                            Map<String, Object> storeStats,
+                            Map<String, Long> vendorStats,
+                            List<Long> customerStats,
+                            Map<ActorState, Integer> vendorStates,
+                            Map<ActorState, Integer> customerStates) {
+
+    /** Snapshot served before the first publication. */
+    public static final StatsSnapshot EMPTY = new StatsSnapshot(0L, 0L, 0L, Map.of(), Map.of(), Map.of(), List.of(), Map.of(), Map.of());
+}
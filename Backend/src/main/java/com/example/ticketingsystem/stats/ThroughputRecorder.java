@@ -0,0 +1,102 @@
+package com.example.ticketingsystem.stats;
+
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.example.ticketingsystem.service.TicketingService;
+
+/**
+ * In-memory time-series store of ticket throughput.
+ * Samples the global counters once per second into a 10 minute ring of one-second slots
+ * and rolls those up into a 24 hour ring of one-minute slots, so dashboards can chart
+ * throughput history without computing deltas from their own polls.
+ * The history is cleared whenever the ticketing system is reset or its pool is replaced.
+ */
+@Component
+@Lazy(false) // Hot path, created at startup even with lazy initialization
+public class ThroughputRecorder {
+
+    /** Resolution of a history query. */
+    public enum Resolution { SECONDS, MINUTES }
+
+    private static final int SECOND_SLOTS = 10 * 60;
+    private static final int MINUTE_SLOTS = 24 * 60;
+
+    private final StatsRegistry statsRegistry;
+    private final TicketingService ticketingService;
+    private final RollingSeries seconds = new RollingSeries(SECOND_SLOTS, 1);
+    private final RollingSeries minutes = new RollingSeries(MINUTE_SLOTS, 60);
+
+    // Sampler state, guarded by this
+    private long lastAdded;
+    private long lastSold;
+    private long minuteStart = -1;
+    private long minuteAdded;
+    private long minuteSold;
+
+    @Autowired
+    public ThroughputRecorder(StatsRegistry statsRegistry, TicketingService ticketingService) {
+        this.statsRegistry = statsRegistry;
+        this.ticketingService = ticketingService;
+        this.lastAdded = statsRegistry.getTotalTicketsAdded();
+        this.lastSold = statsRegistry.getTotalTicketsSold();
+    }
+
+    /**
+     * Records the last second of throughput and closes the current minute when it ends.
+     */
+    @Scheduled(fixedRate = 1000)
+    public synchronized void sample() {
+        long now = System.currentTimeMillis();
+        long second = now - now % 1000;
+        long totalAdded = statsRegistry.getTotalTicketsAdded();
+        long totalSold = statsRegistry.getTotalTicketsSold();
+        // Totals drop back to zero when the system is reset; treat that as a fresh start
+        long added = totalAdded >= lastAdded ? totalAdded - lastAdded : totalAdded;
+        long sold = totalSold >= lastSold ? totalSold - lastSold : totalSold;
+        lastAdded = totalAdded;
+        lastSold = totalSold;
+        int poolSize = ticketingService.getAvailableTickets();
+
+        seconds.append(second - 1000, added, sold, poolSize);
+
+        long minute = now - now % 60_000;
+        if (minuteStart >= 0 && minute != minuteStart) {
+            minutes.append(minuteStart, minuteAdded, minuteSold, poolSize);
+            minuteAdded = 0;
+            minuteSold = 0;
+        }
+        if (minute != minuteStart) {
+            minuteStart = minute;
+        }
+        minuteAdded += added;
+        minuteSold += sold;
+    }
+
+    /**
+     * Returns a downsampled throughput history.
+     *
+     * @param resolution the ring to read from
+     * @param window how many of the most recent slots to cover
+     * @param points the maximum number of points to return
+     * @return parallel arrays of timestamps, add/sell rates per second and average pool size
+     */
+    public Map<String, Object> getHistory(Resolution resolution, int window, int points) {
+        Map<String, Object> history = (resolution == Resolution.MINUTES ? minutes : seconds).downsample(window, points);
+        history.put("resolution", resolution);
+        return history;
+    }
+
+    // Forget all recorded history and count the next sample from the current totals
+    public synchronized void clear() {
+        seconds.clear();
+        minutes.clear();
+        lastAdded = statsRegistry.getTotalTicketsAdded();
+        lastSold = statsRegistry.getTotalTicketsSold();
+        minuteStart = -1;
+        minuteAdded = 0;
+        minuteSold = 0;
+    }
+}
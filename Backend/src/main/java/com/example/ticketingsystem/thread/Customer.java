@@ -2,46 +2,96 @@ package com.example.ticketingsystem.thread;
 
 // Importing the TicketPool class to interact with the shared ticket pool
 import com.example.ticketingsystem.model.TicketPool;
+// Importing the price ladder that customers buy from when dynamic pricing is enabled
+import com.example.ticketingsystem.model.TieredTicketPool;
+// Importing the CustomerLimiter that enforces per-customer quotas and rate limits
+import com.example.ticketingsystem.service.CustomerLimiter;
+// Importing the shared actor base class that tracks the thread and lifecycle state
+import com.example.ticketing.core.actor.Actor;
+// Importing the statistics classes used to count purchases without contention
+import com.example.ticketing.core.stats.PaddedCounter;
+import com.example.ticketingsystem.stats.StatsRegistry;
 
-public class Customer extends Thread {
+public class Customer extends Actor {
     // Represents a customer thread responsible for purchasing tickets from the ticket pool
 
     private final TicketPool ticketPool;
     // Shared resource where tickets are consumed
-    private volatile boolean running = true;
-    // A flag to control the thread's running state; volatile ensures visibility across threads
-    private int ticketsPurchased = 0;
-    // Counter to track the number of tickets purchased by this customer
+    private final TieredTicketPool tieredTicketPool;
+    // Price ladder that tickets are bought from instead of the pool, or null without dynamic pricing
+    private final long customerId;
+    // Numeric identifier used to track this customer's quota and rate limit
+    private final CustomerLimiter customerLimiter;
+    // Checked before every purchase so that one customer cannot drain the pool
+    private final StatsRegistry statsRegistry;
+    // Global statistics that this customer's purchases are also counted in
+    private final PaddedCounter ticketsPurchased = new PaddedCounter();
+    // Counter to track the number of tickets purchased by this customer; written only by this customer
 
-    // Constructor to initialize the ticket pool
-    public Customer(TicketPool ticketPool) {
+    // Constructor to initialize the ticket pool, price ladder, actor ID, customer ID, purchase limiter and statistics
+    public Customer(TicketPool ticketPool, TieredTicketPool tieredTicketPool, String actorId, long customerId,
+                    CustomerLimiter customerLimiter, StatsRegistry statsRegistry) {
+        super(actorId);
         this.ticketPool = ticketPool;
+        this.tieredTicketPool = tieredTicketPool;
+        this.customerId = customerId;
+        this.customerLimiter = customerLimiter;
+        this.statsRegistry = statsRegistry;
     }
 
     // Method to stop the customer thread gracefully
     public void stopCustomer() {
-        running = false; // Sets the running flag to false to exit the loop
-        interrupt(); // Interrupts the thread if it's waiting or sleeping
+        requestStop();
     }
 
     // Getter for the number of tickets purchased
-    public int getTicketsPurchased() {
-        return ticketsPurchased;
+    public long getTicketsPurchased() {
+        return ticketsPurchased.get();
+    }
+
+    // Getter for the customer's numeric ID
+    public long getCustomerId() {
+        return customerId;
     }
 
     @Override
-    public void run() {
+    protected void runActor() {
         // The main logic of the customer thread
-        while (running) {
+        while (isRunning()) {
             // Keeps running until the `running` flag is set to false
             try {
                 Thread.sleep(1000);
                 // Simulates a delay of 1 second for purchasing a ticket
-                String ticket = ticketPool.removeTicket();
-                // Attempts to remove a ticket from the ticket pool
+                CustomerLimiter.Decision decision = customerLimiter.tryAcquire(customerId);
+                if (decision == CustomerLimiter.Decision.QUOTA_EXCEEDED) {
+                    // The customer has bought their maximum number of tickets for this event
+                    System.out.println("Customer " + customerId + " reached the purchase limit");
+                    break;
+                }
+                if (decision == CustomerLimiter.Decision.RATE_LIMITED || decision == CustomerLimiter.Decision.TABLE_FULL) {
+                    continue;
+                    // Too many purchases in a short time, or no room to track this customer; try again after the next delay
+                }
+                String ticket = null;
+                try {
+                    if (tieredTicketPool != null) {
+                        TieredTicketPool.PricedTicket priced = tieredTicketPool.purchase();
+                        ticket = priced != null ? priced.ticket() : null;
+                        // Buys the cheapest ticket on the ladder, or none if it is empty
+                    } else {
+                        ticket = ticketPool.removeTicket();
+                        // Attempts to remove a ticket from the ticket pool
+                    }
+                } finally {
+                    if (ticket == null) {
+                        customerLimiter.refund(customerId);
+                        // Returns the charged purchase if no ticket was obtained
+                    }
+                }
                 if (ticket != null) {
-                    // If a ticket is successfully removed (not null), increment the counter
-                    ticketsPurchased++;
+                    // If a ticket is successfully removed (not null), increment the counters
+                    ticketsPurchased.increment();
+                    statsRegistry.recordTicketsSold(1);
                 }
             } catch (InterruptedException e) {
                 // Handles interruption (e.g., during thread stopping)
@@ -53,6 +103,6 @@ public class Customer extends Thread {
             }
         }
         // Logs the total tickets purchased after the thread stops
-        System.out.println("Customer thread stopped. Total tickets purchased: " + ticketsPurchased);
+        System.out.println("Customer thread stopped. Total tickets purchased: " + ticketsPurchased.get());
     }
 }
@@ -2,55 +2,87 @@ package com.example.ticketingsystem.thread;
 
 // Importing the TicketPool class to interact with the shared ticket pool
 import com.example.ticketingsystem.model.TicketPool;
+// Importing the price ladder that vendors publish into when dynamic pricing is enabled
+import com.example.ticketingsystem.model.TieredTicketPool;
+// Importing the ReleaseRateController that paces vendors according to pool fill level
+import com.example.ticketingsystem.service.ReleaseRateController;
+// Importing the cluster node that holds this node's share of the event's inventory
+import com.example.ticketingsystem.cluster.ClusterNode;
+// Importing the shared actor base class that tracks the thread and lifecycle state
+import com.example.ticketing.core.actor.Actor;
+// Importing the statistics classes used to count added tickets without contention
+import com.example.ticketing.core.stats.PaddedCounter;
+import com.example.ticketingsystem.stats.StatsRegistry;
 
-public class Vendor extends Thread {
+public class Vendor extends Actor {
     // Represents a vendor thread responsible for adding tickets to the ticket pool
 
     private final TicketPool ticketPool;
     // Shared resource where tickets are added
-    private final String vendorId;
-    // Unique identifier for the vendor
-    private volatile boolean running = true;
-    // A flag to control the thread's running state; volatile ensures visibility across threads
-    private int ticketsAdded = 0;
-    // Counter to track the number of tickets added by this vendor
+    private final TieredTicketPool tieredTicketPool;
+    // Price ladder that tickets are published into instead of the pool, or null without dynamic pricing
+    private final ReleaseRateController releaseRateController;
+    // Decides how long to wait between releases so the pool stays near its target fill
+    private final StatsRegistry statsRegistry;
+    // Global statistics that this vendor's additions are also counted in
+    private final ClusterNode clusterNode;
+    // Limits releases to this node's share of the total tickets when running as a cluster
+    private final PaddedCounter ticketsAdded = new PaddedCounter();
+    // Counter to track the number of tickets added by this vendor; written only by this vendor
 
-    // Constructor to initialize the ticket pool and vendor ID
-    public Vendor(TicketPool ticketPool, String vendorId) {
+    // Constructor to initialize the ticket pool, price ladder, vendor ID, release rate controller, statistics and cluster node
+    public Vendor(TicketPool ticketPool, TieredTicketPool tieredTicketPool, String vendorId,
+                  ReleaseRateController releaseRateController, StatsRegistry statsRegistry, ClusterNode clusterNode) {
+        super(vendorId);
         this.ticketPool = ticketPool;
-        this.vendorId = vendorId;
+        this.tieredTicketPool = tieredTicketPool;
+        this.releaseRateController = releaseRateController;
+        this.statsRegistry = statsRegistry;
+        this.clusterNode = clusterNode;
     }
 
     // Method to stop the vendor thread gracefully
     public void stopVendor() {
-        running = false; // Sets the running flag to false to exit the loop
-        interrupt(); // Interrupts the thread if it's waiting or sleeping
+        requestStop();
     }
 
     // Getter for the number of tickets added
-    public int getTicketsAdded() {
-        return ticketsAdded;
+    public long getTicketsAdded() {
+        return ticketsAdded.get();
     }
 
     // Getter for the vendor's unique ID
     public String getVendorId() {
-        return vendorId;
+        return getActorId();
     }
 
     @Override
-    public void run() {
+    protected void runActor() {
         // The main logic of the vendor thread
-        while (running) {
+        String vendorId = getActorId();
+        while (isRunning()) {
             // Keeps running until the `running` flag is set to false
             try {
-                Thread.sleep(2000);
-                // Simulates a delay of 2 seconds for adding a ticket
+                Thread.sleep(releaseRateController.getReleaseIntervalMillis());
+                // Waits for the release interval chosen by the adaptive release controller
+                if (!clusterNode.tryReserveRelease()) {
+                    continue;
+                    // This node's share of the tickets is used up; wait for a rebalance from a peer
+                }
                 String ticket = vendorId + "-T" + System.currentTimeMillis();
                 // Generates a unique ticket using the vendor ID and the current timestamp
-                if (ticketPool.addTickets(ticket)) {
-                    // Attempts to add the ticket to the ticket pool
-                    ticketsAdded++;
-                    // Increments the counter if the ticket is successfully added
+                boolean added = tieredTicketPool != null
+                        ? tieredTicketPool.publish(ticket) >= 0
+                        : ticketPool.tryAddTicket(ticket);
+                // Attempts to add the ticket to the price ladder or the ticket pool without waiting for space
+                if (added) {
+                    ticketsAdded.increment();
+                    statsRegistry.recordTicketsAdded(1);
+                    // Increments the counters if the ticket is successfully added
+                } else {
+                    clusterNode.cancelRelease();
+                    releaseRateController.onPoolFull();
+                    // The pool (or the ladder's current tier) is full; slow down instead of parking until space frees up
                 }
             } catch (InterruptedException e) {
                 // Handles interruption (e.g., during thread stopping)
@@ -62,6 +94,6 @@ public class Vendor extends Thread {
             }
         }
         // Logs the total tickets added after the thread stops
-        System.out.println("Vendor " + vendorId + " stopped. Total tickets added: " + ticketsAdded);
+        System.out.println("Vendor " + vendorId + " stopped. Total tickets added: " + ticketsAdded.get());
     }
 }
@@ -0,0 +1,56 @@
+package com.example.ticketingsystem.websocket;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Encodes ticketing status into a fixed-layout binary WebSocket frame.
+ * All fields are big-endian and always at the same offset, so a client can decode a frame
+ * with a {@code DataView} and no parsing. The buffer is allocated once and reused for every
+ * frame, so encoding allocates nothing.
+ *
+ * <pre>
+ * offset size field
+ *      0    1 version (currently 1)
+ *      1    1 flags (bit 0: system running)
+ *      2    2 reserved
+ *      4    4 tickets available in pool
+ *      8    4 pool capacity
+ *     12    4 total tickets configured
+ *     16    4 active vendors
+ *     20    4 active customers
+ *     24    8 timestamp (epoch milliseconds)
+ *     32    8 tickets added by all vendors
+ *     40    8 tickets sold to all customers
+ * </pre>
+ */
+class StatusFrameEncoder {
+
+    static final byte VERSION = 1;
+    static final int FRAME_SIZE = 48;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(FRAME_SIZE).order(ByteOrder.BIG_ENDIAN);
+
+    /**
+     * Writes a frame into the shared buffer. The returned buffer is only valid until the next call.
+     *
+     * @return a read-only view of the encoded frame
+     */
+    ByteBuffer encode(boolean running, int available, int capacity, int totalTickets, int vendors, int customers,
+                      long timestamp, long ticketsAdded, long ticketsSold) {
+        buffer.clear();
+        buffer.put(VERSION)
+              .put((byte) (running ? 1 : 0))
+              .putShort((short) 0)
+              .putInt(available)
+              .putInt(capacity)
+              .putInt(totalTickets)
+              .putInt(vendors)
+              .putInt(customers)
+              .putLong(timestamp)
+              .putLong(ticketsAdded)
+              .putLong(ticketsSold);
+        buffer.flip();
+        return buffer.asReadOnlyBuffer();
+    }
+}
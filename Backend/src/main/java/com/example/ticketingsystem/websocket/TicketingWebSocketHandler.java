@@ -1,54 +1,84 @@
 package com.example.ticketingsystem.websocket;
 
 // Importing necessary Spring WebSocket and scheduling classes
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 import org.springframework.scheduling.annotation.Scheduled;
-import com.example.ticketingsystem.service.TicketingService;
+import org.springframework.web.util.UriComponentsBuilder;
+import com.example.ticketingsystem.service.StatusSnapshotCache;
+import java.util.Map;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import org.springframework.stereotype.Component;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 
 // Marks the class as a Spring-managed component (bean)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Component
 public class TicketingWebSocketHandler extends TextWebSocketHandler {
     // Extends TextWebSocketHandler to handle text-based WebSocket messages
 
-    private final TicketingService ticketingService;
-    // Injects the TicketingService to retrieve ticket-related data
+    private final StatusSnapshotCache statusSnapshotCache;
+    // Shared status snapshot, refreshed in the background so pushes never query the pool
 
     private final List<WebSocketSession> sessions = new CopyOnWriteArrayList<>();
     // Maintains a thread-safe list of active WebSocket sessions
 
-    // Constructor for dependency injection of the TicketingService
-    public TicketingWebSocketHandler(TicketingService ticketingService) {
-        this.ticketingService = ticketingService;
+    private final List<WebSocketSession> binarySessions = new CopyOnWriteArrayList<>();
+    // Sessions that asked for the compact binary frame with ?format=binary
+
+    private final StatusFrameEncoder frameEncoder = new StatusFrameEncoder();
+    // Reused for every binary frame, only touched by the scheduled sender
+
+    // Constructor for dependency injection of the status snapshot cache
+    public TicketingWebSocketHandler(StatusSnapshotCache statusSnapshotCache) {
+        this.statusSnapshotCache = statusSnapshotCache;
     }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         // Adds the new session to the active sessions list when a WebSocket connection is established
-        sessions.add(session);
+        String format = session.getUri() == null ? null
+                : UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().getFirst("format");
+        if ("binary".equalsIgnoreCase(format)) {
+            binarySessions.add(session);
+        } else {
+            sessions.add(session);
+        }
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         // Removes the session from the list when the WebSocket connection is closed
         sessions.remove(session);
+        binarySessions.remove(session);
     }
 
     @Scheduled(fixedRate = 1000)
     // Scheduled task that runs every 1 second to send updates to all connected clients
     public void sendUpdates() {
+        StatusSnapshotCache.Entry entry = statusSnapshotCache.get();
+        if (!binarySessions.isEmpty()) {
+            sendBinaryUpdates(entry);
+        }
+        if (sessions.isEmpty()) {
+            return; // Nothing to format when no text clients are connected
+        }
+
         // Generates a status update message with ticketing information
+        Map<String, Object> status = entry.status();
+        int available = (Integer) status.get("availableTickets");
+        int configuredTotal = (Integer) status.get("configuredTotalTickets");
         String statusUpdate = String.format(
                 "Current Status:\nTickets Available in Pool: %d\nTickets Processed: %d/%d\nRemaining Tickets: %d",
-                ticketingService.getTicketCount(), // Number of tickets currently available
-                ticketingService.getConfiguration().getTotalTickets() - ticketingService.getTicketCount(), // Tickets processed
-                ticketingService.getConfiguration().getTotalTickets(), // Total tickets configured
-                ticketingService.getTicketCount() // Remaining tickets
+                available, // Number of tickets currently available
+                configuredTotal - available, // Tickets processed
+                configuredTotal, // Total tickets configured
+                available // Remaining tickets
         );
 
         // Sends the status update to all active WebSocket sessions
@@ -61,4 +91,28 @@ public class TicketingWebSocketHandler extends TextWebSocketHandler {
             }
         }
     }
+
+    // Encodes one binary frame and sends it to every binary session
+    private void sendBinaryUpdates(StatusSnapshotCache.Entry entry) {
+        Map<String, Object> status = entry.status();
+        ByteBuffer frame = frameEncoder.encode(
+                (Boolean) status.get("isRunning"),
+                (Integer) status.get("availableTickets"),
+                (Integer) status.get("maxTicketCapacity"),
+                (Integer) status.get("configuredTotalTickets"),
+                (Integer) status.get("activeVendors"),
+                (Integer) status.get("activeCustomers"),
+                entry.timestamp(),
+                entry.stats().totalTicketsAdded(),
+                entry.stats().totalTicketsSold());
+
+        for (WebSocketSession session : binarySessions) {
+            try {
+                session.sendMessage(new BinaryMessage(frame.duplicate()));
+                // Each send gets its own view since sending consumes the buffer position
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
 }
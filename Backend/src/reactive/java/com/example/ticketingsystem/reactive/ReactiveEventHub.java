@@ -0,0 +1,121 @@
+package com.example.ticketingsystem.reactive;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.example.ticketingsystem.service.StatusSnapshotCache;
+import com.example.ticketingsystem.service.TicketingService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Reactive source of the ticket event stream.
+ * One scheduled producer serializes each status snapshot and log entry once and emits it into a
+ * replaying {@link Sinks.Many}; every subscriber reads from that sink through its own bounded
+ * drop-oldest buffer, so connected dashboards cost a subscription each rather than a thread.
+ * Log entries beyond one history's worth per tick are dropped and counted in the
+ * {@code droppedLogs} field of the next status event.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEventHub {
+
+    private final StatusSnapshotCache statusSnapshotCache;
+    private final ObjectMapper objectMapper;
+    private final Sinks.Many<ServerSentEvent<String>> events;
+    private final ConcurrentLinkedQueue<Map<String, Object>> pendingLogs = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingLogCount = new AtomicInteger();
+    private final AtomicInteger droppedLogs = new AtomicInteger();
+    private final int historySize;
+    private final int bufferSize;
+    private volatile long lastEventId = 0;
+
+    @Autowired
+    public ReactiveEventHub(TicketingService ticketingService, StatusSnapshotCache statusSnapshotCache,
+                            ObjectMapper objectMapper,
+                            @Value("${ticket.reactive.history-size:256}") int historySize,
+                            @Value("${ticket.reactive.buffer-size:64}") int bufferSize) {
+        this.statusSnapshotCache = statusSnapshotCache;
+        this.objectMapper = objectMapper;
+        this.historySize = Math.max(1, historySize);
+        this.bufferSize = Math.max(1, bufferSize);
+        this.events = Sinks.many().replay().limit(this.historySize);
+        ticketingService.addLogListener(this::onLog);
+    }
+
+    /**
+     * Returns the event stream for one subscriber.
+     *
+     * @param resumeAfter the last event id the client saw, or null to receive only new events
+     * @return status and log events, newest events kept if the subscriber falls behind
+     */
+    public Flux<ServerSentEvent<String>> stream(Long resumeAfter) {
+        return Flux.defer(() -> {
+            long after = resumeAfter != null ? resumeAfter : lastEventId;
+            return events.asFlux().filter(event -> Long.parseLong(event.id()) > after);
+        }).onBackpressureBuffer(bufferSize, dropped -> { }, BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    /**
+     * Emits the log entries written since the last tick followed by the current status.
+     * Runs on a single scheduler thread, so emissions into the sink are never concurrent.
+     */
+    @Scheduled(fixedRateString = "${ticket.stream.tick-ms:1000}")
+    public void produce() {
+        Map<String, Object> log;
+        while ((log = pendingLogs.poll()) != null) {
+            pendingLogCount.decrementAndGet();
+            try {
+                emit("log", objectMapper.writeValueAsString(log));
+            } catch (JsonProcessingException e) {
+                // Log entries are plain maps of strings and numbers, so this does not happen in practice
+            }
+        }
+        emit("status", statusJson(droppedLogs.getAndSet(0)));
+    }
+
+    // The status is already serialized by the snapshot cache; only a report of dropped logs re-serializes it
+    private String statusJson(int dropped) {
+        StatusSnapshotCache.Entry entry = statusSnapshotCache.get();
+        if (dropped > 0) {
+            Map<String, Object> status = new HashMap<>(entry.status());
+            status.put("droppedLogs", dropped);
+            try {
+                return objectMapper.writeValueAsString(status);
+            } catch (JsonProcessingException e) {
+                // Same plain map the cache serialized, plus a number
+            }
+        }
+        return new String(entry.statusJson(), StandardCharsets.UTF_8);
+    }
+
+    private void emit(String name, String data) {
+        long id = lastEventId + 1;
+        events.tryEmitNext(ServerSentEvent.builder(data).id(Long.toString(id)).event(name).build());
+        lastEventId = id;
+    }
+
+    // Called on the logging thread; only queues the entry so actors never pay for serialization
+    private void onLog(Map<String, Object> log) {
+        if (events.currentSubscriberCount() == 0) {
+            return;
+        }
+        if (pendingLogCount.get() >= historySize) {
+            droppedLogs.incrementAndGet();
+            return;
+        }
+        pendingLogCount.incrementAndGet();
+        pendingLogs.offer(log);
+    }
+}
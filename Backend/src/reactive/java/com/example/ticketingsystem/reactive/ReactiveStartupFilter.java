@@ -0,0 +1,37 @@
+package com.example.ticketingsystem.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import com.example.ticketingsystem.stats.StartupMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reports the first served request to {@link StartupMetrics} in the reactive build, where Spring
+ * MVC's request-handled event is never published. After the first request the filter costs one
+ * volatile read per exchange.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveStartupFilter implements WebFilter {
+
+    private final StartupMetrics startupMetrics;
+    private volatile boolean recorded;
+
+    public ReactiveStartupFilter(StartupMetrics startupMetrics) {
+        this.startupMetrics = startupMetrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (recorded) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange).doFinally(signal -> {
+            recorded = true;
+            startupMetrics.recordRequestServed();
+        });
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.ticketingsystem.reactive;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import com.example.ticketingsystem.service.CustomerLimiter;
+import com.example.ticketingsystem.service.PurchaseCoalescer;
+import com.example.ticketingsystem.service.StatusSnapshotCache;
+import com.example.ticketingsystem.service.TicketingService;
+import com.example.ticketingsystem.service.WaitingRoom;
+import com.example.ticketingsystem.stats.StartupMetrics;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * WebFlux counterpart of {@code TicketingController} for the reactive build.
+ * Status and statistics are served from the shared snapshot cache, the event stream from
+ * {@link ReactiveEventHub}, and purchases complete as {@link Mono}s when the coalesced pool
+ * operation finishes, so no event-loop thread ever blocks. Operations that stop actor threads
+ * run on the bounded elastic scheduler.
+ */
+@RestController
+@RequestMapping("/api/tickets")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTicketingController {
+
+    private final TicketingService ticketingService;
+    private final PurchaseCoalescer purchaseCoalescer;
+    private final WaitingRoom waitingRoom;
+    private final CustomerLimiter customerLimiter;
+    private final StatusSnapshotCache statusSnapshotCache;
+    private final ReactiveEventHub eventHub;
+    private final StartupMetrics startupMetrics;
+
+    @Autowired
+    public ReactiveTicketingController(TicketingService ticketingService, PurchaseCoalescer purchaseCoalescer,
+                                       WaitingRoom waitingRoom, CustomerLimiter customerLimiter,
+                                       StatusSnapshotCache statusSnapshotCache, ReactiveEventHub eventHub,
+                                       StartupMetrics startupMetrics) {
+        this.ticketingService = ticketingService;
+        this.purchaseCoalescer = purchaseCoalescer;
+        this.waitingRoom = waitingRoom;
+        this.customerLimiter = customerLimiter;
+        this.statusSnapshotCache = statusSnapshotCache;
+        this.eventHub = eventHub;
+        this.startupMetrics = startupMetrics;
+    }
+
+    /**
+     * Updates the system configuration.
+     *
+     * @param config a map containing configuration parameters
+     * @return a success message
+     */
+    @PostMapping("/config")
+    public Mono<ResponseEntity<String>> updateConfiguration(@RequestBody Map<String, Integer> config) {
+        return Mono.fromRunnable(() -> {
+            ticketingService.updateConfiguration(
+                    config.get("totalTickets"),
+                    config.get("ticketReleaseRate"),
+                    config.get("customerRetrievalRate"),
+                    config.get("maxTicketCapacity"));
+            statusSnapshotCache.refresh();
+        }).subscribeOn(Schedulers.boundedElastic())
+          .thenReturn(ResponseEntity.ok("Configuration updated successfully"));
+    }
+
+    /**
+     * Starts the ticketing system.
+     *
+     * @return a success message or error details in case of failure
+     */
+    @PostMapping("/system/start")
+    public Mono<ResponseEntity<String>> startSystem() {
+        return control(ticketingService::startSystem, "System started successfully");
+    }
+
+    /**
+     * Stops the ticketing system.
+     *
+     * @return a success message or error details in case of failure
+     */
+    @PostMapping("/system/stop")
+    public Mono<ResponseEntity<String>> stopSystem() {
+        return control(ticketingService::stopSystem, "System stopped successfully");
+    }
+
+    /**
+     * Resets the ticketing system.
+     *
+     * @return a success message or error details in case of failure
+     */
+    @PostMapping("/system/reset")
+    public Mono<ResponseEntity<String>> resetSystem() {
+        return control(ticketingService::resetSystem, "System reset successfully");
+    }
+
+    // Runs a blocking lifecycle operation off the event loop
+    private Mono<ResponseEntity<String>> control(Runnable operation, String success) {
+        return Mono.fromRunnable(() -> {
+            operation.run();
+            statusSnapshotCache.refresh();
+        }).subscribeOn(Schedulers.boundedElastic())
+          .thenReturn(ResponseEntity.ok(success))
+          .onErrorResume(IllegalStateException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())))
+          .onErrorResume(e -> Mono.just(ResponseEntity.internalServerError().body(e.getMessage())));
+    }
+
+    /**
+     * Retrieves the current system status as pre-serialized JSON.
+     *
+     * @return the running flag, ticket counts and active actor counts
+     */
+    @GetMapping("/system/status")
+    public Mono<ResponseEntity<byte[]>> getSystemStatus() {
+        return Mono.fromSupplier(() -> ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(statusSnapshotCache.get().statusJson()));
+    }
+
+    /**
+     * Retrieves detailed pool and actor statistics as pre-serialized JSON.
+     *
+     * @return the latest statistics snapshot
+     */
+    @GetMapping("/system/stats")
+    public Mono<ResponseEntity<byte[]>> getSystemStatistics() {
+        return Mono.fromSupplier(() -> ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(statusSnapshotCache.get().statsJson()));
+    }
+
+    /**
+     * Retrieves how long this instance took to become ready and to serve its first request.
+     *
+     * @return the start-up timings in milliseconds since JVM start
+     */
+    @GetMapping("/system/startup")
+    public Mono<ResponseEntity<Map<String, Object>>> getStartupMetrics() {
+        return Mono.fromSupplier(() -> ResponseEntity.ok(startupMetrics.getMetrics()));
+    }
+
+    /**
+     * Retrieves the final report of the current sale, produced the moment its last ticket sold.
+     *
+     * @return the report, or 404 if the sale has not completed yet
+     */
+    @GetMapping("/system/report")
+    public Mono<ResponseEntity<?>> getFinalReport() {
+        return Mono.fromSupplier(() -> {
+            Map<String, Object> report = ticketingService.getFinalReport();
+            return report == null
+                    ? ResponseEntity.status(HttpStatus.NOT_FOUND).body("The sale has not completed yet")
+                    : ResponseEntity.ok(report);
+        });
+    }
+
+    /**
+     * Starts recording every pool operation into a binary trace for deterministic replay.
+     *
+     * @return a success message, or 400 if a trace is already being recorded
+     */
+    @PostMapping("/system/trace/start")
+    public Mono<ResponseEntity<String>> startTrace() {
+        return Mono.fromSupplier(() -> {
+            try {
+                ticketingService.startTrace();
+                return ResponseEntity.ok("Trace recording started");
+            } catch (IllegalStateException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Stops recording and writes the trace file.
+     *
+     * @return the trace file and its size, or error details in case of failure
+     */
+    @PostMapping("/system/trace/stop")
+    public Mono<ResponseEntity<?>> stopTrace() {
+        return Mono.<ResponseEntity<?>>fromCallable(() -> ResponseEntity.ok(ticketingService.stopTrace()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(IllegalStateException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())))
+                .onErrorResume(e -> Mono.just(ResponseEntity.internalServerError().body("Failed to write trace: " + e.getMessage())));
+    }
+
+    /**
+     * Retrieves the system logs, newest first.
+     *
+     * @return the retained log entries
+     */
+    @GetMapping("/system/logs")
+    public Flux<Map<String, Object>> getSystemLogs() {
+        return Flux.defer(() -> Flux.fromIterable(ticketingService.getLogs()));
+    }
+
+    /**
+     * Streams status snapshots and log entries as Server-Sent Events.
+     *
+     * @param lastEventId the id of the last event received, sent by browsers when reconnecting
+     * @return the event stream
+     */
+    @GetMapping(value = "/system/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return eventHub.stream(lastEventId);
+    }
+
+    /**
+     * Buys a single ticket, applying the same waiting room and customer limits as the servlet API.
+     *
+     * @param customerId the buying customer, required when purchase limits are enabled
+     * @param queuePosition the admitted waiting room position, required when the waiting room is enabled
+     * @return the purchased ticket, 429 if not admitted or limited, or 503 if no ticket became available
+     *         or too many purchases are already pending
+     */
+    @PostMapping("/purchase")
+    public Mono<ResponseEntity<?>> purchaseTicket(@RequestParam(required = false) Long customerId,
+                                                  @RequestParam(required = false) Long queuePosition) {
+        if (customerLimiter.isEnabled() && (customerId == null || customerId < 0)) {
+            return Mono.just(ResponseEntity.badRequest().body("A valid customerId is required"));
+        }
+        // Limits are checked before the admission is redeemed, so a limited buyer keeps their place
+        if (customerLimiter.isEnabled()) {
+            CustomerLimiter.Decision decision = customerLimiter.tryAcquire(customerId);
+            if (decision != CustomerLimiter.Decision.ALLOWED) {
+                return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .body(Map.of("limit", decision, "purchases", customerLimiter.getPurchases(customerId))));
+            }
+        }
+        if (waitingRoom.isEnabled()) {
+            WaitingRoom.Admission admission = queuePosition == null
+                    ? WaitingRoom.Admission.NOT_YET_ADMITTED
+                    : waitingRoom.redeem(queuePosition);
+            if (admission != WaitingRoom.Admission.ADMITTED) {
+                if (customerId != null) {
+                    customerLimiter.refund(customerId);
+                }
+                Map<String, Object> body = new HashMap<>();
+                body.put("admission", admission);
+                if (queuePosition != null) {
+                    body.putAll(waitingRoom.getStatus(queuePosition));
+                }
+                return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(body));
+            }
+        }
+        return Mono.fromFuture(purchaseCoalescer::purchase)
+                .doOnError(e -> {
+                    if (customerId != null) {
+                        customerLimiter.refund(customerId);
+                    }
+                })
+                .<ResponseEntity<?>>map(ticket -> ResponseEntity.ok(Map.of("ticket", ticket)))
+                .onErrorResume(TimeoutException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("No tickets available, please retry")))
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Too many pending purchases, please retry")))
+                .onErrorResume(e -> Mono.just(
+                        ResponseEntity.internalServerError().body("Failed to purchase ticket: " + e.getMessage())));
+    }
+
+    /**
+     * Releases new tickets into the pool on behalf of a vendor.
+     *
+     * @param request a map with the optional "vendorId" and the "count" of tickets to release
+     * @return the number of tickets the pool accepted
+     */
+    @PostMapping("/release")
+    public Mono<ResponseEntity<?>> releaseTickets(@RequestBody Map<String, Object> request) {
+        return Mono.defer(() -> {
+            String vendorId = String.valueOf(request.getOrDefault("vendorId", "HTTP"));
+            int count = ((Number) request.getOrDefault("count", 1)).intValue();
+            int added = purchaseCoalescer.release(vendorId, count); // Never waits for room
+            return Mono.<ResponseEntity<?>>just(ResponseEntity.ok(Map.of("vendorId", vendorId, "ticketsAdded", added)));
+        }).onErrorResume(e -> e instanceof IllegalArgumentException || e instanceof ClassCastException,
+                e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.ticketingsystem.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.example.ticketing.core.SaleLatch;
+import org.junit.jupiter.api.Test;
+
+class TieredTicketPoolTest {
+
+    @Test
+    void nextTierOpensOnlyOnceTheCurrentOneHasSoldThrough() {
+        TieredTicketPool pool = new TieredTicketPool(new int[] {100, 200}, new int[] {2, 5}, 10);
+
+        assertEquals(0, pool.publish("a"));
+        assertEquals(0, pool.publish("b"));
+        assertEquals(-1, pool.publish("c")); // Tier 0 released, not yet sold through
+
+        assertEquals(new TieredTicketPool.PricedTicket("a", 0, 100), pool.purchase());
+        assertEquals(-1, pool.publish("c"));
+        assertEquals(100, pool.purchase().price());
+
+        assertEquals(1, pool.getReleaseTier());
+        assertEquals(1, pool.publish("c"));
+        assertEquals(200, pool.getCurrentPrice());
+    }
+
+    @Test
+    void lastTierIsNeverExhausted() {
+        TieredTicketPool pool = new TieredTicketPool(new int[] {100}, new int[] {1}, 10);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, pool.publish("t" + i));
+        }
+        assertEquals(-1, pool.publish("full")); // Only the capacity stops it
+        assertEquals(10, pool.getTicketCount());
+    }
+
+    @Test
+    void tiersWithoutQuotaAreSkipped() {
+        TieredTicketPool pool = new TieredTicketPool(new int[] {100, 200, 300}, new int[] {0, 0, 1}, 10);
+
+        assertEquals(2, pool.publish("a"));
+        assertEquals(300, pool.purchase().price());
+        assertNull(pool.purchase());
+        assertEquals(-1, pool.getCurrentPrice());
+    }
+
+    @Test
+    void salesAreCountedOnTheLatch() {
+        TieredTicketPool pool = new TieredTicketPool(new int[] {100}, new int[] {5}, 10);
+        SaleLatch latch = new SaleLatch(2);
+        pool.setSaleLatch(latch);
+        pool.publish("a");
+        pool.publish("b");
+
+        pool.purchase();
+        pool.purchase();
+
+        assertTrue(latch.isComplete());
+        assertEquals(2, pool.getTiers().get(0).get("sold"));
+    }
+
+    @Test
+    void withCapacityStartsAnEmptyLadderWithTheSameTiers() {
+        TieredTicketPool pool = new TieredTicketPool(new int[] {100, 200}, new int[] {1, 1}, 10);
+        pool.publish("a");
+        pool.purchase();
+
+        TieredTicketPool resized = pool.withCapacity(3);
+
+        assertEquals(3, resized.getMaxCapacity());
+        assertEquals(0, resized.getReleaseTier());
+        assertEquals(0, resized.publish("b"));
+    }
+
+    @Test
+    void rejectsInconsistentTiers() {
+        assertThrows(IllegalArgumentException.class, () -> new TieredTicketPool(new int[] {100, 200}, new int[] {1}, 10));
+        assertThrows(IllegalArgumentException.class, () -> new TieredTicketPool(new int[] {200, 100}, new int[] {1, 1}, 10));
+        assertThrows(IllegalArgumentException.class, () -> new TieredTicketPool(new int[] {100}, new int[] {-1}, 10));
+    }
+
+    @Test
+    void concurrentVendorsAndBuyersNeverLoseOrDuplicateTickets() throws InterruptedException {
+        int tickets = 20_000;
+        TieredTicketPool pool = new TieredTicketPool(new int[] {100, 200, 300}, new int[] {500, 1_000, 1}, 64);
+        AtomicInteger published = new AtomicInteger();
+        Set<String> bought = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < 4; t++) {
+            threads[t] = Thread.ofPlatform().start(() -> {
+                int ticket;
+                while ((ticket = published.getAndIncrement()) < tickets) {
+                    while (pool.publish("T" + ticket) < 0) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+        for (int t = 4; t < 8; t++) {
+            threads[t] = Thread.ofPlatform().start(() -> {
+                while (bought.size() < tickets) {
+                    TieredTicketPool.PricedTicket ticket = pool.purchase();
+                    if (ticket == null) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    if (!bought.add(ticket.ticket())) {
+                        duplicates.incrementAndGet();
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.join(30_000);
+        }
+
+        assertEquals(tickets, bought.size());
+        assertEquals(0, duplicates.get());
+        assertEquals(0, pool.getTicketCount());
+        assertEquals(2, pool.getReleaseTier());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.ticketingsystem.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class CustomerLimitTableTest {
+
+    private static final long TTL = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void enforcesTheQuotaAndRefundsReturnPurchases() {
+        CustomerLimitTable table = new CustomerLimitTable(64, 2, TTL);
+
+        assertEquals(CustomerLimitTable.ALLOWED, table.tryAcquire(7, 0, 2, 0, 1));
+        assertEquals(CustomerLimitTable.ALLOWED, table.tryAcquire(7, 0, 2, 0, 1));
+        assertEquals(CustomerLimitTable.QUOTA_EXCEEDED, table.tryAcquire(7, 0, 2, 0, 1));
+        assertEquals(2, table.getPurchases(7));
+
+        table.refund(7);
+
+        assertEquals(1, table.getPurchases(7));
+        assertEquals(CustomerLimitTable.ALLOWED, table.tryAcquire(7, 0, 2, 0, 1));
+        assertEquals(CustomerLimitTable.ALLOWED, table.tryAcquire(8, 0, 2, 0, 1)); // Others are unaffected
+    }
+
+    @Test
+    void tokenBucketRefillsWithTime() {
+        CustomerLimitTable table = new CustomerLimitTable(64, 2, TTL);
+        double onePerMilli = 1.0 / TimeUnit.MILLISECONDS.toNanos(1);
+
+        assertEquals(CustomerLimitTable.ALLOWED, table.tryAcquire(1, 0, 0, onePerMilli, 2));
+        assertEquals(CustomerLimitTable.ALLOWED, table.tryAcquire(1, 0, 0, onePerMilli, 2));
+        assertEquals(CustomerLimitTable.RATE_LIMITED, table.tryAcquire(1, 0, 0, onePerMilli, 2));
+
+        assertEquals(CustomerLimitTable.ALLOWED, table.tryAcquire(1, TimeUnit.MILLISECONDS.toNanos(1), 0, onePerMilli, 2));
+    }
+
+    @Test
+    void purchasesOutliveTheIdleTtl() {
+        CustomerLimitTable table = new CustomerLimitTable(64, 2, TTL);
+        table.tryAcquire(42, 0, 1, 0, 1);
+
+        long muchLater = 100 * TTL;
+        for (long other = 1000; other < 1100; other++) {
+            table.tryAcquire(other, muchLater, 1, 0, 1); // Pressure on every slot
+        }
+
+        assertEquals(1, table.getPurchases(42));
+        assertEquals(CustomerLimitTable.QUOTA_EXCEEDED, table.tryAcquire(42, muchLater, 1, 0, 1));
+    }
+
+    @Test
+    void refusesNewCustomersRatherThanEvictingAQuota() {
+        CustomerLimitTable table = new CustomerLimitTable(16, 1, TTL); // Two stripes of eight slots
+        int admitted = 0;
+        int refused = 0;
+        for (long customer = 0; customer < 100; customer++) {
+            int result = table.tryAcquire(customer, 0, 1, 0, 1);
+            if (result == CustomerLimitTable.ALLOWED) {
+                admitted++;
+            } else {
+                assertEquals(CustomerLimitTable.TABLE_FULL, result);
+                refused++;
+            }
+        }
+
+        assertEquals(16, admitted);
+        assertEquals(84, refused);
+    }
+
+    @Test
+    void customersWithoutPurchasesAreEvictedOnceIdle() {
+        CustomerLimitTable table = new CustomerLimitTable(16, 1, TTL);
+        double slow = 1e-12;
+        // Rate-limited customers hold no purchases, only token bucket state
+        for (long customer = 0; customer < 100; customer++) {
+            table.tryAcquire(customer, 0, 1, slow, 0);
+        }
+
+        int admitted = 0;
+        for (long customer = 100; customer < 200; customer++) {
+            if (table.tryAcquire(customer, 2 * TTL, 1, 0, 1) == CustomerLimitTable.ALLOWED) {
+                admitted++;
+            }
+        }
+
+        assertEquals(16, admitted);
+    }
+
+    @Test
+    void clearStartsANewSale() {
+        CustomerLimitTable table = new CustomerLimitTable(16, 1, TTL);
+        for (long customer = 0; customer < 100; customer++) {
+            table.tryAcquire(customer, 0, 1, 0, 1);
+        }
+
+        table.clear();
+
+        assertEquals(0, table.getPurchases(0));
+        assertTrue(table.tryAcquire(500, 0, 1, 0, 1) == CustomerLimitTable.ALLOWED);
+    }
+}
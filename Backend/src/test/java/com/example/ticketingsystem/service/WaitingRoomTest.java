@@ -0,0 +1,94 @@
+package com.example.ticketingsystem.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.ticketingsystem.service.WaitingRoom.Admission;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WaitingRoomTest {
+
+    private TicketingService ticketingService;
+
+    @BeforeEach
+    void setUp() {
+        ticketingService = mock(TicketingService.class);
+    }
+
+    @Test
+    void admitsPositionsInOrderAsFarAsThePoolHasTickets() {
+        WaitingRoom room = new WaitingRoom(ticketingService, true, 60_000);
+        for (int i = 0; i < 5; i++) {
+            room.join();
+        }
+        when(ticketingService.getAvailableTickets()).thenReturn(3);
+
+        room.admit();
+
+        assertEquals(Admission.ADMITTED, room.redeem(0));
+        assertEquals(Admission.ADMITTED, room.redeem(2));
+        assertEquals(Admission.NOT_YET_ADMITTED, room.redeem(3));
+        assertEquals(Admission.NOT_YET_ADMITTED, room.redeem(-1));
+        assertEquals(2L, room.getStatus(5).get("aheadInQueue"));
+    }
+
+    @Test
+    void positionCanBeRedeemedOnlyOnce() {
+        WaitingRoom room = new WaitingRoom(ticketingService, true, 60_000);
+        room.join();
+        when(ticketingService.getAvailableTickets()).thenReturn(1);
+        room.admit();
+
+        assertEquals(Admission.ADMITTED, room.redeem(0));
+        assertEquals(Admission.ALREADY_USED, room.redeem(0));
+    }
+
+    @Test
+    void ticketsEarmarkedForUnredeemedAdmissionsAreNotAdmittedTwice() {
+        WaitingRoom room = new WaitingRoom(ticketingService, true, 60_000);
+        for (int i = 0; i < 4; i++) {
+            room.join();
+        }
+        when(ticketingService.getAvailableTickets()).thenReturn(2);
+        room.admit();
+        room.admit(); // Both tickets are still earmarked for positions 0 and 1
+
+        assertEquals(Admission.NOT_YET_ADMITTED, room.redeem(2));
+
+        room.redeem(0);
+        when(ticketingService.getAvailableTickets()).thenReturn(2); // Position 0 bought; the pool was refilled by one
+        room.admit();
+
+        assertEquals(Admission.ADMITTED, room.redeem(2));
+        assertEquals(Admission.NOT_YET_ADMITTED, room.redeem(3));
+    }
+
+    @Test
+    void admissionsExpireAfterTheirTtl() throws InterruptedException {
+        WaitingRoom room = new WaitingRoom(ticketingService, true, 1);
+        room.join();
+        room.join();
+        when(ticketingService.getAvailableTickets()).thenReturn(2);
+        room.admit();
+        assertEquals(Admission.ADMITTED, room.redeem(0));
+
+        Thread.sleep(10);
+        room.admit();
+
+        assertEquals(Admission.EXPIRED, room.redeem(1));
+        assertEquals(true, room.getStatus(1).get("expired"));
+    }
+
+    @Test
+    void disabledRoomAdmitsNobody() {
+        WaitingRoom room = new WaitingRoom(ticketingService, false, 60_000);
+        room.join();
+        when(ticketingService.getAvailableTickets()).thenReturn(10);
+
+        room.admit();
+
+        assertEquals(Admission.NOT_YET_ADMITTED, room.redeem(0));
+    }
+}
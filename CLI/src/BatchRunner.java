@@ -0,0 +1,252 @@
+import com.example.ticketing.core.StoreType;
+import com.example.ticketing.core.TicketCodec;
+import com.example.ticketing.core.WaitStrategy;
+import com.example.ticketing.core.stats.LatencyRecorder;
+import com.example.ticketing.core.trace.ReplayReport;
+import com.example.ticketing.core.trace.Trace;
+import com.example.ticketing.core.trace.TraceRecorder;
+import com.example.ticketing.core.trace.TraceReplayer;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Non-interactive run of the ticketing simulation for scripts and performance regression jobs.
+ * Configuration comes from Configuration.json, overridden by command-line flags; vendors and
+ * customers run without their pacing sleeps, the run ends when totalTickets have been sold,
+ * and a JSON summary of throughput and purchase latency is written to the report file.
+ * With --record, every pool operation is captured into a binary trace file, which --replay
+ * re-executes against a fresh pool to reproduce the run and report divergence and timing.
+ *
+ * <pre>
+ * java RealTimeTicketingSystem --batch [--total N] [--capacity N] [--vendors N] [--customers N]
+ *                              [--threads platform|virtual] [--report batch-report.json]
+ *                              [--wait-strategy blocking|spin-then-park|busy-spin] [--store heap|off-heap|mapped]
+ *                              [--timeout SECONDS] [--record trace.bin] [--verbose]
+ * java RealTimeTicketingSystem --replay trace.bin [--replay-mode sequential|concurrent] [--paced]
+ *                              [--store heap|off-heap|mapped]
+ *                              [--report replay-report.json]
+ * </pre>
+ */
+public class BatchRunner {
+    private static final int MAX_TRACE_BYTES = 256 * 1024 * 1024; // Roughly 35 million operations
+
+    public static boolean isBatchMode(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--batch") || arg.equals("--replay")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Runs the simulation and returns the process exit code
+    public static int run(String[] args) {
+        Map<String, String> flags;
+        try {
+            flags = parseFlags(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return 2;
+        }
+        if (flags.containsKey("replay")) {
+            return replay(flags);
+        }
+        boolean verbose = flags.containsKey("verbose");
+        Configuration.setEventLogEnabled(verbose);
+        if (!verbose) {
+            RealTimeTicketingSystem.setQuiet();
+        }
+
+        Configuration saved = Configuration.loadFromFile();
+        int releaseRate = saved != null ? saved.getTicketReleaseRate() : 10;
+        int retrievalRate = saved != null ? saved.getCustomerRetrievalRate() : 10;
+        int totalTickets;
+        int capacity;
+        int vendors;
+        int customers;
+        long timeoutSeconds;
+        WaitStrategy waitStrategy;
+        StoreType storeType;
+        try {  // Bad flag values end the run with a usage error rather than a stack trace
+            totalTickets = intFlag(flags, "total", saved != null ? saved.getTotalTickets() : 10_000);
+            capacity = intFlag(flags, "capacity", saved != null ? saved.getMaxTicketCapacity() : 1_000);
+            vendors = intFlag(flags, "vendors", saved != null ? saved.getVendorCount() : 1);
+            customers = intFlag(flags, "customers", saved != null ? saved.getCustomerCount() : 1);
+            timeoutSeconds = intFlag(flags, "timeout", 0);
+            waitStrategy = WaitStrategy.fromName(flags.getOrDefault("wait-strategy", "blocking"));
+            storeType = StoreType.fromName(flags.getOrDefault("store", "heap"));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return 2;
+        }
+        String threads = flags.getOrDefault("threads", "platform");
+        String reportFile = flags.getOrDefault("report", "batch-report.json");
+        String traceFile = flags.get("record");
+        if (totalTickets <= 0 || capacity <= 0 || vendors <= 0 || customers <= 0) {
+            System.err.println("Ticket counts, capacity, vendors and customers must be positive");
+            return 2;
+        }
+        if (!threads.equals("platform") && !threads.equals("virtual")) {
+            System.err.println("--threads must be platform or virtual");
+            return 2;
+        }
+
+        RealTimeTicketingSystem.config = new Configuration(totalTickets, releaseRate, retrievalRate, capacity,
+                vendors, customers);
+        RealTimeTicketingSystem.ticketPool = new TicketPool(capacity, waitStrategy, storeType);
+        TraceRecorder recorder = null;
+        if (traceFile != null) {
+            recorder = new TraceRecorder(capacity, MAX_TRACE_BYTES);
+            RealTimeTicketingSystem.ticketPool.getEngine().setOperationTracer(recorder);
+        }
+        LatencyRecorder latencies = new LatencyRecorder(totalTickets);
+
+        SimulationEngine engine = new SimulationEngine(RealTimeTicketingSystem.config,
+                RealTimeTicketingSystem.ticketPool, false, threads.equals("virtual"), latencies);
+        threads = engine.isVirtualThreads() ? "virtual" : "platform";  // Busy-spin always runs on platform threads
+
+        System.out.printf("Batch run: %d tickets, capacity %d, %d vendor(s), %d customer(s) on %s threads, %s waits%n",
+                totalTickets, capacity, vendors, customers, threads, flags.getOrDefault("wait-strategy", "blocking"));
+        engine.start();
+        boolean completed;
+        try {
+            completed = engine.awaitCompletion(timeoutSeconds * 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            completed = false;
+        }
+        engine.shutdown(1000);  // Already done by the sale latch unless the run timed out
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("totalTickets", totalTickets);
+        report.put("maxTicketCapacity", capacity);
+        report.put("vendors", vendors);
+        report.put("customers", customers);
+        report.put("threads", threads);
+        report.put("waitStrategy", waitStrategy.name().toLowerCase().replace('_', '-'));
+        report.put("store", RealTimeTicketingSystem.ticketPool.getEngine().getStoreStatistics());
+        report.putAll(engine.getReport());
+        report.put("purchaseLatency", latencies.summarize());
+        if (recorder != null) {
+            RealTimeTicketingSystem.ticketPool.getEngine().setOperationTracer(null);
+            try {
+                recorder.writeTo(Path.of(traceFile));
+            } catch (IOException e) {
+                System.err.println("Failed to write trace to " + traceFile + ": " + e.getMessage());
+                return 1;
+            }
+            Map<String, Object> trace = new LinkedHashMap<>();
+            trace.put("file", traceFile);
+            trace.put("operations", recorder.getEntryCount());
+            trace.put("bytes", recorder.getSizeBytes());
+            trace.put("truncated", recorder.isTruncated());
+            report.put("trace", trace);
+        }
+
+        if (!writeReport(report, reportFile)) {
+            return 1;
+        }
+        return completed ? 0 : 1;
+    }
+
+    // Re-executes a recorded trace and returns 0 if it reproduced the recording
+    private static int replay(Map<String, String> flags) {
+        String traceFile = flags.get("replay");
+        String mode = flags.getOrDefault("replay-mode", "sequential");
+        String reportFile = flags.getOrDefault("report", "replay-report.json");
+        if (traceFile.isEmpty()) {
+            System.err.println("--replay expects a trace file");
+            return 2;
+        }
+        if (!mode.equals("sequential") && !mode.equals("concurrent")) {
+            System.err.println("--replay-mode must be sequential or concurrent");
+            return 2;
+        }
+        StoreType storeType;
+        try {
+            storeType = StoreType.fromName(flags.getOrDefault("store", "heap"));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return 2;
+        }
+
+        Trace trace;
+        try {
+            trace = Trace.read(Path.of(traceFile));
+        } catch (IOException e) {
+            System.err.println("Failed to read trace " + traceFile + ": " + e.getMessage());
+            return 2;
+        }
+        System.out.printf("Replaying %d operations from %s (%s)%n", trace.entries().size(), traceFile, mode);
+        TraceReplayer replayer = new TraceReplayer(
+                capacity -> storeType.create(capacity, TicketCodec.int32()), flags.containsKey("paced"));
+        ReplayReport result;
+        try {
+            result = replayer.replay(trace, TraceReplayer.Mode.valueOf(mode.toUpperCase()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("trace", traceFile);
+        report.put("capacity", trace.capacity());
+        report.put("initialSize", trace.initialSize());
+        report.putAll(result.toMap());
+        if (!writeReport(report, reportFile)) {
+            return 1;
+        }
+        return result.matches() ? 0 : 1;
+    }
+
+    private static boolean writeReport(Map<String, Object> report, String reportFile) {
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        String json = gson.toJson(report);
+        try (FileWriter writer = new FileWriter(reportFile)) {
+            writer.write(json);
+        } catch (IOException e) {
+            System.err.println("Failed to write report to " + reportFile + ": " + e.getMessage());
+            return false;
+        }
+        System.out.println(json);
+        System.out.println("Report written to " + reportFile);
+        return true;
+    }
+
+    // Accepts "--name value" pairs and bare "--flag" switches
+    private static Map<String, String> parseFlags(String[] args) {
+        Map<String, String> flags = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                flags.put(name, args[++i]);
+            } else {
+                flags.put(name, "");
+            }
+        }
+        return flags;
+    }
+
+    private static int intFlag(Map<String, String> flags, String name, int defaultValue) {
+        String value = flags.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " expects a number, got: " + value);
+        }
+    }
+}
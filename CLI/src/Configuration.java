@@ -13,20 +13,32 @@ public class Configuration {
     private int ticketReleaseRate;
     private int customerRetrievalRate;
     private int maxTicketCapacity;
+    private int vendorCount; // Number of concurrent vendors, 0 in files saved before it existed
+    private int customerCount; // Number of concurrent customers
     private static final String SETTINGS_FILE = "settings.txt";
     private static final String LOG_FILE = "system_logs.txt";
+    private static volatile boolean eventLogEnabled = true; // Disabled in batch mode, where per-ticket file writes would dominate
 
     public Configuration(int totalTickets, int ticketReleaseRate, int customerRetrievalRate, int maxTicketCapacity) {
+        this(totalTickets, ticketReleaseRate, customerRetrievalRate, maxTicketCapacity, 1, 1);
+    }
+
+    public Configuration(int totalTickets, int ticketReleaseRate, int customerRetrievalRate, int maxTicketCapacity,
+                         int vendorCount, int customerCount) {
         this.totalTickets = totalTickets;
         this.ticketReleaseRate = ticketReleaseRate;
         this.customerRetrievalRate = customerRetrievalRate;
         this.maxTicketCapacity = maxTicketCapacity;
+        this.vendorCount = vendorCount;
+        this.customerCount = customerCount;
     }
 
     public int getTotalTickets() { return totalTickets; }
     public int getTicketReleaseRate() { return ticketReleaseRate; }
     public int getCustomerRetrievalRate() { return customerRetrievalRate; }
     public int getMaxTicketCapacity() { return maxTicketCapacity; }
+    public int getVendorCount() { return Math.max(1, vendorCount); }
+    public int getCustomerCount() { return Math.max(1, customerCount); }
 
     // Save configuration to both JSON and text files
     public void saveToFile() {
@@ -56,6 +68,8 @@ public class Configuration {
             writer.write("Ticket Release Rate: " + ticketReleaseRate + " tickets/second\n");
             writer.write("Customer Retrieval Rate: " + customerRetrievalRate + " tickets/second\n");
             writer.write("Max Ticket Pool Capacity: " + maxTicketCapacity + "\n");
+            writer.write("Vendors: " + getVendorCount() + "\n");
+            writer.write("Customers: " + getCustomerCount() + "\n");
             System.out.println("Settings saved to " + SETTINGS_FILE);
             logEvent("Settings saved to " + SETTINGS_FILE);
         } catch (IOException e) {
@@ -64,8 +78,20 @@ public class Configuration {
         }
     }
 
+    // Turn the event log file on or off
+    public static void setEventLogEnabled(boolean enabled) {
+        eventLogEnabled = enabled;
+    }
+
+    public static boolean isEventLogEnabled() {
+        return eventLogEnabled; // Lets hot paths skip building messages that would be discarded
+    }
+
     // Log an event to the log file
     public static void logEvent(String event) {
+        if (!eventLogEnabled) {
+            return;
+        }
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(LOG_FILE, true))) {
             String logEntry = String.format("[%s] %s", getCurrentTimestamp(), event);
             // Add separator line for better readability if it's a ticket-related event
@@ -1,29 +1,61 @@
-public class Customer implements Runnable {
+import com.example.ticketing.core.actor.Actor;
+import com.example.ticketing.core.stats.LatencyRecorder;
+
+public class Customer extends Actor {
     private final TicketPool ticketPool;
     private final int retrievalRate;
+    private final boolean paced; // False in batch mode: buy as fast as tickets arrive
+    private final LatencyRecorder latencyRecorder; // Records how long each purchase waited, or null
+    private volatile long ticketsPurchased; // Written only by this customer's thread
 
     public Customer(TicketPool ticketPool, int retrievalRate) {
+        this(ticketPool, retrievalRate, true, null);
+    }
+
+    public Customer(TicketPool ticketPool, int retrievalRate, boolean paced, LatencyRecorder latencyRecorder) {
+        this(ticketPool, retrievalRate, paced, latencyRecorder, "Customer");
+    }
+
+    public Customer(TicketPool ticketPool, int retrievalRate, boolean paced, LatencyRecorder latencyRecorder, String name) {
+        super(name);
         this.ticketPool = ticketPool;
         this.retrievalRate = retrievalRate;
+        this.paced = paced;
+        this.latencyRecorder = latencyRecorder;
     }
 
     @Override
-    public void run() {
+    protected void runActor() {
         try {
-            while (!Thread.currentThread().isInterrupted()) {
-                if (RealTimeTicketingSystem.getProcessedTickets() >= RealTimeTicketingSystem.config.getTotalTickets()) {
+            while (isRunning() && !Thread.currentThread().isInterrupted()) {
+                if (ticketPool.isSoldOut()) {
                     break;  // Stop if all tickets are processed
                 }
 
+                long start = System.nanoTime();
                 int ticket = ticketPool.retrieveTicket();
                 if (ticket != -1) {  // If a ticket was retrieved
-                    RealTimeTicketingSystem.incrementProcessedTickets();
+                    if (latencyRecorder != null) {
+                        latencyRecorder.record(System.nanoTime() - start);
+                    }
+                    ticketsPurchased++;
+                    RealTimeTicketingSystem.ticketProcessed();
                 }
 
-                Thread.sleep(1000 / retrievalRate);  // Delay between ticket retrievals
+                if (paced) {
+                    Thread.sleep(1000 / retrievalRate);  // Delay between ticket retrievals
+                }
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
     }
+
+    public String getName() {
+        return getActorId();
+    }
+
+    public long getTicketsPurchased() {
+        return ticketsPurchased;
+    }
 }
\ No newline at end of file
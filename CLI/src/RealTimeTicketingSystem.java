@@ -1,4 +1,5 @@
 import java.io.IOException;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.logging.*;
 
@@ -8,12 +9,14 @@ public class RealTimeTicketingSystem {
     public static TicketPool ticketPool;
     public static Configuration config;
     private static boolean running = false;
-    private static Thread vendorThread;
-    private static Thread customerThread;
+    private static SimulationEngine engine;
     private static Thread simulationThread;
-    private static int processedTickets = 0;
 
     public static void main(String[] args) {
+        if (BatchRunner.isBatchMode(args)) {
+            System.exit(BatchRunner.run(args));  // Non-interactive run driven by flags, no prompts
+        }
+
         setupLogger();  // Set up the logger
         Scanner scanner = new Scanner(System.in);
 
@@ -98,6 +101,7 @@ public class RealTimeTicketingSystem {
             logger.info("Max Pool Capacity: " + savedConfig.getMaxTicketCapacity());
             logger.info("Release Rate: " + savedConfig.getTicketReleaseRate());
             logger.info("Retrieval Rate: " + savedConfig.getCustomerRetrievalRate());
+            logger.info("Vendors: " + savedConfig.getVendorCount() + ", Customers: " + savedConfig.getCustomerCount());
             System.out.print("Would you like to use this configuration? (yes/no): ");
 
             String response = scanner.nextLine().toLowerCase();
@@ -124,8 +128,11 @@ public class RealTimeTicketingSystem {
 
         int ticketReleaseRate = getPositiveIntInput(scanner, "Enter ticket release rate (tickets per second): ");
         int customerRetrievalRate = getPositiveIntInput(scanner, "Enter customer retrieval rate (tickets per second): ");
+        int vendorCount = getPositiveIntInput(scanner, "Enter number of vendors: ");
+        int customerCount = getPositiveIntInput(scanner, "Enter number of customers: ");
 
-        config = new Configuration(totalTickets, ticketReleaseRate, customerRetrievalRate, maxTicketCapacity);
+        config = new Configuration(totalTickets, ticketReleaseRate, customerRetrievalRate, maxTicketCapacity,
+                vendorCount, customerCount);
         config.saveToFile();  // Log configuration save
 
         ticketPool = new TicketPool(config.getMaxTicketCapacity());
@@ -156,28 +163,26 @@ public class RealTimeTicketingSystem {
         logger.info("Ticketing system started.");
 
         simulationThread = new Thread(() -> {
-            vendorThread = new Thread(new Vendor(ticketPool, config.getTicketReleaseRate()));
-            customerThread = new Thread(new Customer(ticketPool, config.getCustomerRetrievalRate()));
-            vendorThread.start();
-            customerThread.start();
+            engine = new SimulationEngine(config, ticketPool, true, false, null);
+            engine.start();  // One thread per vendor and customer on a managed pool
 
-            while (running) {
-                displayStatus();
-
-                if (processedTickets >= config.getTotalTickets()) {
-                    System.out.println("All tickets have been processed. Shutting down the system...");
-                    logger.info("All tickets processed. Shutting down.");
-                    stopSystem();
-                    break;
+            try {
+                // Refresh status every second; the sale latch wakes this thread the moment the last ticket sells
+                while (running && !engine.awaitCompletion(1000)) {
+                    displayStatus();
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.severe("Simulation interrupted: " + e.getMessage());
+                return;
+            }
 
-                try {
-                    Thread.sleep(1000);  // Refresh status every second
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    logger.severe("Simulation interrupted: " + e.getMessage());
-                    break;
-                }
+            if (engine.isSaleComplete()) {
+                displayStatus();
+                System.out.println("All tickets have been processed. Shutting down the system...");
+                logger.info("All tickets processed. Shutting down.");
+                stopSystem();
+                displayFinalReport();
             }
         });
         simulationThread.start();
@@ -200,40 +205,63 @@ public class RealTimeTicketingSystem {
         running = false;
         System.out.println("Stopping the ticketing system...");
         logger.info("Stopping ticketing system...");
-        if (vendorThread != null) {
-            vendorThread.interrupt();
-        }
-        if (customerThread != null) {
-            customerThread.interrupt();
+        if (engine != null && !engine.shutdown(2000)) {
+            logger.warning("Some vendors or customers did not stop within 2 seconds.");
         }
-        if (simulationThread != null) {
+        if (simulationThread != null && simulationThread != Thread.currentThread()) {
             simulationThread.interrupt();
         }
         logger.info("System stopped.");
+        for (Handler handler : logger.getHandlers()) {
+            handler.flush();  // Make sure the log file is complete before the report or the menu
+        }
+    }
+
+    private static void displayFinalReport() {
+        Map<String, Object> report = engine.getReport();
+        System.out.println("\nFinal Report:");
+        System.out.println("Tickets Sold: " + report.get("ticketsSold") + "/" + config.getTotalTickets());
+        System.out.printf("Duration: %.1f seconds%n", (double) report.get("elapsedMillis") / 1000);
+        System.out.printf("Throughput: %.1f tickets/second%n", (double) report.get("throughputPerSecond"));
+        logger.info("Final report: " + report);
     }
 
     private static void displayStatus() {
+        int processedTickets = getProcessedTickets();
         int remainingTickets = Math.max(0, config.getTotalTickets() - processedTickets);
         System.out.println("\nCurrent Status:");
-        System.out.println("Tickets Available in Pool: " + ticketPool.getTickets().size());
+        System.out.println("Tickets Available in Pool: " + ticketPool.getTicketCount());
         System.out.println("Tickets Processed: " + processedTickets + "/" + config.getTotalTickets());
         System.out.println("Remaining Tickets: " + remainingTickets);
 
         // Log ticket transaction status
-        logger.info("Tickets Available in Pool: " + ticketPool.getTickets().size());
+        logger.info("Tickets Available in Pool: " + ticketPool.getTicketCount());
         logger.info("Tickets Processed: " + processedTickets + "/" + config.getTotalTickets());
         logger.info("Remaining Tickets: " + remainingTickets);
+
+        if (engine != null) {
+            StringBuilder actors = new StringBuilder("Per Actor:");
+            for (Map<String, Object> stats : engine.getActorStats()) {
+                actors.append(' ').append(stats.get("name")).append('=').append(stats.get("tickets"));
+            }
+            System.out.println(actors);
+        }
     }
 
-    public static synchronized void incrementProcessedTickets() {
-        if (processedTickets < config.getTotalTickets()) {
-            processedTickets++;
-            // Log the ticket transaction
-            logger.info("Processed ticket " + processedTickets);
+    // Logs a completed purchase; the end of the sale is detected by the pool's sale latch
+    public static void ticketProcessed() {
+        if (logger.isLoggable(Level.INFO)) {
+            logger.info("Processed ticket " + getProcessedTickets());
         }
     }
 
-    public static synchronized int getProcessedTickets() {
-        return processedTickets;
+    // Only warnings and errors are logged, used by batch mode
+    static void setQuiet() {
+        logger.setLevel(Level.WARNING);
+    }
+
+    public static int getProcessedTickets() {
+        TicketPool pool = ticketPool;
+        return pool != null ? pool.getTotalTicketsSold() : 0;
     }
 }
@@ -0,0 +1,158 @@
+import com.example.ticketing.core.SaleLatch;
+import com.example.ticketing.core.actor.Actor;
+import com.example.ticketing.core.stats.LatencyRecorder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs any number of vendors and customers against one TicketPool on a managed ExecutorService.
+ * Vendors share a release budget of totalTickets, so the pool never receives more tickets than
+ * the event has. Sales are counted down on a SaleLatch by the pool itself, so the moment the last
+ * ticket sells the engine shuts the executor down, interrupting customers still waiting on an
+ * empty pool, without anyone polling the sold count.
+ */
+public class SimulationEngine {
+    private final Configuration config;
+    private final TicketPool ticketPool;
+    private final boolean paced; // False in batch mode: actors skip their per-second sleeps
+    private final boolean virtualThreads;
+    private final LatencyRecorder latencyRecorder; // Shared by all customers, or null
+    private final List<Vendor> vendors = new ArrayList<>();
+    private final List<Customer> customers = new ArrayList<>();
+    private ExecutorService executor;
+    private SaleLatch saleLatch;
+    private long startNanos;
+    private long endNanos;
+
+    public SimulationEngine(Configuration config, TicketPool ticketPool, boolean paced, boolean virtualThreads,
+                            LatencyRecorder latencyRecorder) {
+        this.config = config;
+        this.ticketPool = ticketPool;
+        this.paced = paced;
+        // A busy-spinning virtual thread never unmounts and would pin its carrier
+        this.virtualThreads = virtualThreads && ticketPool.getEngine().getWaitStrategy().parks();
+        this.latencyRecorder = latencyRecorder;
+    }
+
+    // Creates the actors and submits them to a fresh executor
+    public synchronized void start() {
+        if (executor != null) {
+            throw new IllegalStateException("Simulation already started");
+        }
+        saleLatch = new SaleLatch(config.getTotalTickets());
+        ticketPool.getEngine().setSaleLatch(saleLatch);
+        saleLatch.onComplete(() -> shutdown(2000));  // Stop every actor as soon as the last ticket sells
+        AtomicInteger releaseBudget = new AtomicInteger(config.getTotalTickets());
+        // Unpaced vendors release up to the pool capacity at a time, paced ones at the configured rate
+        int releaseRate = paced ? config.getTicketReleaseRate() : config.getMaxTicketCapacity();
+        for (int i = 1; i <= config.getVendorCount(); i++) {
+            vendors.add(new Vendor(ticketPool, releaseRate, paced, "Vendor-" + i, releaseBudget));
+        }
+        for (int i = 1; i <= config.getCustomerCount(); i++) {
+            customers.add(new Customer(ticketPool, config.getCustomerRetrievalRate(), paced, latencyRecorder, "Customer-" + i));
+        }
+
+        executor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("actor-", 1).factory())
+                : Executors.newFixedThreadPool(vendors.size() + customers.size(), platformThreads());
+        startNanos = System.nanoTime();
+        vendors.forEach(executor::submit);
+        customers.forEach(executor::submit);
+        Configuration.logEvent("Simulation started with " + vendors.size() + " vendor(s) and " + customers.size() +
+                " customer(s) on " + (virtualThreads ? "virtual" : "platform") + " threads");
+    }
+
+    // Waits until every ticket is sold or the timeout (0 for none) elapses
+    public boolean awaitCompletion(long timeoutMillis) throws InterruptedException {
+        if (timeoutMillis <= 0) {
+            saleLatch.await();
+            return true;
+        }
+        return saleLatch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Whether actors run on virtual threads; never with a wait strategy that does not park
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public boolean isSaleComplete() {
+        return saleLatch != null && saleLatch.isComplete();
+    }
+
+    // Interrupts all actors and waits up to the grace period for them to exit
+    public synchronized boolean shutdown(long graceMillis) {
+        if (executor == null || executor.isShutdown()) {
+            return executor == null || executor.isTerminated();
+        }
+        endNanos = System.nanoTime();
+        vendors.forEach(Vendor::requestStop);
+        customers.forEach(Customer::requestStop);
+        executor.shutdownNow();  // Customers may be blocked in retrieveTicket on an empty pool
+        try {
+            boolean terminated = executor.awaitTermination(graceMillis, TimeUnit.MILLISECONDS);
+            Configuration.logEvent("Simulation stopped" + (terminated ? "" : "; some actors did not exit in time"));
+            return terminated;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public synchronized long getElapsedNanos() {
+        if (executor == null) {
+            return 0;
+        }
+        return (executor.isShutdown() ? endNanos : System.nanoTime()) - startNanos;
+    }
+
+    // Summary of the run: tickets sold, duration, throughput and per-actor counts
+    public Map<String, Object> getReport() {
+        long elapsedNanos = getElapsedNanos();
+        int sold = ticketPool.getTotalTicketsSold();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("completed", isSaleComplete());
+        report.put("ticketsSold", sold);
+        report.put("elapsedMillis", elapsedNanos / 1_000_000.0);
+        report.put("throughputPerSecond", elapsedNanos > 0 ? sold / (elapsedNanos / 1_000_000_000.0) : 0.0);
+        report.put("actors", getActorStats());
+        return report;
+    }
+
+    // Tickets released or purchased by each actor so far
+    public List<Map<String, Object>> getActorStats() {
+        List<Map<String, Object>> stats = new ArrayList<>(vendors.size() + customers.size());
+        for (Vendor vendor : vendors) {
+            stats.add(actorStats(vendor, "vendor", vendor.getTicketsReleased()));
+        }
+        for (Customer customer : customers) {
+            stats.add(actorStats(customer, "customer", customer.getTicketsPurchased()));
+        }
+        return stats;
+    }
+
+    private static Map<String, Object> actorStats(Actor actor, String role, long tickets) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", actor.getActorId());
+        stats.put("role", role);
+        stats.put("state", actor.getActorState().name());
+        stats.put("tickets", tickets);
+        return stats;
+    }
+
+    private static ThreadFactory platformThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "actor-" + counter.incrementAndGet());
+            thread.setDaemon(true);  // Never keep the JVM alive after the menu exits
+            return thread;
+        };
+    }
+}
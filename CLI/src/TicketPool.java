@@ -1,50 +1,106 @@
-import java.util.LinkedList;
-import java.util.Queue;
+import com.example.ticketing.core.SaleLatch;
+import com.example.ticketing.core.StoreType;
+import com.example.ticketing.core.TicketCodec;
+import com.example.ticketing.core.TicketEngine;
+import com.example.ticketing.core.WaitStrategy;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 
 public class TicketPool {
-    private final Queue<Integer> tickets = new LinkedList<>(); // Queue to store tickets
+    private final TicketEngine<Integer> engine; // Shared engine, the same one behind the Backend pool
     private final int capacity; // Maximum capacity of the ticket pool
-    private int totalTicketsSold = 0; // Tracks total tickets sold
 
     public TicketPool(int capacity) {
+        this(capacity, WaitStrategy.BLOCKING, StoreType.HEAP);
+    }
+
+    public TicketPool(int capacity, WaitStrategy waitStrategy, StoreType storeType) {
         this.capacity = capacity;
+        // Ticket numbers stay unboxed: an int[] ring on the heap, 4-byte records off-heap
+        this.engine = new TicketEngine<>(storeType.create(capacity, TicketCodec.int32()), waitStrategy);
         Configuration.logEvent("Ticket Pool initialized with capacity: " + capacity);
     }
 
-    public synchronized void addTicket(int ticket) {
+    public void addTicket(int ticket) {
         // Add a ticket if there's room, otherwise log failure
-        if (tickets.size() < capacity) {
-            tickets.add(ticket);
-            Configuration.logEvent("New ticket added to pool: Ticket #" + ticket +
-                    " | Pool size: " + tickets.size() + "/" + capacity);
-            notifyAll(); // Notify waiting threads
+        if (engine.tryAddTicket(ticket)) {
+            if (Configuration.isEventLogEnabled()) {
+                Configuration.logEvent("New ticket added to pool: Ticket #" + ticket +
+                        " | Pool size: " + engine.getTicketCount() + "/" + capacity);
+            }
         } else {
             Configuration.logEvent("Failed to add ticket: Pool is at capacity (" + capacity + ")");
         }
     }
 
-    public synchronized int retrieveTicket() {
-        // Wait if no tickets are available
-        while (tickets.isEmpty()) {
-            try {
-                Configuration.logEvent("Customer waiting for ticket - Pool empty");
-                wait(); // Wait until notified
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt(); // Handle interruption
-                Configuration.logEvent("Ticket retrieval interrupted");
-                return -1; // Indicate failure
+    // Adds as many tickets as fit in one lock acquisition and returns how many were added
+    public int addTickets(List<Integer> tickets) {
+        int added = engine.offerTickets(tickets);
+        if (Configuration.isEventLogEnabled()) {
+            for (int i = 0; i < added; i++) {
+                Configuration.logEvent("New ticket added to pool: Ticket #" + tickets.get(i) +
+                        " | Pool size: " + engine.getTicketCount() + "/" + capacity);
+            }
+        }
+        return added;
+    }
+
+    public int retrieveTicket() {
+        if (engine.getTicketCount() == 0) {
+            Configuration.logEvent("Customer waiting for ticket - Pool empty");
+        }
+        try {
+            int ticket = engine.removeTicket(); // Waits until a vendor adds a ticket
+            if (Configuration.isEventLogEnabled()) {
+                Configuration.logEvent("Ticket #" + ticket + " sold | Total tickets sold: " + engine.getTotalTicketsSold() +
+                        " | Remaining in pool: " + engine.getTicketCount());
             }
+            return ticket;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Handle interruption
+            Configuration.logEvent("Ticket retrieval interrupted");
+            return -1; // Indicate failure
         }
-        // Retrieve a ticket and update ticket count
-        int ticket = tickets.poll();
-        totalTicketsSold++;
-        Configuration.logEvent("Ticket #" + ticket + " sold | Total tickets sold: " + totalTicketsSold +
-                " | Remaining in pool: " + tickets.size());
-        return ticket;
     }
 
-    public synchronized Queue<Integer> getTickets() {
-        return new LinkedList<>(tickets); // Return a copy of the ticket queue
+    // Copy of the tickets currently in the pool, oldest first; O(n), so keep it off hot paths
+    public int[] snapshot() {
+        List<Integer> tickets = engine.snapshotTickets(() -> { });
+        int[] copy = new int[tickets.size()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = tickets.get(i);
+        }
+        return copy;
+    }
+
+    // Iterates over a snapshot, so later adds and sales are not seen
+    public PrimitiveIterator.OfInt snapshotIterator() {
+        int[] copy = snapshot();
+        return new PrimitiveIterator.OfInt() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < copy.length;
+            }
+
+            @Override
+            public int nextInt() {
+                if (index >= copy.length) {
+                    throw new NoSuchElementException();
+                }
+                return copy[index++];
+            }
+        };
+    }
+
+    public int getTicketCount() {
+        return engine.getTicketCount(); // O(1) and lock-free
+    }
+
+    public int getRemainingCapacity() {
+        return engine.getRemainingCapacity(); // Free slots left in the pool
     }
 
     public int getCapacity() {
@@ -52,6 +108,16 @@ public class TicketPool {
     }
 
     public int getTotalTicketsSold() {
-        return totalTicketsSold; // Return the total tickets sold
+        return engine.getTotalTicketsSold(); // Return the total tickets sold
+    }
+
+    // True once the current sale's last ticket has sold; a single volatile read
+    public boolean isSoldOut() {
+        SaleLatch latch = engine.getSaleLatch();
+        return latch != null && latch.isComplete();
+    }
+
+    public TicketEngine<Integer> getEngine() {
+        return engine; // Direct access for batch operations and statistics
     }
 }
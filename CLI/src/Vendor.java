@@ -1,33 +1,102 @@
-public class Vendor implements Runnable {
+import com.example.ticketing.core.actor.Actor;
+import com.example.ticketing.core.rate.AimdRate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class Vendor extends Actor {
+    private static final double TARGET_FILL = 0.75; // Pool fill level the vendor steers towards
+
     private final TicketPool ticketPool;
-    private final int ticketReleaseRate;
+    private final boolean paced; // False in batch mode: release as fast as the pool allows
+    private final AtomicInteger releaseBudget; // Tickets left to release, shared by all vendors; null for no limit
+    private final AimdRate batchSize; // Tickets released per second, adapted to the pool fill level
+    private volatile long ticketsReleased; // Written only by this vendor's thread
 
     public Vendor(TicketPool ticketPool, int ticketReleaseRate) {
+        this(ticketPool, ticketReleaseRate, true);
+    }
+
+    public Vendor(TicketPool ticketPool, int ticketReleaseRate, boolean paced) {
+        this(ticketPool, ticketReleaseRate, paced, "Vendor", null);
+    }
+
+    public Vendor(TicketPool ticketPool, int ticketReleaseRate, boolean paced, String name, AtomicInteger releaseBudget) {
+        super(name);
         this.ticketPool = ticketPool;
-        this.ticketReleaseRate = ticketReleaseRate;
+        this.paced = paced;
+        this.releaseBudget = releaseBudget;
+        // AIMD: halve the batch when the pool is above target fill, grow it by one when below
+        this.batchSize = new AimdRate(TARGET_FILL, ticketReleaseRate, 1, ticketReleaseRate, 1, 0.5);
     }
 
     @Override
-    public void run() {
+    protected void runActor() {
         try {
-            while (!Thread.currentThread().isInterrupted()) {
-                if (RealTimeTicketingSystem.getProcessedTickets() >= RealTimeTicketingSystem.config.getTotalTickets()) {
+            while (isRunning() && !Thread.currentThread().isInterrupted()) {
+                if (ticketPool.isSoldOut()) {
                     break;  // Stop adding tickets when all have been processed
                 }
+                if (releaseBudget != null && releaseBudget.get() == 0) {
+                    break;  // Other vendors have released the rest of the tickets
+                }
 
-                synchronized (ticketPool) {
-                    for (int i = 0; i < ticketReleaseRate; i++) {
-                        if (ticketPool.getTickets().size() < ticketPool.getCapacity()) {
-                            ticketPool.addTicket((int) (Math.random() * 1000));
-                        }
+                // Check free space once, then add the whole batch in one pool operation
+                int toRelease = claim(Math.min((int) batchSize.getRate(), ticketPool.getRemainingCapacity()));
+                if (toRelease > 0) {
+                    List<Integer> batch = new ArrayList<>(toRelease);
+                    for (int i = 0; i < toRelease; i++) {
+                        batch.add((int) (Math.random() * 1000));
+                    }
+                    int added = ticketPool.addTickets(batch);
+                    if (added < toRelease && releaseBudget != null) {
+                        releaseBudget.addAndGet(toRelease - added);  // Another vendor filled the pool first
                     }
-                    ticketPool.notifyAll();  // Notify waiting customers
+                    ticketsReleased += added;
                 }
 
-                Thread.sleep(1000);  // Delay for ticket release
+                adjustBatchSize();
+                if (paced) {
+                    Thread.sleep(1000);  // Delay for ticket release
+                } else if (toRelease == 0) {
+                    Thread.yield();  // Pool is full; let customers run instead of spinning
+                }
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
     }
-}
\ No newline at end of file
+
+    // Takes up to the requested number of tickets from the shared release budget
+    private int claim(int requested) {
+        if (releaseBudget == null || requested <= 0) {
+            return requested;
+        }
+        while (true) {
+            int left = releaseBudget.get();
+            int granted = Math.min(left, requested);
+            if (releaseBudget.compareAndSet(left, left - granted)) {
+                return granted;
+            }
+        }
+    }
+
+    private void adjustBatchSize() {
+        double fill = (double) ticketPool.getTicketCount() / ticketPool.getCapacity();
+        int previous = (int) batchSize.getRate();
+        batchSize.adjust(fill, 0);
+        int current = (int) batchSize.getRate();
+        if (current != previous) {
+            Configuration.logEvent(getActorId() + " release rate adjusted: " + previous + " -> " + current +
+                    " tickets/second | Pool fill: " + Math.round(fill * 100) + "%");
+        }
+    }
+
+    public String getName() {
+        return getActorId();
+    }
+
+    public long getTicketsReleased() {
+        return ticketsReleased;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.ticketing.core;
+
+import java.util.function.Consumer;
+
+/**
+ * Heap ticket store backed by a fixed-size array used as a ring buffer.
+ * Allocates once at construction, so adding and removing tickets creates no garbage
+ * beyond the tickets themselves.
+ *
+ * @param <T> the ticket type
+ */
+public class ArrayTicketStore<T> implements TicketStore<T> {
+
+    private final Object[] slots;
+    private int head;
+    private int tail;
+    private int size;
+
+    /**
+     * Creates an empty store.
+     *
+     * @param capacity the maximum number of tickets held
+     */
+    public ArrayTicketStore(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.slots = new Object[capacity];
+    }
+
+    @Override
+    public int capacity() {
+        return slots.length;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean offer(T ticket) {
+        if (size == slots.length) {
+            return false;
+        }
+        slots[tail] = ticket;
+        tail = tail + 1 == slots.length ? 0 : tail + 1;
+        size++;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        if (size == 0) {
+            return null;
+        }
+        T ticket = (T) slots[head];
+        slots[head] = null; // Let sold tickets be collected
+        head = head + 1 == slots.length ? 0 : head + 1;
+        size--;
+        return ticket;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        for (int i = 0, index = head; i < size; i++) {
+            action.accept((T) slots[index]);
+            index = index + 1 == slots.length ? 0 : index + 1;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.ticketing.core;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * The codec behind {@link TicketCodec#int32()}; a single instance, so stores can recognise
+ * integer tickets.
+ */
+final class Int32Codec implements TicketCodec<Integer> {
+
+    static final Int32Codec INSTANCE = new Int32Codec();
+
+    private Int32Codec() {
+    }
+
+    @Override
+    public int recordBytes() {
+        return Integer.BYTES;
+    }
+
+    @Override
+    public boolean encode(Integer ticket, MemorySegment segment, long offset) {
+        segment.set(ValueLayout.JAVA_INT_UNALIGNED, offset, ticket);
+        return true;
+    }
+
+    @Override
+    public Integer decode(MemorySegment segment, long offset) {
+        return segment.get(ValueLayout.JAVA_INT_UNALIGNED, offset);
+    }
+}
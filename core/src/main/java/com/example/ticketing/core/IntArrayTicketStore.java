@@ -0,0 +1,69 @@
+package com.example.ticketing.core;
+
+import java.util.function.Consumer;
+
+/**
+ * Heap ticket store for integer tickets backed by a primitive {@code int[]} ring buffer.
+ * Held tickets cost four bytes each and no objects, where {@link ArrayTicketStore} keeps a
+ * reference to a boxed {@link Integer} per ticket; tickets are only boxed while passing through
+ * the engine. {@link StoreType#HEAP} picks this store for tickets using {@link TicketCodec#int32()}.
+ */
+public class IntArrayTicketStore implements TicketStore<Integer> {
+
+    private final int[] slots;
+    private int head;
+    private int tail;
+    private int size;
+
+    /**
+     * Creates an empty store.
+     *
+     * @param capacity the maximum number of tickets held
+     */
+    public IntArrayTicketStore(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.slots = new int[capacity];
+    }
+
+    @Override
+    public int capacity() {
+        return slots.length;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean offer(Integer ticket) {
+        if (size == slots.length) {
+            return false;
+        }
+        slots[tail] = ticket;
+        tail = tail + 1 == slots.length ? 0 : tail + 1;
+        size++;
+        return true;
+    }
+
+    @Override
+    public Integer poll() {
+        if (size == 0) {
+            return null;
+        }
+        int ticket = slots[head];
+        head = head + 1 == slots.length ? 0 : head + 1;
+        size--;
+        return ticket;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Integer> action) {
+        for (int i = 0, index = head; i < size; i++) {
+            action.accept(slots[index]);
+            index = index + 1 == slots.length ? 0 : index + 1;
+        }
+    }
+}
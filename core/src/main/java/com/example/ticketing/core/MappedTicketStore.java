@@ -0,0 +1,204 @@
+package com.example.ticketing.core;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Ticket store that keeps tickets as fixed-width records in a memory-mapped file.
+ * The head and tail counters live in a header at the start of the mapping, next to the records,
+ * so the file always describes the current inventory: a restarted process re-attaches to it by
+ * mapping it again, without reading or decoding a single ticket, and the operating system's page
+ * cache does the I/O. Every operation ends with one aligned write of a single counter, so a
+ * process that dies part-way leaves the file as it was before or after that operation.
+ * Surviving an operating system crash as well needs a {@link #flush()}.
+ * The mapping is released once the store is unreachable.
+ *
+ * @param <T> the ticket type
+ */
+public class MappedTicketStore<T> implements TicketStore<T> {
+
+    static final int MAGIC = 0x5450504D; // "TPPM"
+    private static final long RECORD_BYTES_OFFSET = 4;
+    private static final long CAPACITY_OFFSET = 8;
+    private static final long HEAD_OFFSET = 16;
+    private static final long TAIL_OFFSET = 24;
+    private static final long HEADER_BYTES = 64;
+
+    private final TicketCodec<T> codec;
+    private final MemorySegment mapping;
+    private final long recordBytes;
+    private final int capacity;
+    private long head; // number of tickets ever removed, mirrored at HEAD_OFFSET
+    private long tail; // number of tickets ever added, mirrored at TAIL_OFFSET
+
+    private MappedTicketStore(MemorySegment mapping, TicketCodec<T> codec) {
+        this.mapping = mapping;
+        this.codec = codec;
+        this.recordBytes = codec.recordBytes();
+        this.capacity = mapping.get(ValueLayout.JAVA_INT, CAPACITY_OFFSET);
+        this.head = mapping.get(ValueLayout.JAVA_LONG, HEAD_OFFSET);
+        this.tail = mapping.get(ValueLayout.JAVA_LONG, TAIL_OFFSET);
+    }
+
+    /**
+     * Creates an empty store in the given file, replacing any file already there.
+     * The new file is prepared under a temporary name and moved into place, so a store still
+     * mapping the old file keeps working on it undisturbed.
+     *
+     * @param file the file holding the store
+     * @param capacity the maximum number of tickets held
+     * @param codec converts tickets to and from records
+     * @param <T> the ticket type
+     * @return the store
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static <T> MappedTicketStore<T> create(Path file, int capacity, TicketCodec<T> codec) throws IOException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path staging = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            MemorySegment mapping = map(staging, HEADER_BYTES + (long) codec.recordBytes() * capacity);
+            mapping.set(ValueLayout.JAVA_INT, RECORD_BYTES_OFFSET, codec.recordBytes());
+            mapping.set(ValueLayout.JAVA_INT, CAPACITY_OFFSET, capacity);
+            mapping.set(ValueLayout.JAVA_INT, 0, MAGIC); // written last: the header is complete
+            Files.move(staging, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new MappedTicketStore<>(mapping, codec);
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+    }
+
+    /**
+     * Re-attaches to the store in the given file, keeping the tickets already in it, or creates
+     * an empty store if the file does not exist. An existing store keeps the capacity it was
+     * created with.
+     *
+     * @param file the file holding the store
+     * @param capacity the maximum number of tickets held if a new store is created
+     * @param codec converts tickets to and from records
+     * @param <T> the ticket type
+     * @return the store
+     * @throws IOException if the file cannot be mapped or does not hold a ticket store
+     * @throws IllegalArgumentException if the file was written with a different record width
+     */
+    public static <T> MappedTicketStore<T> open(Path file, int capacity, TicketCodec<T> codec) throws IOException {
+        if (!Files.exists(file)) {
+            return create(file, capacity, codec);
+        }
+        long fileBytes = Files.size(file);
+        if (fileBytes < HEADER_BYTES) {
+            throw new IOException("Not a ticket pool file: " + file);
+        }
+        MemorySegment mapping = map(file, fileBytes);
+        if (mapping.get(ValueLayout.JAVA_INT, 0) != MAGIC) {
+            throw new IOException("Not a ticket pool file: " + file);
+        }
+        int storedRecordBytes = mapping.get(ValueLayout.JAVA_INT, RECORD_BYTES_OFFSET);
+        if (storedRecordBytes != codec.recordBytes()) {
+            throw new IllegalArgumentException("Ticket pool file " + file + " holds " + storedRecordBytes
+                + "-byte records, expected " + codec.recordBytes());
+        }
+        int storedCapacity = mapping.get(ValueLayout.JAVA_INT, CAPACITY_OFFSET);
+        long storedHead = mapping.get(ValueLayout.JAVA_LONG, HEAD_OFFSET);
+        long storedTail = mapping.get(ValueLayout.JAVA_LONG, TAIL_OFFSET);
+        if (storedCapacity <= 0 || fileBytes != HEADER_BYTES + (long) storedRecordBytes * storedCapacity
+                || storedHead < 0 || storedTail < storedHead || storedTail - storedHead > storedCapacity) {
+            throw new IOException("Corrupt ticket pool file: " + file);
+        }
+        return new MappedTicketStore<>(mapping, codec);
+    }
+
+    /**
+     * Creates an empty store in a file that is deleted straight away, for callers that want the
+     * mapped layout without keeping the tickets. Where the file cannot be deleted while mapped it
+     * is deleted when the JVM exits.
+     *
+     * @param capacity the maximum number of tickets held
+     * @param codec converts tickets to and from records
+     * @param <T> the ticket type
+     * @return the store
+     * @throws IOException if the file cannot be created or mapped
+     */
+    static <T> MappedTicketStore<T> createTemporary(int capacity, TicketCodec<T> codec) throws IOException {
+        Path file = Files.createTempFile("ticket-pool", ".dat");
+        MappedTicketStore<T> store = create(file, capacity, codec);
+        try {
+            Files.delete(file);
+        } catch (IOException e) {
+            file.toFile().deleteOnExit();
+        }
+        return store;
+    }
+
+    private static MemorySegment map(Path file, long bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes, Arena.ofAuto());
+        }
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public int size() {
+        return (int) (tail - head);
+    }
+
+    @Override
+    public boolean offer(T ticket) {
+        if (tail - head == capacity) {
+            return false;
+        }
+        if (!codec.encode(ticket, mapping, recordOffset(tail))) {
+            return false;
+        }
+        VarHandle.releaseFence(); // the record reaches the mapping before the tail that publishes it
+        mapping.set(ValueLayout.JAVA_LONG, TAIL_OFFSET, ++tail);
+        return true;
+    }
+
+    @Override
+    public T poll() {
+        if (tail == head) {
+            return null;
+        }
+        T ticket = codec.decode(mapping, recordOffset(head));
+        mapping.set(ValueLayout.JAVA_LONG, HEAD_OFFSET, ++head);
+        return ticket;
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        for (long position = head; position < tail; position++) {
+            action.accept(codec.decode(mapping, recordOffset(position)));
+        }
+    }
+
+    @Override
+    public long offHeapBytes() {
+        return mapping.byteSize();
+    }
+
+    @Override
+    public void flush() {
+        mapping.force();
+    }
+
+    private long recordOffset(long position) {
+        return HEADER_BYTES + (position % capacity) * recordBytes;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.ticketing.core;
+
+/**
+ * Observes changes to the contents of a {@link TicketEngine}.
+ * Called while the engine lock is held, so implementations must only record the change and return.
+ *
+ * @param <T> the ticket type
+ */
+public interface MutationListener<T> {
+
+    /**
+     * Called after a ticket has been appended to the pool.
+     *
+     * @param ticket the added ticket
+     */
+    void onAdded(T ticket);
+
+    /**
+     * Called after tickets have been taken from the head of the pool.
+     *
+     * @param count the number of tickets removed
+     */
+    void onRemoved(int count);
+
+    /**
+     * Returns a listener that ignores all changes.
+     *
+     * @param <T> the ticket type
+     * @return the no-op listener
+     */
+    @SuppressWarnings("unchecked")
+    static <T> MutationListener<T> none() {
+        return (MutationListener<T>) Noop.INSTANCE;
+    }
+
+    // Holder for the shared no-op listener
+    final class Noop implements MutationListener<Object> {
+        private static final Noop INSTANCE = new Noop();
+
+        private Noop() {
+        }
+
+        @Override
+        public void onAdded(Object ticket) {
+        }
+
+        @Override
+        public void onRemoved(int count) {
+        }
+    }
+}
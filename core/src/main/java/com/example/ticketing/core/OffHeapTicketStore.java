@@ -0,0 +1,87 @@
+package com.example.ticketing.core;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.function.Consumer;
+
+/**
+ * Ticket store that keeps tickets as fixed-width records in a native memory ring allocated with
+ * the Foreign Function and Memory API. Only a constant handful of fields lives on the heap
+ * whatever the capacity, so pools of tens of millions of tickets add nothing for the garbage
+ * collector to trace; tickets exist as heap objects only while being added or sold.
+ * The memory is allocated in an automatic arena and released once the store is unreachable.
+ *
+ * @param <T> the ticket type
+ */
+public class OffHeapTicketStore<T> implements TicketStore<T> {
+
+    private final TicketCodec<T> codec;
+    private final MemorySegment records;
+    private final long recordBytes;
+    private final int capacity;
+    private int head;
+    private int size;
+
+    /**
+     * Creates an empty store, allocating all of its native memory up front.
+     *
+     * @param capacity the maximum number of tickets held
+     * @param codec converts tickets to and from records
+     */
+    public OffHeapTicketStore(int capacity, TicketCodec<T> codec) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.codec = codec;
+        this.capacity = capacity;
+        this.recordBytes = codec.recordBytes();
+        this.records = Arena.ofAuto().allocate(recordBytes * capacity, Long.BYTES);
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean offer(T ticket) {
+        if (size == capacity) {
+            return false;
+        }
+        int tail = head + size < capacity ? head + size : head + size - capacity;
+        if (!codec.encode(ticket, records, tail * recordBytes)) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    @Override
+    public T poll() {
+        if (size == 0) {
+            return null;
+        }
+        T ticket = codec.decode(records, head * recordBytes);
+        head = head + 1 == capacity ? 0 : head + 1;
+        size--;
+        return ticket;
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        for (int i = 0, index = head; i < size; i++) {
+            action.accept(codec.decode(records, index * recordBytes));
+            index = index + 1 == capacity ? 0 : index + 1;
+        }
+    }
+
+    @Override
+    public long offHeapBytes() {
+        return records.byteSize();
+    }
+}
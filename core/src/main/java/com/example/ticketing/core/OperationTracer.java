@@ -0,0 +1,28 @@
+package com.example.ticketing.core;
+
+/**
+ * Receives every mutating operation of a {@link TicketEngine} once it has taken effect.
+ * Called while the engine lock is held, so calls arrive one at a time in exactly the order the
+ * operations were applied; implementations must only record the operation and return.
+ */
+public interface OperationTracer {
+
+    /**
+     * Called once when the tracer is attached, under the engine lock, so that the size passed
+     * here and the operations reported afterwards describe the pool exactly.
+     *
+     * @param size the number of tickets in the pool when tracing starts
+     */
+    default void onAttach(int size) {
+    }
+
+    /**
+     * Called after an operation has been applied.
+     *
+     * @param operation the operation
+     * @param requested the number of tickets asked for or offered
+     * @param result the number of tickets actually added or removed
+     * @param sizeAfter the number of tickets in the pool afterwards
+     */
+    void onOperation(PoolOperation operation, int requested, int result, int sizeAfter);
+}
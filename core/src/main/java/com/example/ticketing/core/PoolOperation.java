@@ -0,0 +1,21 @@
+package com.example.ticketing.core;
+
+/**
+ * The mutating operations of a {@link TicketEngine}, as reported to an {@link OperationTracer}.
+ */
+public enum PoolOperation {
+    /** Blocking add of one ticket. */
+    ADD,
+    /** Non-blocking add of one ticket, which fails when the pool is full. */
+    TRY_ADD,
+    /** Blocking sale of one ticket. */
+    REMOVE,
+    /** Non-blocking sale of up to a number of tickets. */
+    POLL,
+    /** Removal of unsold tickets for another pool. */
+    HAND_OVER,
+    /** Non-blocking add of a batch of new tickets. */
+    OFFER,
+    /** Non-blocking add of unsold tickets handed over from another pool. */
+    TAKE_OVER
+}
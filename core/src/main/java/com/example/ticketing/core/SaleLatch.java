@@ -0,0 +1,145 @@
+package com.example.ticketing.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires once when the last ticket of a sale is sold.
+ * A {@link TicketEngine} counts its sales down on the latch as they happen, so completion is
+ * detected by the sale itself rather than by anyone polling a counter. Waiters are released
+ * immediately; completion actions such as stopping actors run on a separate platform thread,
+ * never on the selling thread, which may still hold the pool lock. A platform thread is used
+ * because those actions typically wait inside monitors for virtual-thread actors to exit, which
+ * would pin the carrier threads those actors need.
+ */
+public class SaleLatch {
+
+    private final int totalTickets;
+    private final AtomicInteger remaining;
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private final List<Runnable> actions = new ArrayList<>();
+    private boolean fired; // guarded by actions
+    private volatile long completedAtMillis;
+
+    /**
+     * Creates a latch for a sale of the given size. A sale of zero tickets is complete at once.
+     *
+     * @param totalTickets the number of tickets that have to be sold
+     */
+    public SaleLatch(int totalTickets) {
+        this.totalTickets = Math.max(0, totalTickets);
+        this.remaining = new AtomicInteger(this.totalTickets);
+        if (this.totalTickets == 0) {
+            fire();
+        }
+    }
+
+    /**
+     * Counts sold tickets towards the sale, completing it when none remain.
+     *
+     * @param count the number of tickets just sold
+     */
+    public void recordSold(int count) {
+        if (count <= 0) {
+            return;
+        }
+        int left = remaining.addAndGet(-count);
+        if (left <= 0 && left + count > 0) {
+            fire(); // Only the sale that crossed zero fires
+        }
+    }
+
+    private void fire() {
+        completedAtMillis = System.currentTimeMillis();
+        completed.countDown();
+        List<Runnable> toRun;
+        synchronized (actions) {
+            fired = true;
+            toRun = new ArrayList<>(actions);
+            actions.clear();
+        }
+        runAsync(toRun);
+    }
+
+    /**
+     * Registers an action to run once the sale completes, or right away if it already has.
+     * Actions run in registration order on a dedicated daemon thread.
+     *
+     * @param action the action to run
+     */
+    public void onComplete(Runnable action) {
+        synchronized (actions) {
+            if (!fired) {
+                actions.add(action);
+                return;
+            }
+        }
+        runAsync(List.of(action));
+    }
+
+    private static void runAsync(List<Runnable> toRun) {
+        if (!toRun.isEmpty()) {
+            Thread.ofPlatform().daemon().name("sale-complete").start(() -> toRun.forEach(Runnable::run));
+        }
+    }
+
+    /**
+     * Waits until the sale completes or the timeout elapses.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout argument
+     * @return true if the sale completed, false if the timeout elapsed first
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return completed.await(timeout, unit);
+    }
+
+    /**
+     * Waits until the sale completes.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void await() throws InterruptedException {
+        completed.await();
+    }
+
+    /**
+     * Returns whether every ticket has been sold; a single volatile read.
+     *
+     * @return true once the sale is complete
+     */
+    public boolean isComplete() {
+        return completed.getCount() == 0;
+    }
+
+    /**
+     * Returns the number of tickets of the sale sold so far.
+     *
+     * @return the sold tickets, at most the total
+     */
+    public int getSold() {
+        return totalTickets - Math.max(0, remaining.get());
+    }
+
+    /**
+     * Returns the number of tickets the sale consists of.
+     *
+     * @return the total tickets
+     */
+    public int getTotalTickets() {
+        return totalTickets;
+    }
+
+    /**
+     * Returns when the sale completed.
+     *
+     * @return the completion time in epoch milliseconds, or 0 if the sale is still open
+     */
+    public long getCompletedAtMillis() {
+        return completedAtMillis;
+    }
+}
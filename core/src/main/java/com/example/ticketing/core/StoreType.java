@@ -0,0 +1,112 @@
+package com.example.ticketing.core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The ticket store implementations a pool can be configured with.
+ */
+public enum StoreType {
+
+    /**
+     * Tickets on the heap in an array ring, see {@link ArrayTicketStore}; integer tickets using
+     * {@link TicketCodec#int32()} are kept unboxed, see {@link IntArrayTicketStore}.
+     */
+    HEAP {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TicketStore<T> create(int capacity, TicketCodec<T> codec) {
+            if (codec instanceof Int32Codec) {
+                return (TicketStore<T>) new IntArrayTicketStore(capacity); // T is Integer
+            }
+            return new ArrayTicketStore<>(capacity);
+        }
+    },
+
+    /** Tickets as fixed-width records in native memory, see {@link OffHeapTicketStore}. */
+    OFF_HEAP {
+        @Override
+        public <T> TicketStore<T> create(int capacity, TicketCodec<T> codec) {
+            return new OffHeapTicketStore<>(capacity, codec);
+        }
+    },
+
+    /**
+     * Tickets as fixed-width records in a memory-mapped file that a restarted process re-attaches
+     * to, see {@link MappedTicketStore}. Without a file the mapping is backed by a deleted
+     * temporary file.
+     */
+    MAPPED {
+        @Override
+        public <T> TicketStore<T> create(int capacity, TicketCodec<T> codec) {
+            try {
+                return MappedTicketStore.createTemporary(capacity, codec);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public <T> TicketStore<T> open(Path file, int capacity, TicketCodec<T> codec, boolean reattach) {
+            try {
+                return reattach ? MappedTicketStore.open(file, capacity, codec) : MappedTicketStore.create(file, capacity, codec);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    };
+
+    /**
+     * Creates an empty store of this type.
+     *
+     * @param capacity the maximum number of tickets held
+     * @param codec converts tickets to records, for stores that keep them outside the heap
+     * @param <T> the ticket type
+     * @return the store
+     */
+    public abstract <T> TicketStore<T> create(int capacity, TicketCodec<T> codec);
+
+    /**
+     * Opens a store kept in the given file. Types that do not persist tickets ignore the file
+     * and return an empty store.
+     *
+     * @param file the file holding the store
+     * @param capacity the maximum number of tickets held if a new store is created
+     * @param codec converts tickets to records, for stores that keep them outside the heap
+     * @param reattach whether to keep the tickets already in the file rather than start empty
+     * @param <T> the ticket type
+     * @return the store
+     * @throws UncheckedIOException if the file cannot be opened or does not hold a ticket store
+     */
+    public <T> TicketStore<T> open(Path file, int capacity, TicketCodec<T> codec, boolean reattach) {
+        return create(capacity, codec);
+    }
+
+    /**
+     * Returns the configuration name of this type, such as {@code off-heap}.
+     *
+     * @return the lower-case, hyphenated name
+     */
+    public String configName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * Looks up a store type by a configuration name such as {@code off-heap}.
+     *
+     * @param name the name, case-insensitive, with hyphens or underscores
+     * @return the store type
+     * @throws IllegalArgumentException if no store type has that name
+     */
+    public static StoreType fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown ticket store '" + name + "', expected one of "
+                + Arrays.stream(values()).map(StoreType::configName).toList());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.ticketing.core;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts tickets to and from fixed-width records in native or mapped memory, for stores that
+ * keep tickets outside the Java heap.
+ *
+ * @param <T> the ticket type
+ */
+public interface TicketCodec<T> {
+
+    /**
+     * Returns the size of one record.
+     *
+     * @return the record width in bytes
+     */
+    int recordBytes();
+
+    /**
+     * Writes a ticket into the record at the given offset.
+     *
+     * @param ticket the ticket
+     * @param segment the memory holding the records
+     * @param offset the offset of the record
+     * @return false, without writing anything, if the ticket does not fit in a record
+     */
+    boolean encode(T ticket, MemorySegment segment, long offset);
+
+    /**
+     * Reads the ticket from the record at the given offset.
+     *
+     * @param segment the memory holding the records
+     * @param offset the offset of the record
+     * @return the ticket
+     */
+    T decode(MemorySegment segment, long offset);
+
+    /**
+     * Returns a codec for string tickets of up to {@code maxBytes} bytes of UTF-8, stored after a
+     * two-byte length.
+     *
+     * @param maxBytes the longest encoded ticket that fits
+     * @return the codec
+     */
+    static TicketCodec<String> utf8(int maxBytes) {
+        if (maxBytes <= 0 || maxBytes > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Ticket size must be between 1 and " + Short.MAX_VALUE + " bytes");
+        }
+        return new TicketCodec<>() {
+            @Override
+            public int recordBytes() {
+                return Short.BYTES + maxBytes;
+            }
+
+            @Override
+            public boolean encode(String ticket, MemorySegment segment, long offset) {
+                byte[] bytes = ticket.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > maxBytes) {
+                    return false;
+                }
+                segment.set(ValueLayout.JAVA_SHORT_UNALIGNED, offset, (short) bytes.length);
+                MemorySegment.copy(bytes, 0, segment, ValueLayout.JAVA_BYTE, offset + Short.BYTES, bytes.length);
+                return true;
+            }
+
+            @Override
+            public String decode(MemorySegment segment, long offset) {
+                byte[] bytes = new byte[segment.get(ValueLayout.JAVA_SHORT_UNALIGNED, offset)];
+                MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, offset + Short.BYTES, bytes, 0, bytes.length);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    /**
+     * Returns the codec for integer tickets stored as four bytes.
+     *
+     * @return the codec
+     */
+    static TicketCodec<Integer> int32() {
+        return Int32Codec.INSTANCE;
+    }
+}
@@ -0,0 +1,559 @@
+package com.example.ticketing.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, thread-safe pool of tickets shared by vendors and customers.
+ * All changes go through one {@link ReentrantLock} with separate not-full and not-empty
+ * conditions, non-fair for throughput unless the caller has no other way to keep buyers in
+ * order; the tickets themselves live in a pluggable {@link TicketStore}. Sizes and totals are
+ * volatile and written only under the lock, so status readers never contend with sales, and
+ * waiters can spin on them according to a {@link WaitStrategy} before parking.
+ * Batch operations move many tickets per lock acquisition for coalescing front ends.
+ * Sales are counted down on an optional {@link SaleLatch} as they happen, and every mutation can
+ * be reported in lock order to an {@link OperationTracer} for record and replay.
+ *
+ * @param <T> the ticket type
+ */
+public class TicketEngine<T> {
+
+    private final TicketStore<T> store;
+    private final int maxTicketCapacity;
+    private static final long NO_TIMEOUT = Long.MAX_VALUE;
+
+    private final WaitStrategy waitStrategy;
+    private final int restoredTickets;
+    private final ReentrantLock lock;
+    private final Condition notFull;
+    private final Condition notEmpty;
+    // Written only under the lock, read lock-free by rate controllers and status endpoints
+    private volatile int ticketCount;
+    private volatile int totalTicketsProcessed = 0;
+    private volatile int peakPoolSize;
+    private volatile int totalTicketsAdded = 0;
+    private volatile int totalTicketsSold = 0;
+    private volatile MutationListener<? super T> mutationListener = MutationListener.none();
+    private volatile SaleLatch saleLatch;
+    private volatile OperationTracer tracer;
+
+    /**
+     * Creates an engine whose waiters block straight away.
+     *
+     * @param store where the tickets are kept; its capacity is the pool capacity
+     */
+    public TicketEngine(TicketStore<T> store) {
+        this(store, WaitStrategy.BLOCKING);
+    }
+
+    /**
+     * Creates an engine over a store, which may already hold tickets restored from an earlier run;
+     * those tickets are for sale straight away but are not counted as added.
+     *
+     * @param store where the tickets are kept; its capacity is the pool capacity
+     * @param waitStrategy how producers and consumers wait for room or tickets
+     */
+    public TicketEngine(TicketStore<T> store, WaitStrategy waitStrategy) {
+        this(store, waitStrategy, false);
+    }
+
+    /**
+     * Creates an engine over a store, choosing whether its lock is handed over in arrival order.
+     * A fair lock keeps waiting customers served first come, first served at some cost in
+     * throughput; the non-fair default lets a newly arriving thread barge ahead of queued ones.
+     *
+     * @param store where the tickets are kept; its capacity is the pool capacity
+     * @param waitStrategy how producers and consumers wait for room or tickets
+     * @param fair whether the lock is granted to the longest-waiting thread
+     */
+    public TicketEngine(TicketStore<T> store, WaitStrategy waitStrategy, boolean fair) {
+        this.lock = new ReentrantLock(fair);
+        this.notFull = lock.newCondition();
+        this.notEmpty = lock.newCondition();
+        this.store = store;
+        this.maxTicketCapacity = store.capacity();
+        this.waitStrategy = waitStrategy;
+        this.restoredTickets = store.size();
+        this.ticketCount = restoredTickets;
+        this.peakPoolSize = restoredTickets;
+    }
+
+    /**
+     * Adds a ticket, waiting for space if the pool is full.
+     *
+     * @param ticket the ticket to add
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws IllegalArgumentException if the store cannot represent the ticket
+     */
+    public void addTicket(T ticket) throws InterruptedException {
+        spin(false, NO_TIMEOUT);
+        lock.lock();
+        try {
+            while (ticketCount >= maxTicketCapacity) {
+                await(notFull, false, NO_TIMEOUT);
+            }
+            append(ticket);
+            totalTicketsAdded++;
+            totalTicketsProcessed++;
+            trace(PoolOperation.ADD, 1, 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a ticket only if there is capacity right now, without waiting.
+     *
+     * @param ticket the ticket to add
+     * @return true if the ticket was added, false if the pool is full
+     * @throws IllegalArgumentException if the store cannot represent the ticket
+     */
+    public boolean tryAddTicket(T ticket) {
+        lock.lock();
+        try {
+            if (ticketCount >= maxTicketCapacity) {
+                trace(PoolOperation.TRY_ADD, 1, 0);
+                return false;
+            }
+            append(ticket);
+            totalTicketsAdded++;
+            totalTicketsProcessed++;
+            trace(PoolOperation.TRY_ADD, 1, 1);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Stores one ticket; the caller holds the lock and has checked capacity
+    private void append(T ticket) {
+        if (!store.offer(ticket)) {
+            throw new IllegalArgumentException("The ticket store cannot hold ticket " + ticket);
+        }
+        mutationListener.onAdded(ticket);
+        ticketCount++;
+        peakPoolSize = Math.max(peakPoolSize, ticketCount);
+        notEmpty.signal();
+    }
+
+    /**
+     * Removes and returns the oldest ticket, waiting if the pool is empty.
+     *
+     * @return the sold ticket
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public T removeTicket() throws InterruptedException {
+        spin(true, NO_TIMEOUT);
+        lock.lock();
+        try {
+            while (ticketCount == 0) {
+                await(notEmpty, true, NO_TIMEOUT);
+            }
+            T ticket = store.poll();
+            mutationListener.onRemoved(1);
+            ticketCount--;
+            totalTicketsSold++;
+            totalTicketsProcessed++;
+            notFull.signal();
+            countSold(1);
+            trace(PoolOperation.REMOVE, 1, 1);
+            return ticket;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes up to {@code maxTickets} tickets in a single lock acquisition without waiting.
+     * Used by batched front ends so that many queued purchases cost one pool operation.
+     *
+     * @param maxTickets the maximum number of tickets to remove
+     * @return the sold tickets, possibly empty if the pool has none
+     */
+    public List<T> pollTickets(int maxTickets) {
+        return poll(maxTickets, true);
+    }
+
+    /**
+     * Removes up to {@code maxTickets} unsold tickets so they can be moved to another pool.
+     * Unlike {@link #pollTickets}, the tickets are not counted as sold.
+     *
+     * @param maxTickets the maximum number of tickets to hand over
+     * @return the removed tickets, possibly empty if the pool has none
+     */
+    public List<T> handOverTickets(int maxTickets) {
+        return poll(maxTickets, false);
+    }
+
+    private List<T> poll(int maxTickets, boolean sold) {
+        List<T> tickets = new ArrayList<>(Math.max(0, Math.min(maxTickets, maxTicketCapacity)));
+        lock.lock();
+        try {
+            while (tickets.size() < maxTickets && ticketCount - tickets.size() > 0) {
+                tickets.add(store.poll());
+            }
+            if (!tickets.isEmpty()) {
+                mutationListener.onRemoved(tickets.size());
+                ticketCount -= tickets.size();
+                if (sold) {
+                    totalTicketsProcessed += tickets.size();
+                    totalTicketsSold += tickets.size();
+                    countSold(tickets.size());
+                }
+                notFull.signalAll();
+            }
+            trace(sold ? PoolOperation.POLL : PoolOperation.HAND_OVER, maxTickets, tickets.size());
+            return tickets;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void trace(PoolOperation operation, int requested, int result) {
+        OperationTracer current = tracer;
+        if (current != null) {
+            current.onOperation(operation, requested, result, ticketCount);
+        }
+    }
+
+    private void countSold(int count) {
+        SaleLatch latch = saleLatch;
+        if (latch != null) {
+            latch.recordSold(count);
+        }
+    }
+
+    /**
+     * Adds as many of the given tickets as the remaining capacity allows, without waiting.
+     * Stops early at a ticket the store cannot represent.
+     *
+     * @param tickets the tickets to add, in order
+     * @return the number of tickets actually added
+     */
+    public int offerTickets(List<? extends T> tickets) {
+        return offer(tickets, true);
+    }
+
+    /**
+     * Adds unsold tickets handed over from another pool, as far as capacity allows.
+     * Unlike {@link #offerTickets}, the tickets are not counted as newly added.
+     *
+     * @param tickets the tickets to take over, in order
+     * @return the number of tickets actually taken over
+     */
+    public int takeOverTickets(List<? extends T> tickets) {
+        return offer(tickets, false);
+    }
+
+    private int offer(List<? extends T> tickets, boolean added) {
+        lock.lock();
+        try {
+            int accepted = 0;
+            int size = ticketCount;
+            for (T ticket : tickets) {
+                if (size >= maxTicketCapacity) {
+                    break;
+                }
+                if (!store.offer(ticket)) {
+                    break; // The store cannot represent this ticket; the rest stay with the caller
+                }
+                mutationListener.onAdded(ticket);
+                size++;
+                accepted++;
+            }
+            if (accepted > 0) {
+                ticketCount = size;
+                peakPoolSize = Math.max(peakPoolSize, size);
+                if (added) {
+                    totalTicketsProcessed += accepted;
+                    totalTicketsAdded += accepted;
+                }
+                notEmpty.signalAll();
+            }
+            trace(added ? PoolOperation.OFFER : PoolOperation.TAKE_OVER, tickets.size(), accepted);
+            return accepted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until at least one ticket is available or the timeout elapses.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout argument
+     * @return true if tickets are available, false if the timeout elapsed first
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public boolean awaitTickets(long timeout, TimeUnit unit) throws InterruptedException {
+        long start = System.nanoTime();
+        long nanos = unit.toNanos(timeout);
+        if (spin(true, nanos)) {
+            return true;
+        }
+        nanos -= System.nanoTime() - start;
+        lock.lock();
+        try {
+            while (ticketCount == 0) {
+                if (nanos <= 0L) {
+                    return false;
+                }
+                nanos = await(notEmpty, true, nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Spins outside the lock while the wait strategy allows; returns whether the pool became ready
+    private boolean spin(boolean forTickets, long nanos) throws InterruptedException {
+        long deadline = nanos == NO_TIMEOUT ? 0L : System.nanoTime() + nanos;
+        for (int attempt = 0; forTickets ? ticketCount == 0 : ticketCount >= maxTicketCapacity; attempt++) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if ((nanos != NO_TIMEOUT && System.nanoTime() - deadline >= 0) || !waitStrategy.idle(attempt)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Waits once under the lock; busy-spinning waiters release the lock and spin instead of parking
+    private long await(Condition condition, boolean forTickets, long nanos) throws InterruptedException {
+        if (waitStrategy.parks()) {
+            if (nanos == NO_TIMEOUT) {
+                condition.await();
+                return NO_TIMEOUT;
+            }
+            return condition.awaitNanos(nanos);
+        }
+        long start = System.nanoTime();
+        lock.unlock();
+        try {
+            spin(forTickets, nanos);
+        } finally {
+            lock.lock();
+        }
+        return nanos == NO_TIMEOUT ? NO_TIMEOUT : nanos - (System.nanoTime() - start);
+    }
+
+    /**
+     * Sets the listener notified of every ticket added to or removed from the pool.
+     *
+     * @param listener the listener, or {@link MutationListener#none()} to stop observing
+     */
+    public void setMutationListener(MutationListener<? super T> listener) {
+        this.mutationListener = listener;
+    }
+
+    /**
+     * Stops notifying the mutation listener and runs an action while no operation can change the
+     * pool, so every mutation already reported happened before the action and none is reported
+     * after it. Used to retire a pool that is being replaced.
+     *
+     * @param whileLocked the action to run once the listener is detached
+     */
+    public void detachMutationListener(Runnable whileLocked) {
+        lock.lock();
+        try {
+            mutationListener = MutationListener.none();
+            whileLocked.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns how producers and consumers wait for room or tickets.
+     *
+     * @return the wait strategy
+     */
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * Returns whether the lock is granted to the longest-waiting thread.
+     *
+     * @return whether the engine was created fair
+     */
+    public boolean isFair() {
+        return lock.isFair();
+    }
+
+    /**
+     * Sets the tracer that every mutating operation is reported to, and tells it the current size.
+     *
+     * @param tracer the tracer, or null to stop tracing
+     */
+    public void setOperationTracer(OperationTracer tracer) {
+        lock.lock();
+        try {
+            this.tracer = tracer;
+            if (tracer != null) {
+                tracer.onAttach(ticketCount);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the latch that sales from this pool are counted down on.
+     *
+     * @param latch the latch of the current sale, or null to stop counting
+     */
+    public void setSaleLatch(SaleLatch latch) {
+        this.saleLatch = latch;
+    }
+
+    /**
+     * Returns the latch that sales from this pool are counted down on.
+     *
+     * @return the latch of the current sale, or null if none is set
+     */
+    public SaleLatch getSaleLatch() {
+        return saleLatch;
+    }
+
+    /**
+     * Copies the tickets currently in the pool, in order, and runs an action before any further
+     * change can happen, e.g. to start observing changes from exactly this point.
+     *
+     * @param whileLocked action run while the pool is locked, after the copy is taken
+     * @return the tickets in the pool, oldest first
+     */
+    public List<T> snapshotTickets(Runnable whileLocked) {
+        lock.lock();
+        try {
+            List<T> tickets = new ArrayList<>(ticketCount);
+            store.forEach(tickets::add);
+            whileLocked.run();
+            return tickets;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current number of tickets in the pool.
+     *
+     * @return the number of tickets currently in the pool
+     */
+    public int getTicketCount() {
+        return ticketCount;
+    }
+
+    /**
+     * Returns the number of tickets that can still be added before the pool is full.
+     *
+     * @return the free capacity
+     */
+    public int getRemainingCapacity() {
+        return maxTicketCapacity - ticketCount;
+    }
+
+    /**
+     * Returns the maximum capacity of the pool.
+     *
+     * @return the maximum number of tickets that can be stored in the pool
+     */
+    public int getMaxCapacity() {
+        return maxTicketCapacity;
+    }
+
+    /**
+     * Gets statistics about the pool operations.
+     * Reads the volatile counters without taking the lock, so it never contends with sales.
+     *
+     * @return a map containing the current size, capacity, peak size and running totals
+     */
+    public Map<String, Integer> getStatistics() {
+        Map<String, Integer> stats = new HashMap<>();
+        stats.put("currentSize", ticketCount);
+        stats.put("maxCapacity", maxTicketCapacity);
+        stats.put("totalProcessed", totalTicketsProcessed);
+        stats.put("peakPoolSize", peakPoolSize);
+        stats.put("totalAdded", totalTicketsAdded);
+        stats.put("totalSold", totalTicketsSold);
+        return stats;
+    }
+
+    /**
+     * Returns the kind of store behind the pool, the memory it holds outside the heap, how many
+     * tickets it already held when the pool was created and whether the lock is fair.
+     *
+     * @return the store class name, capacity, off-heap bytes, restored tickets and lock fairness
+     */
+    public Map<String, Object> getStoreStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("store", store.getClass().getSimpleName());
+        stats.put("capacity", maxTicketCapacity);
+        stats.put("offHeapBytes", store.offHeapBytes());
+        stats.put("restoredTickets", restoredTickets);
+        stats.put("fairLock", lock.isFair());
+        return stats;
+    }
+
+    /**
+     * Writes the tickets in the pool through to durable storage, for stores that persist them.
+     */
+    public void flush() {
+        lock.lock();
+        try {
+            store.flush();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the total number of tickets processed (both added and sold).
+     *
+     * @return the total number of tickets processed
+     */
+    public int getTotalTicketsProcessed() {
+        return totalTicketsProcessed;
+    }
+
+    /**
+     * Returns the total number of tickets added to the pool.
+     *
+     * @return the number of tickets added
+     */
+    public int getTotalTicketsAdded() {
+        return totalTicketsAdded;
+    }
+
+    /**
+     * Returns the total number of tickets sold from the pool.
+     *
+     * @return the number of tickets sold
+     */
+    public int getTotalTicketsSold() {
+        return totalTicketsSold;
+    }
+
+    /**
+     * Returns the largest number of tickets the pool has held at once.
+     *
+     * @return the peak pool size
+     */
+    public int getPeakPoolSize() {
+        return peakPoolSize;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[size=%d, capacity=%d, processed=%d, peak=%d]",
+            getClass().getSimpleName(), ticketCount, maxTicketCapacity, totalTicketsProcessed, peakPoolSize);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.ticketing.core;
+
+import java.util.function.Consumer;
+
+/**
+ * Bounded FIFO storage behind a {@link TicketEngine}.
+ * Stores are not thread-safe: the engine serializes every call under its lock, which lets
+ * implementations use plain fields and choose their own memory layout.
+ *
+ * @param <T> the ticket type
+ */
+public interface TicketStore<T> {
+
+    /**
+     * Returns the maximum number of tickets the store can hold.
+     *
+     * @return the capacity
+     */
+    int capacity();
+
+    /**
+     * Returns the number of tickets currently held.
+     *
+     * @return the size
+     */
+    int size();
+
+    /**
+     * Appends a ticket at the tail.
+     *
+     * @param ticket the ticket to append
+     * @return true if it was stored, false if the store is full or cannot represent the ticket
+     */
+    boolean offer(T ticket);
+
+    /**
+     * Removes the ticket at the head.
+     *
+     * @return the oldest ticket, or null if the store is empty
+     */
+    T poll();
+
+    /**
+     * Visits the held tickets, oldest first, without removing them.
+     *
+     * @param action the action applied to each ticket
+     */
+    void forEach(Consumer<? super T> action);
+
+    /**
+     * Returns the memory the store holds outside the Java heap.
+     *
+     * @return the native or mapped memory in bytes, 0 for heap stores
+     */
+    default long offHeapBytes() {
+        return 0;
+    }
+
+    /**
+     * Writes the held tickets through to durable storage, for stores that persist them.
+     */
+    default void flush() {
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.ticketing.core;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * How producers and consumers of a {@link TicketEngine} wait for room or tickets.
+ * Spinning waiters poll the engine's volatile size outside the lock, so a pool that refills or
+ * drains within microseconds hands over without the park/unpark and context switch of a
+ * condition wait, at the cost of burning CPU while they spin.
+ */
+public enum WaitStrategy {
+
+    /** Park on the pool's condition straight away. Cheapest on CPU; the default. */
+    BLOCKING(0, 0),
+
+    /**
+     * Spin with {@link Thread#onSpinWait()}, then yield, then park on the condition.
+     * Catches quick handoffs while bounding the CPU wasted on long waits.
+     */
+    SPIN_THEN_PARK(1_000, 100),
+
+    /**
+     * Spin until ready and never park. Lowest handoff latency, but every waiter occupies a CPU,
+     * so it is only meant for as many platform threads as there are spare cores; a spinning
+     * virtual thread never releases its carrier.
+     */
+    BUSY_SPIN(Integer.MAX_VALUE, 0);
+
+    private final int spinTries;
+    private final int yieldTries;
+
+    WaitStrategy(int spinTries, int yieldTries) {
+        this.spinTries = spinTries;
+        this.yieldTries = yieldTries;
+    }
+
+    /**
+     * Backs off once after a waiter found the pool not ready.
+     *
+     * @param attempt the number of earlier unsuccessful checks by this waiter
+     * @return true to check again, false once the waiter should park on the pool's condition
+     */
+    boolean idle(int attempt) {
+        if (attempt < spinTries || this == BUSY_SPIN) {
+            Thread.onSpinWait();
+            return true;
+        }
+        if (attempt < spinTries + yieldTries) {
+            Thread.yield();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether waiters ever park on the pool's conditions. Waiters of a strategy that never
+     * parks must run on platform threads, since a spinning virtual thread pins its carrier.
+     *
+     * @return false only for {@link #BUSY_SPIN}
+     */
+    public boolean parks() {
+        return this != BUSY_SPIN;
+    }
+
+    /**
+     * Looks up a strategy by a configuration name such as {@code spin-then-park}.
+     *
+     * @param name the name, case-insensitive, with hyphens or underscores
+     * @return the strategy
+     * @throws IllegalArgumentException if no strategy has that name
+     */
+    public static WaitStrategy fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown wait strategy '" + name + "', expected one of "
+                + Arrays.toString(values()).toLowerCase(Locale.ROOT).replace('_', '-'));
+        }
+    }
+}
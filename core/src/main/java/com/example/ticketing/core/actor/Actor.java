@@ -0,0 +1,104 @@
+package com.example.ticketing.core.actor;
+
+// Importing Duration and TimeUnit for bounded waits on the actor's thread
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+// Importing AtomicReference to update the lifecycle state safely from several threads
+import java.util.concurrent.atomic.AtomicReference;
+
+public abstract class Actor implements Runnable {
+    // Base class for vendors and customers, tracking their thread and lifecycle state
+
+    private final String actorId;
+    // Unique identifier for the actor
+    private volatile boolean running = true;
+    // A flag to control the actor's running state; volatile ensures visibility across threads
+    private final AtomicReference<ActorState> state = new AtomicReference<>(ActorState.STARTING);
+    // Current lifecycle state, readable from HTTP threads while the actor runs
+    private volatile Runnable exitListener;
+    // Invoked once the actor has exited, e.g. to deregister it
+    private volatile Thread thread;
+    // The thread running this actor, created when the actor is started
+
+    // Constructor to initialize the actor ID, also used as the thread name
+    protected Actor(String actorId) {
+        this.actorId = actorId;
+    }
+
+    // Starts the actor on a thread from the given builder (platform or virtual)
+    public void start(Thread.Builder threadBuilder) {
+        if (thread != null) {
+            throw new IllegalStateException("Actor " + actorId + " has already been started");
+        }
+        thread = threadBuilder.name(actorId).start(this);
+    }
+
+    // Starts the actor on a new virtual thread
+    public void start() {
+        start(Thread.ofVirtual());
+    }
+
+    // Asks the actor to stop; it drains its current step and then exits
+    public void requestStop() {
+        running = false; // Sets the running flag to false to exit the loop
+        state.updateAndGet(current -> current == ActorState.STOPPED ? current : ActorState.DRAINING);
+        Thread current = thread;
+        if (current != null) {
+            current.interrupt(); // Interrupts the thread if it's waiting or sleeping
+        }
+    }
+
+    // Waits up to the given time for the actor's thread to exit
+    public boolean awaitStop(long timeout, TimeUnit unit) throws InterruptedException {
+        Thread current = thread;
+        if (current == null) {
+            return true;
+        }
+        return current.join(Duration.ofNanos(unit.toNanos(timeout)));
+    }
+
+    // Whether the actor's thread has started and not yet exited
+    public boolean isAlive() {
+        Thread current = thread;
+        return current != null && current.isAlive();
+    }
+
+    // Registers a callback to run when the actor exits; must be set before the actor starts
+    public void onExit(Runnable listener) {
+        this.exitListener = listener;
+    }
+
+    // Getter for the actor's unique ID
+    public String getActorId() {
+        return actorId;
+    }
+
+    // Getter for the actor's lifecycle state
+    public ActorState getActorState() {
+        return state.get();
+    }
+
+    // Whether the actor should keep working
+    protected boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public final void run() {
+        state.compareAndSet(ActorState.STARTING, ActorState.RUNNING);
+        // Only moves to RUNNING if no stop was requested before the thread began
+        try {
+            runActor();
+        } finally {
+            state.set(ActorState.STOPPED);
+            // Marks the actor as stopped however the loop was exited
+            Runnable listener = exitListener;
+            if (listener != null) {
+                listener.run();
+            }
+        }
+    }
+
+    // The actor's main loop, which should exit once isRunning() returns false
+    protected abstract void runActor();
+}
@@ -0,0 +1,9 @@
+package com.example.ticketing.core.actor;
+
+// Lifecycle states of a vendor or customer actor
+public enum ActorState {
+    STARTING, // Created and registered, but the thread has not begun running yet
+    RUNNING,  // Actively adding or purchasing tickets
+    DRAINING, // Asked to stop; finishing its current step before exiting
+    STOPPED   // The thread has exited
+}
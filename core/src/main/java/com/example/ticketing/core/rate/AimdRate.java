@@ -0,0 +1,88 @@
+package com.example.ticketing.core.rate;
+
+/**
+ * Additive-increase / multiplicative-decrease rate control steering a pool towards a target fill.
+ * Below the target the rate grows by a fixed step (and never falls short of a caller-supplied
+ * floor such as the measured drain rate); above it, or whenever a producer finds the pool full,
+ * the rate is cut by a constant factor. Both front ends pace vendors with it.
+ * Steps are serialised so concurrent callers never lose an update; the rate is read lock-free.
+ */
+public class AimdRate {
+
+    /** Outcome of one control step. */
+    public enum Decision { INCREASE, DECREASE, HOLD }
+
+    private final double targetFill;
+    private final double minRate;
+    private final double maxRate;
+    private final double additiveStep;
+    private final double decreaseFactor;
+    private volatile double rate; // written only under this object's monitor
+
+    /**
+     * Creates a controller.
+     *
+     * @param targetFill the pool occupancy, between 0 and 1, to steer towards
+     * @param initialRate the starting rate
+     * @param minRate the lowest rate a decrease can reach
+     * @param maxRate the highest rate an increase can reach
+     * @param additiveStep how much the rate grows per increase
+     * @param decreaseFactor the factor, below 1, applied on each decrease
+     */
+    public AimdRate(double targetFill, double initialRate, double minRate, double maxRate,
+                    double additiveStep, double decreaseFactor) {
+        if (minRate > maxRate || decreaseFactor <= 0 || decreaseFactor >= 1) {
+            throw new IllegalArgumentException("Invalid AIMD parameters");
+        }
+        this.targetFill = targetFill;
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.additiveStep = additiveStep;
+        this.decreaseFactor = decreaseFactor;
+        this.rate = Math.max(minRate, Math.min(maxRate, initialRate));
+    }
+
+    /**
+     * Applies one control step for the observed pool occupancy.
+     *
+     * @param occupancy the current pool fill, between 0 and 1
+     * @param floorRate the least rate to run at while the pool is below target, e.g. the drain rate
+     * @return what the step did to the rate
+     */
+    public synchronized Decision adjust(double occupancy, double floorRate) {
+        if (occupancy > targetFill) {
+            decrease();
+            return Decision.DECREASE;
+        }
+        if (occupancy < targetFill) {
+            rate = Math.min(maxRate, Math.max(rate + additiveStep, floorRate));
+            return Decision.INCREASE;
+        }
+        return Decision.HOLD;
+    }
+
+    /**
+     * Cuts the rate multiplicatively, e.g. when a producer found the pool full.
+     */
+    public synchronized void decrease() {
+        rate = Math.max(minRate, rate * decreaseFactor);
+    }
+
+    /**
+     * Returns the current rate.
+     *
+     * @return the rate
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Returns the occupancy this controller steers towards.
+     *
+     * @return the target fill, between 0 and 1
+     */
+    public double getTargetFill() {
+        return targetFill;
+    }
+}
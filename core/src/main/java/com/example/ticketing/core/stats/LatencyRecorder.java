@@ -0,0 +1,55 @@
+package com.example.ticketing.core.stats;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records operation latencies into a preallocated array and summarizes them as percentiles.
+ * Safe for concurrent recorders; recording never allocates, and samples beyond the capacity
+ * are dropped. Summaries are meant to be taken once recording has finished.
+ */
+public class LatencyRecorder {
+    private final long[] samples; // Preallocated so recording never allocates
+    private final AtomicInteger count = new AtomicInteger();
+
+    public LatencyRecorder(int maxSamples) {
+        this.samples = new long[maxSamples];
+    }
+
+    public void record(long nanos) {
+        int index = count.getAndIncrement();
+        if (index < samples.length) {
+            samples[index] = nanos;  // Samples beyond the capacity are dropped
+        }
+    }
+
+    // Percentiles in microseconds; call once recording has finished
+    public Map<String, Object> summarize() {
+        int n = Math.min(count.get(), samples.length);
+        long[] sorted = Arrays.copyOf(samples, n);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("samples", n);
+        if (n == 0) {
+            return summary;
+        }
+        long sum = 0;
+        for (long sample : sorted) {
+            sum += sample;
+        }
+        summary.put("meanMicros", sum / n / 1000.0);
+        summary.put("p50Micros", percentile(sorted, 0.50));
+        summary.put("p90Micros", percentile(sorted, 0.90));
+        summary.put("p99Micros", percentile(sorted, 0.99));
+        summary.put("p999Micros", percentile(sorted, 0.999));
+        summary.put("maxMicros", sorted[n - 1] / 1000.0);
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+}
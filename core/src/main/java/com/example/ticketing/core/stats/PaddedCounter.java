@@ -0,0 +1,64 @@
+package com.example.ticketing.core.stats;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Cache-line padding placed before the counter value
+abstract class PaddedCounterLhs {
+    long p01, p02, p03, p04, p05, p06, p07;
+}
+
+// The counter value itself, isolated between two blocks of padding
+abstract class PaddedCounterValue extends PaddedCounterLhs {
+    protected volatile long value;
+}
+
+// Cache-line padding placed after the counter value
+abstract class PaddedCounterRhs extends PaddedCounterValue {
+    long p11, p12, p13, p14, p15, p16, p17;
+}
+
+/**
+ * A single-writer counter padded onto its own cache line.
+ * Each actor owns one counter and is its only writer, so increments need no atomic
+ * read-modify-write; the value is published with release semantics and can be read
+ * from any thread. The padding keeps counters of different actors, which are allocated
+ * close together, from invalidating each other's cache lines (false sharing).
+ */
+public final class PaddedCounter extends PaddedCounterRhs {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(PaddedCounterValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Adds one to the counter. Must only be called by the owning thread.
+     */
+    public void increment() {
+        VALUE.setRelease(this, (long) VALUE.getOpaque(this) + 1);
+    }
+
+    /**
+     * Adds the given amount to the counter. Must only be called by the owning thread.
+     *
+     * @param delta the amount to add
+     */
+    public void add(long delta) {
+        VALUE.setRelease(this, (long) VALUE.getOpaque(this) + delta);
+    }
+
+    /**
+     * Returns the current value; safe to call from any thread.
+     *
+     * @return the counter value
+     */
+    public long get() {
+        return (long) VALUE.getAcquire(this);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.ticketing.core.trace;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import com.example.ticketing.core.PoolOperation;
+
+/**
+ * The outcome of replaying a {@link Trace}.
+ *
+ * @param mode how the trace was replayed
+ * @param store the simple class name of the ticket store replayed against
+ * @param operations the number of operations replayed
+ * @param threads the number of recorded threads
+ * @param divergenceCount the number of operations whose outcome differed from the recording
+ * @param divergences descriptions of the first divergences
+ * @param recordedNanos the time between the first and last recorded operation
+ * @param replayNanos the wall-clock time the replay took
+ * @param operationNanos the total time spent in each kind of operation during the replay
+ * @param operationCounts the number of replayed operations of each kind
+ * @param expectedSold the number of tickets sold in the recording
+ * @param actualSold the number of tickets sold in the replay
+ * @param expectedFinalSize the pool size at the end of the recording
+ * @param actualFinalSize the pool size at the end of the replay
+ */
+public record ReplayReport(TraceReplayer.Mode mode, String store, int operations, int threads,
+                           int divergenceCount, List<String> divergences,
+                           long recordedNanos, long replayNanos,
+                           Map<PoolOperation, Long> operationNanos, Map<PoolOperation, Integer> operationCounts,
+                           int expectedSold, int actualSold, int expectedFinalSize, int actualFinalSize) {
+
+    /**
+     * Returns whether the replay reproduced the recording exactly.
+     *
+     * @return true if no operation diverged and the final state matches
+     */
+    public boolean matches() {
+        return divergenceCount == 0 && expectedSold == actualSold && expectedFinalSize == actualFinalSize;
+    }
+
+    /**
+     * Converts the report into a map suitable for JSON serialization.
+     *
+     * @return the report as nested maps
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> perOperation = new LinkedHashMap<>();
+        operationCounts.forEach((operation, count) -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", count);
+            stats.put("meanNanos", count == 0 ? 0 : operationNanos.getOrDefault(operation, 0L) / count);
+            perOperation.put(operation.name(), stats);
+        });
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("mode", mode.name().toLowerCase());
+        map.put("store", store);
+        map.put("matches", matches());
+        map.put("operations", operations);
+        map.put("threads", threads);
+        map.put("divergenceCount", divergenceCount);
+        map.put("divergences", divergences);
+        map.put("expectedSold", expectedSold);
+        map.put("actualSold", actualSold);
+        map.put("expectedFinalSize", expectedFinalSize);
+        map.put("actualFinalSize", actualFinalSize);
+        map.put("recordedMillis", recordedNanos / 1_000_000.0);
+        map.put("replayMillis", replayNanos / 1_000_000.0);
+        map.put("perOperation", perOperation);
+        return map;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.ticketing.core.trace;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import com.example.ticketing.core.PoolOperation;
+
+/**
+ * A recorded sequence of pool operations, in the order they took effect.
+ * <p>
+ * Binary format: a header of the magic number {@code "TPT2"}, the pool capacity and the number of
+ * tickets in the pool when recording started as ints, and the recording start time as a long
+ * (epoch millis), followed by one record per operation: the
+ * operation ordinal as a byte, then the thread id, the nanoseconds since the previous record, the
+ * requested count, the result count and the pool size afterwards, each as an unsigned LEB128
+ * varint. A typical record takes six to eight bytes. Traces in the older {@code "TPT1"} format,
+ * without the initial size, are read as starting from an empty pool.
+ *
+ * @param capacity the capacity of the recorded pool
+ * @param initialSize the number of tickets in the pool when recording started
+ * @param startedAtMillis when recording started
+ * @param entries the recorded operations
+ */
+public record Trace(int capacity, int initialSize, long startedAtMillis, List<TraceEntry> entries) {
+
+    static final int MAGIC = 0x54505432; // "TPT2"
+    private static final int MAGIC_V1 = 0x54505431; // "TPT1", without the initial size
+
+    /**
+     * Returns the time between the first and the last recorded operation.
+     *
+     * @return the recorded duration in nanoseconds
+     */
+    public long durationNanos() {
+        return entries.isEmpty() ? 0 : entries.get(entries.size() - 1).nanos() - entries.get(0).nanos();
+    }
+
+    /**
+     * Reads a trace written by a {@link TraceRecorder}.
+     *
+     * @param file the trace file
+     * @return the trace
+     * @throws IOException if the file cannot be read or is not a trace
+     */
+    public static Trace read(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a trace written by a {@link TraceRecorder}.
+     *
+     * @param stream the stream to read; not closed
+     * @return the trace
+     * @throws IOException if the stream cannot be read or is not a trace
+     */
+    public static Trace read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        int magic = in.readInt();
+        if (magic != MAGIC && magic != MAGIC_V1) {
+            throw new IOException("Not a ticket pool trace");
+        }
+        int capacity = in.readInt();
+        int initialSize = magic == MAGIC ? in.readInt() : 0;
+        long startedAtMillis = in.readLong();
+        PoolOperation[] operations = PoolOperation.values();
+        List<TraceEntry> entries = new ArrayList<>();
+        long nanos = 0;
+        int op;
+        while ((op = in.read()) != -1) {
+            if (op >= operations.length) {
+                throw new IOException("Unknown operation " + op + " in record " + entries.size());
+            }
+            long threadId = readVarLong(in);
+            nanos += readVarLong(in);
+            entries.add(new TraceEntry(nanos, threadId, operations[op],
+                (int) readVarLong(in), (int) readVarLong(in), (int) readVarLong(in)));
+        }
+        return new Trace(capacity, initialSize, startedAtMillis, entries);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Truncated trace record");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in trace");
+    }
+}
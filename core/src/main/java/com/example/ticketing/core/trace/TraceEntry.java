@@ -0,0 +1,25 @@
+package com.example.ticketing.core.trace;
+
+import com.example.ticketing.core.PoolOperation;
+
+/**
+ * One recorded pool operation.
+ *
+ * @param nanos the time the operation took effect, in nanoseconds since recording started
+ * @param threadId the id of the thread that performed the operation
+ * @param operation the operation
+ * @param requested the number of tickets asked for or offered
+ * @param result the number of tickets actually added or removed
+ * @param sizeAfter the number of tickets in the pool afterwards
+ */
+public record TraceEntry(long nanos, long threadId, PoolOperation operation, int requested, int result, int sizeAfter) {
+
+    /**
+     * Returns whether the operation removed tickets from the pool.
+     *
+     * @return true for sales and hand-overs
+     */
+    public boolean removes() {
+        return operation == PoolOperation.REMOVE || operation == PoolOperation.POLL || operation == PoolOperation.HAND_OVER;
+    }
+}
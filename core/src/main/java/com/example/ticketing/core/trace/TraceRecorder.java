@@ -0,0 +1,145 @@
+package com.example.ticketing.core.trace;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import com.example.ticketing.core.OperationTracer;
+import com.example.ticketing.core.PoolOperation;
+
+/**
+ * Records the operations of a {@link com.example.ticketing.core.TicketEngine} into a compact
+ * in-memory binary trace (see {@link Trace} for the format) that can be written out and replayed
+ * with a {@link TraceReplayer}.
+ * The engine reports operations while holding its lock, so the recorded order is the order in
+ * which the operations actually took effect, and recording only appends a few bytes to a buffer.
+ * The trace starts from the pool size at the moment the recorder is attached, so a recording can
+ * start on a running pool. Once the byte limit is reached further operations are dropped and the
+ * trace is marked truncated.
+ */
+public class TraceRecorder implements OperationTracer {
+
+    private static final int MAX_RECORD_BYTES = 1 + 5 * 10;
+
+    private final int capacity;
+    private final int maxBytes;
+    private final long startedAtMillis = System.currentTimeMillis();
+    private final long startedAtNanos = System.nanoTime();
+    private byte[] buffer = new byte[4096];
+    private int length;
+    private int entryCount;
+    private long lastNanos;
+    private int initialSize;
+    private boolean truncated;
+
+    /**
+     * Creates a recorder.
+     *
+     * @param capacity the capacity of the recorded pool, stored in the trace header
+     * @param maxBytes the maximum size of the recorded operations in bytes
+     */
+    public TraceRecorder(int capacity, int maxBytes) {
+        this.capacity = capacity;
+        this.maxBytes = maxBytes;
+        this.lastNanos = startedAtNanos;
+    }
+
+    @Override
+    public synchronized void onAttach(int size) {
+        initialSize = size;
+    }
+
+    @Override
+    public synchronized void onOperation(PoolOperation operation, int requested, int result, int sizeAfter) {
+        if (length + MAX_RECORD_BYTES > maxBytes) {
+            truncated = true;
+            return;
+        }
+        if (length + MAX_RECORD_BYTES > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.min(maxBytes, buffer.length * 2));
+        }
+        long now = System.nanoTime();
+        buffer[length++] = (byte) operation.ordinal();
+        writeVarLong(Thread.currentThread().threadId());
+        writeVarLong(Math.max(0, now - lastNanos));
+        writeVarLong(requested);
+        writeVarLong(result);
+        writeVarLong(sizeAfter);
+        lastNanos = now;
+        entryCount++;
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[length++] = (byte) value;
+    }
+
+    /**
+     * Writes the trace recorded so far.
+     *
+     * @param out the stream to write to; flushed but not closed
+     * @throws IOException if writing fails
+     */
+    public synchronized void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(Trace.MAGIC);
+        data.writeInt(capacity);
+        data.writeInt(initialSize);
+        data.writeLong(startedAtMillis);
+        data.write(buffer, 0, length);
+        data.flush();
+    }
+
+    /**
+     * Writes the trace recorded so far to a file, replacing any existing file.
+     *
+     * @param file the file to write
+     * @throws IOException if writing fails
+     */
+    public void writeTo(Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            writeTo(out);
+        }
+    }
+
+    /**
+     * Returns the number of operations recorded.
+     *
+     * @return the number of recorded operations
+     */
+    public synchronized int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Returns the number of tickets in the pool when the recorder was attached.
+     *
+     * @return the initial pool size
+     */
+    public synchronized int getInitialSize() {
+        return initialSize;
+    }
+
+    /**
+     * Returns the size of the recorded operations in bytes, excluding the header.
+     *
+     * @return the trace size in bytes
+     */
+    public synchronized int getSizeBytes() {
+        return length;
+    }
+
+    /**
+     * Returns whether operations were dropped because the byte limit was reached.
+     *
+     * @return true if the trace is incomplete
+     */
+    public synchronized boolean isTruncated() {
+        return truncated;
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.ticketing.core.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+import com.example.ticketing.core.PoolOperation;
+import com.example.ticketing.core.TicketEngine;
+import com.example.ticketing.core.TicketStore;
+
+/**
+ * Re-executes a recorded {@link Trace} against a fresh {@link TicketEngine} backed by any
+ * {@link TicketStore} implementation, and reports where the outcome diverges from the recording
+ * and how long the operations took.
+ * <p>
+ * {@link Mode#SEQUENTIAL} applies the operations one at a time in the recorded lock order, which
+ * reproduces the recorded run deterministically: every result and pool size must match, and
+ * tickets must come out in the order they went in. {@link Mode#CONCURRENT} replays each recorded
+ * thread's operations on its own thread, optionally paced by the recorded timestamps, to
+ * re-create the contention of the recorded run. Each operation there moves exactly its recorded
+ * number of tickets, waiting for room or tickets as the original blocking calls did; if the new
+ * interleaving leaves an operation waiting too long, the replay stops waiting, finishes without
+ * blocking and reports the operations that could not be reproduced.
+ */
+public class TraceReplayer {
+
+    /** How a trace is replayed. */
+    public enum Mode { SEQUENTIAL, CONCURRENT }
+
+    private static final int MAX_REPORTED_DIVERGENCES = 20;
+    private static final long BLOCKING_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final IntFunction<? extends TicketStore<Integer>> storeFactory;
+    private final boolean paced;
+
+    /**
+     * Creates a replayer.
+     *
+     * @param storeFactory creates the store to replay against, given the recorded capacity
+     * @param paced whether concurrent replays wait for each operation's recorded time
+     */
+    public TraceReplayer(IntFunction<? extends TicketStore<Integer>> storeFactory, boolean paced) {
+        this.storeFactory = storeFactory;
+        this.paced = paced;
+    }
+
+    /**
+     * Replays a trace, starting from a pool pre-filled with the number of tickets it held when
+     * recording started.
+     *
+     * @param trace the trace to replay
+     * @param mode how to replay it
+     * @return the replay report
+     * @throws InterruptedException if interrupted while waiting for replay threads
+     */
+    public ReplayReport replay(Trace trace, Mode mode) throws InterruptedException {
+        TicketStore<Integer> store = storeFactory.apply(trace.capacity());
+        for (int ticket = 0; ticket < trace.initialSize(); ticket++) {
+            store.offer(ticket);
+        }
+        TicketEngine<Integer> engine = new TicketEngine<>(store);
+        Run run = new Run(engine, trace.initialSize());
+        Map<Long, List<TraceEntry>> byThread = groupByThread(trace.entries());
+
+        long start = System.nanoTime();
+        if (mode == Mode.SEQUENTIAL) {
+            replaySequential(trace.entries(), run);
+        } else {
+            replayConcurrent(byThread, run);
+        }
+        long replayNanos = System.nanoTime() - start;
+
+        int expectedSold = 0;
+        for (TraceEntry entry : trace.entries()) {
+            if (entry.operation() == PoolOperation.REMOVE || entry.operation() == PoolOperation.POLL) {
+                expectedSold += entry.result();
+            }
+        }
+        int expectedFinalSize = trace.entries().isEmpty() ? trace.initialSize()
+            : trace.entries().get(trace.entries().size() - 1).sizeAfter();
+
+        Map<PoolOperation, Long> operationNanos = new EnumMap<>(PoolOperation.class);
+        Map<PoolOperation, Integer> operationCounts = new EnumMap<>(PoolOperation.class);
+        for (PoolOperation operation : PoolOperation.values()) {
+            int count = (int) run.counts.get(operation.ordinal());
+            if (count > 0) {
+                operationCounts.put(operation, count);
+                operationNanos.put(operation, run.nanos.get(operation.ordinal()));
+            }
+        }
+        return new ReplayReport(mode, store.getClass().getSimpleName(), trace.entries().size(), byThread.size(),
+            run.divergenceCount.get(), List.copyOf(run.divergences), trace.durationNanos(), replayNanos,
+            operationNanos, operationCounts, expectedSold, engine.getTotalTicketsSold(),
+            expectedFinalSize, engine.getTicketCount());
+    }
+
+    private static Map<Long, List<TraceEntry>> groupByThread(List<TraceEntry> entries) {
+        Map<Long, List<TraceEntry>> byThread = new LinkedHashMap<>();
+        for (TraceEntry entry : entries) {
+            byThread.computeIfAbsent(entry.threadId(), id -> new ArrayList<>()).add(entry);
+        }
+        return byThread;
+    }
+
+    private void replaySequential(List<TraceEntry> entries, Run run) {
+        int nextExpected = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            TraceEntry entry = entries.get(i);
+            Outcome outcome = run.apply(entry);
+            for (Integer ticket : outcome.removed()) {
+                if (ticket != nextExpected) {
+                    run.diverged(i, entry, "ticket " + ticket + " came out, expected " + nextExpected);
+                }
+                nextExpected = ticket + 1;
+            }
+            if (outcome.result() != entry.result() || run.engine.getTicketCount() != entry.sizeAfter()) {
+                run.diverged(i, entry, "result " + outcome.result() + " size " + run.engine.getTicketCount());
+            }
+        }
+    }
+
+    private void replayConcurrent(Map<Long, List<TraceEntry>> byThread, Run run) throws InterruptedException {
+        long firstNanos = byThread.values().stream().mapToLong(list -> list.get(0).nanos()).min().orElse(0);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (List<TraceEntry> entries : byThread.values()) {
+            threads.add(Thread.ofPlatform().daemon().name("replay-" + entries.get(0).threadId()).start(() -> {
+                try {
+                    ready.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long origin = System.nanoTime() - firstNanos;
+                for (int i = 0; i < entries.size(); i++) {
+                    TraceEntry entry = entries.get(i);
+                    if (paced) {
+                        long wait = origin + entry.nanos() - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    }
+                    int result = run.applyRecorded(entry, BLOCKING_TIMEOUT_NANOS).result();
+                    if (result != entry.result()) {
+                        run.diverged(i, entry, "result " + result + " after giving up waiting");
+                    }
+                }
+            }));
+        }
+        ready.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    // The number of tickets an operation added or removed, and the tickets it removed
+    private record Outcome(int result, List<Integer> removed) {}
+
+    // Replay state shared by all replay threads
+    private static final class Run {
+        final TicketEngine<Integer> engine;
+        final AtomicInteger nextTicket = new AtomicInteger();
+        final AtomicLongArray counts = new AtomicLongArray(PoolOperation.values().length);
+        final AtomicLongArray nanos = new AtomicLongArray(PoolOperation.values().length);
+        final AtomicInteger divergenceCount = new AtomicInteger();
+        final List<String> divergences = Collections.synchronizedList(new ArrayList<>());
+        volatile boolean gaveUp; // Set on the first timeout so other threads stop waiting too
+
+        Run(TicketEngine<Integer> engine, int initialSize) {
+            this.engine = engine;
+            nextTicket.set(initialSize); // Tickets 0 to initialSize - 1 are already in the pool
+        }
+
+        // Applies one operation once, with the recorded request, as the engine would have seen it
+        Outcome apply(TraceEntry entry) {
+            long start = System.nanoTime();
+            List<Integer> removed = new ArrayList<>();
+            int moved = attempt(entry.operation(), entry.requested(), removed);
+            time(entry, start);
+            return new Outcome(moved, removed);
+        }
+
+        // Applies one operation until it has moved its recorded number of tickets or times out
+        Outcome applyRecorded(TraceEntry entry, long timeoutNanos) {
+            long start = System.nanoTime();
+            List<Integer> removed = new ArrayList<>();
+            int moved = attempt(entry.operation(), entry.result(), removed);
+            long deadline = start + timeoutNanos;
+            while (moved < entry.result() && !gaveUp) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    gaveUp = true;
+                    break;
+                }
+                if (entry.removes()) {
+                    try {
+                        engine.awaitTickets(remaining, TimeUnit.NANOSECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                } else {
+                    LockSupport.parkNanos(10_000); // The engine has no wait-for-room without adding
+                }
+                moved += attempt(entry.operation(), entry.result() - moved, removed);
+            }
+            time(entry, start);
+            return new Outcome(moved, removed);
+        }
+
+        private int attempt(PoolOperation operation, int count, List<Integer> removed) {
+            List<Integer> taken;
+            switch (operation) {
+                case REMOVE, POLL -> taken = engine.pollTickets(count);
+                case HAND_OVER -> taken = engine.handOverTickets(count);
+                default -> {
+                    return add(operation, count);
+                }
+            }
+            removed.addAll(taken);
+            return taken.size();
+        }
+
+        private int add(PoolOperation operation, int count) {
+            int first = nextTicket.getAndAdd(count);
+            int accepted;
+            if (count == 1 && (operation == PoolOperation.ADD || operation == PoolOperation.TRY_ADD)) {
+                accepted = engine.tryAddTicket(first) ? 1 : 0;
+            } else {
+                List<Integer> tickets = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    tickets.add(first + i);
+                }
+                accepted = operation == PoolOperation.TAKE_OVER ? engine.takeOverTickets(tickets) : engine.offerTickets(tickets);
+            }
+            // Hand back unused ids when no other thread took ids since, so tickets stay consecutive
+            nextTicket.compareAndSet(first + count, first + accepted);
+            return accepted;
+        }
+
+        private void time(TraceEntry entry, long start) {
+            counts.incrementAndGet(entry.operation().ordinal());
+            nanos.addAndGet(entry.operation().ordinal(), System.nanoTime() - start);
+        }
+
+        void diverged(int index, TraceEntry entry, String actual) {
+            if (divergenceCount.incrementAndGet() <= MAX_REPORTED_DIVERGENCES) {
+                divergences.add(String.format("#%d thread %d %s(%d): recorded result %d size %d, replayed %s",
+                    index, entry.threadId(), entry.operation(), entry.requested(), entry.result(), entry.sizeAfter(), actual));
+            }
+        }
+    }
+}
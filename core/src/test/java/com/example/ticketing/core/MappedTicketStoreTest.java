@@ -0,0 +1,109 @@
+package com.example.ticketing.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedTicketStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reattachKeepsTicketsInOrderAcrossWrapAround() throws IOException {
+        Path file = dir.resolve("pool.dat");
+        MappedTicketStore<Integer> store = MappedTicketStore.create(file, 4, TicketCodec.int32());
+        for (int ticket = 1; ticket <= 4; ticket++) {
+            assertTrue(store.offer(ticket));
+        }
+        store.poll();
+        store.poll();
+        store.offer(5);
+        store.offer(6); // Wraps around the end of the ring
+        store.flush();
+
+        MappedTicketStore<Integer> reopened = MappedTicketStore.open(file, 100, TicketCodec.int32());
+
+        assertEquals(4, reopened.capacity()); // The stored capacity wins over the requested one
+        assertEquals(4, reopened.size());
+        List<Integer> tickets = new ArrayList<>();
+        reopened.forEach(tickets::add);
+        assertEquals(List.of(3, 4, 5, 6), tickets);
+        assertEquals(3, reopened.poll());
+    }
+
+    @Test
+    void reattachedStoreIsRestoredIntoTheEngineButNotCountedAsAdded() throws IOException, InterruptedException {
+        Path file = dir.resolve("pool.dat");
+        TicketEngine<Integer> first = new TicketEngine<>(StoreType.MAPPED.open(file, 8, TicketCodec.int32(), true));
+        first.offerTickets(List.of(10, 11, 12));
+        first.removeTicket();
+
+        TicketEngine<Integer> second = new TicketEngine<>(StoreType.MAPPED.open(file, 8, TicketCodec.int32(), true));
+
+        assertEquals(2, second.getTicketCount());
+        assertEquals(0, second.getTotalTicketsAdded());
+        assertEquals(2, second.getStoreStatistics().get("restoredTickets"));
+        assertEquals(11, second.removeTicket());
+    }
+
+    @Test
+    void openWithoutAFileCreatesAnEmptyStore() throws IOException {
+        MappedTicketStore<Integer> store = MappedTicketStore.open(dir.resolve("new.dat"), 3, TicketCodec.int32());
+
+        assertEquals(3, store.capacity());
+        assertEquals(0, store.size());
+        assertNull(store.poll());
+    }
+
+    @Test
+    void createWithoutReattachDiscardsTheOldTickets() throws IOException {
+        Path file = dir.resolve("pool.dat");
+        StoreType.MAPPED.open(file, 4, TicketCodec.int32(), true).offer(1);
+
+        TicketStore<Integer> fresh = StoreType.MAPPED.open(file, 4, TicketCodec.int32(), false);
+
+        assertEquals(0, fresh.size());
+    }
+
+    @Test
+    void rejectsAFileWithADifferentRecordWidth() throws IOException {
+        Path file = dir.resolve("pool.dat");
+        MappedTicketStore.create(file, 4, TicketCodec.int32());
+
+        assertThrows(IllegalArgumentException.class, () -> MappedTicketStore.open(file, 4, TicketCodec.utf8(16)));
+    }
+
+    @Test
+    void rejectsAFileThatIsNotATicketStore() throws IOException {
+        Path file = Files.write(dir.resolve("other.dat"), new byte[128]);
+
+        assertThrows(IOException.class, () -> MappedTicketStore.open(file, 4, TicketCodec.int32()));
+    }
+
+    @Test
+    void rejectsAFileWhoseCountersAreCorrupt() throws IOException {
+        Path file = dir.resolve("pool.dat");
+        MappedTicketStore.create(file, 4, TicketCodec.int32());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // More tickets added than removed plus the capacity: tail 9 against head 0
+            channel.write(ByteBuffer.allocate(8).order(ByteOrder.nativeOrder()).putLong(0, 9), 24);
+        }
+
+        IOException error = assertThrows(IOException.class, () -> MappedTicketStore.open(file, 4, TicketCodec.int32()));
+        assertTrue(error.getMessage().startsWith("Corrupt"));
+    }
+}
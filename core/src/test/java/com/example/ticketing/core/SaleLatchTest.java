@@ -0,0 +1,129 @@
+package com.example.ticketing.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SaleLatchTest {
+
+    @Test
+    void completesWhenTheLastTicketIsSold() {
+        SaleLatch latch = new SaleLatch(5);
+
+        latch.recordSold(3);
+        assertFalse(latch.isComplete());
+        assertEquals(3, latch.getSold());
+        assertEquals(0, latch.getCompletedAtMillis());
+
+        latch.recordSold(2);
+        assertTrue(latch.isComplete());
+        assertEquals(5, latch.getSold());
+        assertTrue(latch.getCompletedAtMillis() > 0);
+    }
+
+    @Test
+    void oversellingIsCappedAtTheTotal() {
+        SaleLatch latch = new SaleLatch(2);
+
+        latch.recordSold(5);
+        latch.recordSold(1);
+
+        assertTrue(latch.isComplete());
+        assertEquals(2, latch.getSold());
+    }
+
+    @Test
+    void emptySaleIsCompleteAtOnce() {
+        SaleLatch latch = new SaleLatch(0);
+
+        assertTrue(latch.isComplete());
+        assertEquals(0, latch.getTotalTickets());
+    }
+
+    @Test
+    void actionsRunOnceInOrderOffTheSellingThread() throws InterruptedException {
+        SaleLatch latch = new SaleLatch(1);
+        List<String> ran = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        Thread seller = Thread.currentThread();
+        latch.onComplete(() -> {
+            ran.add("first" + (Thread.currentThread() == seller ? " on seller" : ""));
+            done.countDown();
+        });
+        latch.onComplete(() -> {
+            ran.add("second");
+            done.countDown();
+        });
+
+        latch.recordSold(1);
+        latch.recordSold(1);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("first", "second"), ran);
+    }
+
+    @Test
+    void actionRegisteredAfterCompletionRunsRightAway() throws InterruptedException {
+        SaleLatch latch = new SaleLatch(1);
+        latch.recordSold(1);
+        CountDownLatch ran = new CountDownLatch(1);
+
+        latch.onComplete(ran::countDown);
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void concurrentSalesFireExactlyOnce() throws InterruptedException {
+        int sellers = 8;
+        int perSeller = 1_000;
+        SaleLatch latch = new SaleLatch(sellers * perSeller);
+        AtomicInteger fired = new AtomicInteger();
+        CountDownLatch ran = new CountDownLatch(1);
+        latch.onComplete(() -> {
+            fired.incrementAndGet();
+            ran.countDown();
+        });
+
+        Thread[] threads = new Thread[sellers];
+        for (int i = 0; i < sellers; i++) {
+            threads[i] = Thread.ofPlatform().start(() -> {
+                for (int j = 0; j < perSeller; j++) {
+                    latch.recordSold(1);
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50); // Give a second, wrongly fired action time to show up
+        assertEquals(1, fired.get());
+    }
+
+    @Test
+    void engineCountsItsSalesDownOnTheLatch() throws InterruptedException {
+        TicketEngine<Integer> engine = new TicketEngine<>(StoreType.HEAP.create(4, TicketCodec.int32()));
+        SaleLatch latch = new SaleLatch(3);
+        engine.setSaleLatch(latch);
+        engine.offerTickets(List.of(1, 2, 3, 4));
+
+        engine.removeTicket();
+        engine.handOverTickets(1); // Moved to another pool, not sold
+        engine.pollTickets(1);
+        assertFalse(latch.isComplete());
+        assertEquals(2, latch.getSold());
+
+        engine.pollTickets(1);
+        assertTrue(latch.isComplete());
+    }
+}
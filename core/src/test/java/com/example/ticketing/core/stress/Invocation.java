@@ -0,0 +1,27 @@
+package com.example.ticketing.core.stress;
+
+import java.util.Arrays;
+
+/**
+ * One completed operation in a concurrent history, with the interval during which it ran.
+ *
+ * @param thread the index of the thread that ran it
+ * @param kind the operation
+ * @param args the tickets offered, or for {@link Kind#POLL} the maximum number to remove
+ * @param result the outcome: 1 or 0 for {@link Kind#TRY_ADD}, the number accepted for
+ *               {@link Kind#OFFER}, the removed tickets for {@link Kind#POLL}, the size for
+ *               {@link Kind#SIZE}
+ * @param invoked the {@link System#nanoTime()} just before the call
+ * @param responded the {@link System#nanoTime()} just after the call returned
+ */
+record Invocation(int thread, Kind kind, int[] args, int[] result, long invoked, long responded) {
+
+    /** The non-blocking operations whose linearizability is checked. */
+    enum Kind { TRY_ADD, OFFER, POLL, SIZE }
+
+    @Override
+    public String toString() {
+        return String.format("T%d %s%s -> %s [%d..%d]", thread, kind, Arrays.toString(args), Arrays.toString(result),
+            invoked, responded);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.ticketing.core.stress;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decides whether a concurrent history of pool operations is linearizable with respect to a
+ * sequential bounded FIFO queue: whether the operations can be put in one order, consistent with
+ * their real-time order, in which every result is what the sequential queue would have returned.
+ * Uses the Wing and Gong search with memoization of visited (linearized set, queue state) pairs,
+ * which is exhaustive and fast for the small histories the harness generates.
+ */
+final class LinearizabilityChecker {
+
+    private final List<Invocation> history;
+    private final int capacity;
+    private final Set<String> visited = new HashSet<>();
+
+    private LinearizabilityChecker(List<Invocation> history, int capacity) {
+        if (history.size() > 63) {
+            throw new IllegalArgumentException("Histories are limited to 63 operations");
+        }
+        this.history = history;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Checks a history against an initially empty queue.
+     *
+     * @param history the completed operations
+     * @param capacity the queue capacity
+     * @return whether the history is linearizable
+     */
+    static boolean isLinearizable(List<Invocation> history, int capacity) {
+        return new LinearizabilityChecker(history, capacity).search(0L, new int[0]);
+    }
+
+    private boolean search(long linearized, int[] queue) {
+        if (linearized == (1L << history.size()) - 1) {
+            return true;
+        }
+        if (!visited.add(linearized + ":" + Arrays.toString(queue))) {
+            return false;
+        }
+        // An operation can go next only if no pending operation finished before it started
+        long firstResponse = Long.MAX_VALUE;
+        for (int i = 0; i < history.size(); i++) {
+            if ((linearized & (1L << i)) == 0) {
+                firstResponse = Math.min(firstResponse, history.get(i).responded());
+            }
+        }
+        for (int i = 0; i < history.size(); i++) {
+            Invocation invocation = history.get(i);
+            if ((linearized & (1L << i)) == 0 && invocation.invoked() <= firstResponse) {
+                int[] next = apply(queue, invocation);
+                if (next != null && search(linearized | (1L << i), next)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // The sequential specification: the queue after the operation, or null if its result is impossible
+    private int[] apply(int[] queue, Invocation invocation) {
+        int[] args = invocation.args();
+        int[] result = invocation.result();
+        switch (invocation.kind()) {
+            case TRY_ADD -> {
+                int added = queue.length < capacity ? 1 : 0;
+                if (result[0] != added) {
+                    return null;
+                }
+                return added == 1 ? append(queue, args, 1) : queue;
+            }
+            case OFFER -> {
+                int accepted = Math.min(args.length, capacity - queue.length);
+                return result[0] == accepted ? append(queue, args, accepted) : null;
+            }
+            case POLL -> {
+                int removed = Math.min(args[0], queue.length);
+                if (!Arrays.equals(result, Arrays.copyOf(queue, removed))) {
+                    return null;
+                }
+                return Arrays.copyOfRange(queue, removed, queue.length);
+            }
+            case SIZE -> {
+                return result[0] == queue.length ? queue : null;
+            }
+            default -> throw new IllegalStateException("Unknown operation " + invocation.kind());
+        }
+    }
+
+    private static int[] append(int[] queue, int[] tickets, int count) {
+        int[] next = Arrays.copyOf(queue, queue.length + count);
+        System.arraycopy(tickets, 0, next, queue.length, count);
+        return next;
+    }
+}
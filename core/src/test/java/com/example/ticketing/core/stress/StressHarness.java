@@ -0,0 +1,384 @@
+package com.example.ticketing.core.stress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntFunction;
+import com.example.ticketing.core.StoreType;
+import com.example.ticketing.core.TicketCodec;
+import com.example.ticketing.core.TicketEngine;
+import com.example.ticketing.core.WaitStrategy;
+
+/**
+ * Concurrency correctness harness for pool implementations, in the style of Lincheck and jcstress.
+ * <p>
+ * The linearizability check runs many small random scenarios: a few threads each perform a few
+ * non-blocking operations ({@code tryAdd}, {@code offer}, {@code poll}, {@code size}) on a tiny
+ * pool, started together to maximize overlap and repeated many times. Every resulting history is
+ * model-checked by a {@link LinearizabilityChecker} against a sequential bounded FIFO queue, which
+ * catches lost or duplicated tickets, reordering, capacity overruns and torn size reads.
+ * <p>
+ * The invariant stress run drives a small pool with blocking producers and consumers that move a
+ * fixed number of uniquely numbered tickets, mixing single and batch operations. It checks that
+ * the capacity is never exceeded, that every ticket is sold exactly once, that the pool's peak
+ * size statistic matches the peak actually reached, and that the run never stalls: with exact
+ * per-thread quotas, threads still waiting while no ticket has moved for a while can only be a lost
+ * wakeup or deadlock.
+ * <p>
+ * The default build runs a small seeded configuration as a unit test; run the full harness with
+ * {@code mvn -Pstress verify} in the core module, or directly:
+ * <pre>
+ * java -cp core/target/classes:core/target/test-classes com.example.ticketing.core.stress.StressHarness
+ *      [--stores heap,off-heap,...] [--wait-strategies blocking,...] [--scenarios N] [--iterations N]
+ *      [--tickets N] [--seed N]
+ * </pre>
+ * The exit code is 1 if any violation was found.
+ */
+public class StressHarness {
+
+
+    private static final int MAX_REPORTED_VIOLATIONS = 10;
+    private static final long STALL_TIMEOUT_SECONDS = 10;
+    private static final int STRESS_THREADS = 8;
+
+    /**
+     * The outcome of running the harness against one pool implementation.
+     *
+     * @param target the name of the implementation
+     * @param histories the number of concurrent histories model-checked
+     * @param ticketsMoved the number of tickets moved by the invariant stress run
+     * @param violationCount the number of violations found
+     * @param violations descriptions of the first violations
+     */
+    public record Result(String target, int histories, int ticketsMoved, int violationCount, List<String> violations) {
+
+        /**
+         * Returns whether no violation was found.
+         *
+         * @return true if the implementation passed
+         */
+        public boolean passed() {
+            return violationCount == 0;
+        }
+    }
+
+    private final int scenarios;
+    private final int iterations;
+    private final int tickets;
+    private final long seed;
+
+    /**
+     * Creates a harness.
+     *
+     * @param scenarios the number of random linearizability scenarios
+     * @param iterations how many times each scenario is run and checked
+     * @param tickets the number of tickets moved by the invariant stress run
+     * @param seed the seed for generating scenarios
+     */
+    public StressHarness(int scenarios, int iterations, int tickets, long seed) {
+        this.scenarios = scenarios;
+        this.iterations = iterations;
+        this.tickets = tickets;
+        this.seed = seed;
+    }
+
+    /**
+     * Runs every check against a pool implementation.
+     *
+     * @param name the name of the implementation, for the report
+     * @param factory creates an empty pool of the given capacity
+     * @return the result
+     * @throws InterruptedException if interrupted while waiting for worker threads
+     */
+    public Result run(String name, IntFunction<? extends StressTarget> factory) throws InterruptedException {
+        List<String> violations = new ArrayList<>();
+        int[] violationCount = new int[1];
+        Violations report = message -> {
+            synchronized (violations) { // Reported from worker threads too
+                if (violationCount[0]++ < MAX_REPORTED_VIOLATIONS) {
+                    violations.add(message);
+                }
+            }
+        };
+        int histories = checkLinearizability(factory, report);
+        // Capacity 1 makes every operation block on the other side, the classic lost wakeup setting
+        checkInvariants(factory, 1, tickets / 2, report);
+        checkInvariants(factory, 4, tickets - tickets / 2, report);
+        synchronized (violations) {
+            return new Result(name, histories, tickets, violationCount[0], List.copyOf(violations));
+        }
+    }
+
+    private interface Violations {
+        void report(String message);
+    }
+
+    // A scenario: pool capacity, tickets added before the threads start, and each thread's operations
+    private record Scenario(int capacity, int[] prefill, List<List<Op>> threads) {}
+
+    private record Op(Invocation.Kind kind, int[] args) {}
+
+    private int checkLinearizability(IntFunction<? extends StressTarget> factory, Violations report)
+            throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(seed);
+        int histories = 0;
+        for (int s = 0; s < scenarios; s++) {
+            Scenario scenario = randomScenario(random);
+            for (int i = 0; i < iterations; i++) {
+                List<Invocation> history = execute(scenario, factory.apply(scenario.capacity()));
+                histories++;
+                if (!LinearizabilityChecker.isLinearizable(history, scenario.capacity())) {
+                    StringBuilder message = new StringBuilder("Non-linearizable history at capacity ")
+                        .append(scenario.capacity()).append(':');
+                    history.forEach(invocation -> message.append("\n    ").append(invocation));
+                    report.report(message.toString());
+                    break; // One counterexample per scenario is enough
+                }
+            }
+        }
+        return histories;
+    }
+
+    private static Scenario randomScenario(SplittableRandom random) {
+        int capacity = random.nextInt(1, 4);
+        int[] nextTicket = {1};
+        int[] prefill = new int[random.nextInt(0, capacity + 1)];
+        for (int i = 0; i < prefill.length; i++) {
+            prefill[i] = nextTicket[0]++;
+        }
+        List<List<Op>> threads = new ArrayList<>();
+        int threadCount = random.nextInt(2, 4);
+        for (int t = 0; t < threadCount; t++) {
+            List<Op> ops = new ArrayList<>();
+            int opCount = random.nextInt(2, 5);
+            for (int i = 0; i < opCount; i++) {
+                // Tickets are fixed per scenario, so every run of it is checked against the same values
+                Op op = switch (random.nextInt(4)) {
+                    case 0 -> new Op(Invocation.Kind.TRY_ADD, new int[] {nextTicket[0]++});
+                    case 1 -> new Op(Invocation.Kind.OFFER, new int[] {nextTicket[0]++, nextTicket[0]++});
+                    case 2 -> new Op(Invocation.Kind.POLL, new int[] {random.nextInt(1, 3)});
+                    default -> new Op(Invocation.Kind.SIZE, new int[0]);
+                };
+                ops.add(op);
+            }
+            threads.add(ops);
+        }
+        return new Scenario(capacity, prefill, threads);
+    }
+
+    private static List<Invocation> execute(Scenario scenario, StressTarget target) throws InterruptedException {
+        List<Invocation> history = new ArrayList<>();
+        for (int ticket : scenario.prefill()) {
+            history.add(invoke(target, -1, new Op(Invocation.Kind.TRY_ADD, new int[] {ticket})));
+        }
+        int threadCount = scenario.threads().size();
+        List<List<Invocation>> perThread = new ArrayList<>();
+        Thread[] threads = new Thread[threadCount];
+        boolean[] go = new boolean[1];
+        Object gate = new Object();
+        for (int t = 0; t < threadCount; t++) {
+            int index = t;
+            List<Invocation> own = new ArrayList<>();
+            perThread.add(own);
+            threads[t] = Thread.ofPlatform().daemon().start(() -> {
+                synchronized (gate) {
+                    while (!go[0]) {
+                        try {
+                            gate.wait();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                }
+                for (Op op : scenario.threads().get(index)) {
+                    own.add(invoke(target, index, op));
+                }
+            });
+        }
+        synchronized (gate) {
+            go[0] = true;
+            gate.notifyAll(); // Release all threads at once so their operations overlap
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        perThread.forEach(history::addAll);
+        return history;
+    }
+
+    private static Invocation invoke(StressTarget target, int thread, Op op) {
+        long invoked = System.nanoTime();
+        int[] result = switch (op.kind()) {
+            case TRY_ADD -> new int[] {target.tryAdd(op.args()[0]) ? 1 : 0};
+            case OFFER -> new int[] {target.offer(op.args())};
+            case POLL -> target.poll(op.args()[0]);
+            case SIZE -> new int[] {target.size()};
+        };
+        long responded = System.nanoTime();
+        return new Invocation(thread, op.kind(), op.args(), result, invoked, responded);
+    }
+
+    private void checkInvariants(IntFunction<? extends StressTarget> factory, int capacity, int ticketCount,
+                                 Violations report) throws InterruptedException {
+        int producers = STRESS_THREADS / 2;
+        int consumers = STRESS_THREADS / 2;
+        StressTarget target = factory.apply(capacity);
+        AtomicIntegerArray sold = new AtomicIntegerArray(ticketCount);
+        AtomicInteger moved = new AtomicInteger();
+        int[] overCapacity = new int[1];
+        List<Thread> threads = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            int first = ticketCount * p / producers;
+            int last = ticketCount * (p + 1) / producers;
+            threads.add(Thread.ofPlatform().daemon().name("stress-producer-" + p).start(() -> {
+                SplittableRandom random = new SplittableRandom(seed + first);
+                int next = first;
+                try {
+                    while (next < last) {
+                        if (random.nextBoolean()) {
+                            target.add(next++);
+                        } else {
+                            int[] batch = new int[Math.min(last - next, random.nextInt(1, 4))];
+                            for (int i = 0; i < batch.length; i++) {
+                                batch[i] = next + i;
+                            }
+                            next += target.offer(batch);
+                        }
+                        if (target.size() > capacity) {
+                            synchronized (overCapacity) {
+                                overCapacity[0]++;
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    // Stopped after a stall
+                }
+            }));
+        }
+        for (int c = 0; c < consumers; c++) {
+            int quota = ticketCount * (c + 1) / consumers - ticketCount * c / consumers;
+            long consumerSeed = seed - c;
+            threads.add(Thread.ofPlatform().daemon().name("stress-consumer-" + c).start(() -> {
+                SplittableRandom random = new SplittableRandom(consumerSeed);
+                int bought = 0;
+                try {
+                    while (bought < quota) {
+                        if (random.nextBoolean()) {
+                            markSold(sold, moved, target.remove(), report);
+                            bought++;
+                        } else {
+                            for (int ticket : target.poll(Math.min(quota - bought, random.nextInt(1, 4)))) {
+                                markSold(sold, moved, ticket, report);
+                                bought++;
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    // Stopped after a stall
+                }
+            }));
+        }
+
+        int lastMoved = -1;
+        long lastProgress = System.nanoTime();
+        waiting:
+        for (Thread thread : threads) {
+            while (thread.isAlive()) {
+                thread.join(100);
+                if (moved.get() != lastMoved) {
+                    lastMoved = moved.get();
+                    lastProgress = System.nanoTime();
+                } else if (System.nanoTime() - lastProgress > TimeUnit.SECONDS.toNanos(STALL_TIMEOUT_SECONDS)) {
+                    break waiting;
+                }
+            }
+        }
+        long blocked = threads.stream().filter(Thread::isAlive).count();
+        if (blocked > 0) {
+            report.report(String.format("%d thread(s) still waiting after no ticket moved for %d s, with %d of %d"
+                + " ticket(s) in the pool: lost wakeup or deadlock", blocked, STALL_TIMEOUT_SECONDS, target.size(), capacity));
+            threads.forEach(Thread::interrupt);
+            return;
+        }
+
+        if (overCapacity[0] > 0) {
+            report.report(overCapacity[0] + " size read(s) above the capacity of " + capacity);
+        }
+        int lost = 0;
+        for (int i = 0; i < ticketCount; i++) {
+            if (sold.get(i) == 0) {
+                lost++;
+            }
+        }
+        if (lost > 0) {
+            report.report(lost + " ticket(s) never sold");
+        }
+        if (target.size() != 0) {
+            report.report("Pool holds " + target.size() + " ticket(s) after every ticket was sold");
+        }
+        if (target.peakSize() > capacity) {
+            report.report("Peak size " + target.peakSize() + " exceeds the capacity of " + capacity);
+        }
+        int observedPeak = target.observedPeakSize();
+        if (observedPeak >= 0 && observedPeak != target.peakSize()) {
+            report.report("Peak size statistic " + target.peakSize() + " differs from the observed peak " + observedPeak);
+        }
+    }
+
+    private static void markSold(AtomicIntegerArray sold, AtomicInteger moved, int ticket, Violations report) {
+        moved.incrementAndGet();
+        if (ticket < 0 || ticket >= sold.length()) {
+            report.report("Sold unknown ticket " + ticket);
+        } else if (sold.getAndIncrement(ticket) > 0) {
+            report.report("Ticket " + ticket + " sold twice");
+        }
+    }
+
+    /**
+     * Runs the harness against the selected ticket stores, each behind a {@link TicketEngine} with
+     * each of the selected wait strategies.
+     *
+     * @param args command-line flags, see the class documentation
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> flags = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            flags.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        String stores = flags.getOrDefault("stores",
+            String.join(",", Arrays.stream(StoreType.values()).map(StoreType::configName).toList()));
+        // Busy-spinning waiters need a core each; with fewer cores the stress run only crawls along
+        String strategies = flags.getOrDefault("wait-strategies",
+            Runtime.getRuntime().availableProcessors() > STRESS_THREADS ? "blocking,spin-then-park,busy-spin"
+                : "blocking,spin-then-park");
+        StressHarness harness = new StressHarness(
+            Integer.parseInt(flags.getOrDefault("scenarios", "200")),
+            Integer.parseInt(flags.getOrDefault("iterations", "50")),
+            Integer.parseInt(flags.getOrDefault("tickets", "200000")),
+            Long.parseLong(flags.getOrDefault("seed", String.valueOf(System.nanoTime()))));
+
+        boolean passed = true;
+        for (String name : stores.split(",")) {
+            StoreType store = StoreType.fromName(name);
+            for (String strategyName : strategies.split(",")) {
+                WaitStrategy strategy = WaitStrategy.fromName(strategyName);
+                long start = System.nanoTime();
+                Result result = harness.run(store.configName() + "/" + strategyName.trim(),
+                    capacity -> StressTarget.of(new TicketEngine<>(store.create(capacity, TicketCodec.int32()), strategy)));
+                System.out.printf("%s: %d histories checked, %d tickets moved, %d violation(s) in %.1f s (seed %d)%n",
+                    result.target(), result.histories(), result.ticketsMoved(), result.violationCount(),
+                    (System.nanoTime() - start) / 1e9, harness.seed);
+                result.violations().forEach(violation -> System.out.println("  " + violation));
+                passed &= result.passed();
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+}
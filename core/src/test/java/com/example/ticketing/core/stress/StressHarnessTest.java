@@ -0,0 +1,42 @@
+package com.example.ticketing.core.stress;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import com.example.ticketing.core.StoreType;
+import com.example.ticketing.core.TicketCodec;
+import com.example.ticketing.core.TicketEngine;
+import com.example.ticketing.core.WaitStrategy;
+
+/**
+ * Runs the {@link StressHarness} with a small, fixed-seed configuration against every store and
+ * every parking wait strategy, so the default build catches regressions that the full
+ * {@code -Pstress} run would. Busy-spinning is left to the full run, as it needs a core per thread.
+ */
+class StressHarnessTest {
+
+    private static final long SEED = 0x5EEDL;
+
+    static Stream<Arguments> targets() {
+        return Arrays.stream(StoreType.values()).flatMap(store -> Stream.of(
+            Arguments.of(store, WaitStrategy.BLOCKING),
+            Arguments.of(store, WaitStrategy.SPIN_THEN_PARK)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("targets")
+    void smallSeededRunFindsNoViolations(StoreType store, WaitStrategy strategy) throws InterruptedException {
+        StressHarness harness = new StressHarness(30, 10, 4_000, SEED);
+
+        StressHarness.Result result = harness.run(store.configName() + "/" + strategy,
+            capacity -> StressTarget.of(new TicketEngine<>(store.create(capacity, TicketCodec.int32()), strategy)));
+
+        assertEquals(300, result.histories());
+        assertTrue(result.passed(), () -> String.join("\n", result.violations()));
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.ticketing.core.stress;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.example.ticketing.core.OperationTracer;
+import com.example.ticketing.core.PoolOperation;
+import com.example.ticketing.core.TicketEngine;
+
+/**
+ * A pool implementation under test by the {@link StressHarness}.
+ * Any pool that offers these operations with bounded FIFO semantics can be checked, whether it is
+ * a {@link TicketEngine} over some store or an entirely different, e.g. lock-free, design.
+ */
+public interface StressTarget {
+
+    /**
+     * Adds a ticket if there is room, without waiting.
+     *
+     * @param ticket the ticket
+     * @return whether it was added
+     */
+    boolean tryAdd(int ticket);
+
+    /**
+     * Adds a ticket, waiting for room.
+     *
+     * @param ticket the ticket
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void add(int ticket) throws InterruptedException;
+
+    /**
+     * Removes the oldest ticket, waiting for one.
+     *
+     * @return the ticket
+     * @throws InterruptedException if interrupted while waiting
+     */
+    int remove() throws InterruptedException;
+
+    /**
+     * Adds as many of the tickets, in order, as there is room for, without waiting.
+     *
+     * @param tickets the tickets
+     * @return the number added
+     */
+    int offer(int[] tickets);
+
+    /**
+     * Removes up to the given number of oldest tickets without waiting.
+     *
+     * @param maxTickets the maximum number to remove
+     * @return the removed tickets, oldest first
+     */
+    int[] poll(int maxTickets);
+
+    /**
+     * Returns the number of tickets held.
+     *
+     * @return the size
+     */
+    int size();
+
+    /**
+     * Returns the maximum number of tickets the pool can hold.
+     *
+     * @return the capacity
+     */
+    int capacity();
+
+    /**
+     * Returns the largest size the pool reports having reached.
+     *
+     * @return the pool's own peak size statistic
+     */
+    int peakSize();
+
+    /**
+     * Returns the largest size actually reached, observed independently of the pool's own
+     * statistic, or -1 if the pool cannot be observed that way.
+     *
+     * @return the observed peak size, or -1
+     */
+    default int observedPeakSize() {
+        return -1;
+    }
+
+    /**
+     * Wraps a ticket engine, observing every size change through an {@link OperationTracer}.
+     *
+     * @param engine the engine to test; its tracer is replaced
+     * @return the target
+     */
+    static StressTarget of(TicketEngine<Integer> engine) {
+        return new EngineTarget(engine);
+    }
+
+    /** A {@link TicketEngine} as a stress target. */
+    final class EngineTarget implements StressTarget, OperationTracer {
+        private final TicketEngine<Integer> engine;
+        private int observedPeak; // Written under the engine lock, read after the workers joined
+
+        EngineTarget(TicketEngine<Integer> engine) {
+            this.engine = engine;
+            engine.setOperationTracer(this);
+        }
+
+        @Override
+        public void onOperation(PoolOperation operation, int requested, int result, int sizeAfter) {
+            observedPeak = Math.max(observedPeak, sizeAfter);
+        }
+
+        @Override
+        public boolean tryAdd(int ticket) {
+            return engine.tryAddTicket(ticket);
+        }
+
+        @Override
+        public void add(int ticket) throws InterruptedException {
+            engine.addTicket(ticket);
+        }
+
+        @Override
+        public int remove() throws InterruptedException {
+            return engine.removeTicket();
+        }
+
+        @Override
+        public int offer(int[] tickets) {
+            List<Integer> list = new ArrayList<>(tickets.length);
+            for (int ticket : tickets) {
+                list.add(ticket);
+            }
+            return engine.offerTickets(list);
+        }
+
+        @Override
+        public int[] poll(int maxTickets) {
+            return engine.pollTickets(maxTickets).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        @Override
+        public int size() {
+            return engine.getTicketCount();
+        }
+
+        @Override
+        public int capacity() {
+            return engine.getMaxCapacity();
+        }
+
+        @Override
+        public int peakSize() {
+            return engine.getPeakPoolSize();
+        }
+
+        @Override
+        public int observedPeakSize() {
+            return observedPeak;
+        }
+    }
+}
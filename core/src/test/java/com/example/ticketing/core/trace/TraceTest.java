@@ -0,0 +1,119 @@
+package com.example.ticketing.core.trace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import com.example.ticketing.core.PoolOperation;
+import com.example.ticketing.core.StoreType;
+import com.example.ticketing.core.TicketCodec;
+import com.example.ticketing.core.TicketEngine;
+
+class TraceTest {
+
+    @Test
+    void recordedOperationsReadBackInOrder() throws IOException, InterruptedException {
+        TicketEngine<Integer> engine = new TicketEngine<>(StoreType.HEAP.create(10, TicketCodec.int32()));
+        engine.offerTickets(List.of(1, 2));
+        TraceRecorder recorder = new TraceRecorder(10, 1 << 16);
+        engine.setOperationTracer(recorder); // Attached to a running pool holding two tickets
+
+        engine.addTicket(3);
+        engine.offerTickets(List.of(4, 5, 6));
+        engine.pollTickets(4);
+        engine.removeTicket();
+        engine.handOverTickets(5);
+
+        Trace trace = Trace.read(new ByteArrayInputStream(write(recorder)));
+
+        assertEquals(10, trace.capacity());
+        assertEquals(2, trace.initialSize());
+        assertEquals(recorder.getEntryCount(), trace.entries().size());
+        assertEquals(List.of(PoolOperation.ADD, PoolOperation.OFFER, PoolOperation.POLL, PoolOperation.REMOVE,
+            PoolOperation.HAND_OVER), trace.entries().stream().map(TraceEntry::operation).toList());
+        TraceEntry offer = trace.entries().get(1);
+        assertEquals(3, offer.requested());
+        assertEquals(3, offer.result());
+        assertEquals(6, offer.sizeAfter());
+        TraceEntry handOver = trace.entries().get(4);
+        assertEquals(5, handOver.requested());
+        assertEquals(1, handOver.result());
+        assertEquals(0, handOver.sizeAfter());
+        assertTrue(handOver.removes());
+        assertEquals(Thread.currentThread().threadId(), handOver.threadId());
+        assertTrue(trace.durationNanos() >= 0);
+    }
+
+    @Test
+    void largeValuesSurviveTheVarintEncoding() throws IOException {
+        TraceRecorder recorder = new TraceRecorder(Integer.MAX_VALUE, 1 << 10);
+        recorder.onOperation(PoolOperation.OFFER, Integer.MAX_VALUE, 300, 128);
+
+        TraceEntry entry = Trace.read(new ByteArrayInputStream(write(recorder))).entries().get(0);
+
+        assertEquals(Integer.MAX_VALUE, entry.requested());
+        assertEquals(300, entry.result());
+        assertEquals(128, entry.sizeAfter());
+    }
+
+    @Test
+    void recorderStopsAtTheByteLimitAndMarksTheTraceTruncated() throws IOException {
+        TraceRecorder recorder = new TraceRecorder(4, 200);
+        for (int i = 0; i < 100; i++) {
+            recorder.onOperation(PoolOperation.TRY_ADD, 1, 1, 1);
+        }
+
+        assertTrue(recorder.isTruncated());
+        assertTrue(recorder.getSizeBytes() <= 200);
+        assertEquals(recorder.getEntryCount(), Trace.read(new ByteArrayInputStream(write(recorder))).entries().size());
+    }
+
+    @Test
+    void readsVersionOneTracesAsStartingFromAnEmptyPool() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0x54505431); // "TPT1"
+        out.writeInt(8);
+        out.writeLong(1_700_000_000_000L);
+        out.write(new byte[] {(byte) PoolOperation.ADD.ordinal(), 1, 0, 1, 1, 1});
+        out.write(new byte[] {(byte) PoolOperation.REMOVE.ordinal(), 1, (byte) 0xE8, 0x07, 1, 1, 0});
+
+        Trace trace = Trace.read(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertEquals(8, trace.capacity());
+        assertEquals(0, trace.initialSize());
+        assertEquals(1_700_000_000_000L, trace.startedAtMillis());
+        assertEquals(2, trace.entries().size());
+        assertEquals(1_000, trace.durationNanos());
+        assertEquals(PoolOperation.REMOVE, trace.entries().get(1).operation());
+    }
+
+    @Test
+    void rejectsAnythingElse() {
+        byte[] notATrace = "not a trace at all".getBytes();
+
+        assertThrows(IOException.class, () -> Trace.read(new ByteArrayInputStream(notATrace)));
+    }
+
+    @Test
+    void rejectsATruncatedRecord() throws IOException {
+        TraceRecorder recorder = new TraceRecorder(4, 1 << 10);
+        recorder.onOperation(PoolOperation.ADD, 1, 1, 1);
+        byte[] bytes = write(recorder);
+
+        assertThrows(IOException.class, () -> Trace.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1))));
+    }
+
+    private static byte[] write(TraceRecorder recorder) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recorder.writeTo(out);
+        return out.toByteArray();
+    }
+}